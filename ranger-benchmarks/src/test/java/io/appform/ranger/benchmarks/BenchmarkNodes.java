@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import io.appform.ranger.core.finder.nodeselector.AliasWeightedSelector;
+import io.appform.ranger.core.finder.nodeselector.LatencyAwareServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.StripedRoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.WeightedRandomServiceNodeSelector;
+import io.appform.ranger.core.model.NamedCriteria;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.WeightedNodeSelectorConfig;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Node lists, criteria and selectors shared by the benchmarks
+ */
+@UtilityClass
+public class BenchmarkNodes {
+    public static final Service SERVICE = Service.builder().namespace("benchmark").serviceName("test-service").build();
+
+    private static final WeightedNodeSelectorConfig WEIGHTED_CONFIG = WeightedNodeSelectorConfig.builder()
+            .minNodeAgeMs(30_000)
+            .weightBoostMultiplier(2.0)
+            .weightedSelectionThreshold(10)
+            .build();
+
+    /**
+     * @param nodeCount   Number of nodes
+     * @param selectivity Percentage of nodes matched by {@link #criteria(int)}, nodes are spread over
+     *                    100 / selectivity shards
+     */
+    public static List<ServiceNode<BenchmarkNodeData>> nodes(int nodeCount, int selectivity) {
+        val shards = Math.max(1, 100 / selectivity);
+        val now = System.currentTimeMillis();
+        val nodes = new ArrayList<ServiceNode<BenchmarkNodeData>>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(ServiceNode.<BenchmarkNodeData>builder()
+                              .host("host-" + i)
+                              .port(8080)
+                              .routingWeight(1 + (i % 3))
+                              .healthySinceTimeStamp(now - i * 1_000L)
+                              .lastUpdatedTimeStamp(now)
+                              .nodeData(new BenchmarkNodeData(i % shards))
+                              .build());
+        }
+        return nodes;
+    }
+
+    /**
+     * @return null when all nodes are selected, so that the no criteria path is measured
+     */
+    public static Predicate<BenchmarkNodeData> criteria(int selectivity) {
+        return selectivity >= 100
+               ? null
+               : NamedCriteria.of("shard-0", nodeData -> nodeData.getShardId() == 0);
+    }
+
+    public static ServiceNodeSelector<BenchmarkNodeData> nodeSelector(String name) {
+        switch (name) {
+            case "round-robin":
+                return new RoundRobinServiceNodeSelector<>();
+            case "striped-round-robin":
+                return new StripedRoundRobinServiceNodeSelector<>();
+            case "weighted":
+                return new WeightedRandomServiceNodeSelector<>(WEIGHTED_CONFIG);
+            case "alias":
+                return new AliasWeightedSelector<>(WEIGHTED_CONFIG);
+            case "latency-aware":
+                return new LatencyAwareServiceNodeSelector<>();
+            case "random":
+                return new RandomServiceNodeSelector<>();
+            default:
+                throw new IllegalArgumentException("Unknown selector " + name);
+        }
+    }
+}
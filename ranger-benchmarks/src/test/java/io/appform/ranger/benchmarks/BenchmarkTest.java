@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs all benchmarks of the subclass in throughput and sample time modes for every configured thread count, with
+ * the gc profiler on, and writes one JSON file per benchmark, parameter combination and thread count to
+ * perf/results. Thread counts can be overridden with -Dbenchmark.threads=1,8,32,64
+ */
+public abstract class BenchmarkTest {
+
+    public static final ObjectMapper mapper = new ObjectMapper();
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    @Test
+    void testBenchmark() throws RunnerException, IOException {
+        Files.createDirectories(Paths.get("perf/results"));
+        for (val threads : threadCounts()) {
+            val opt = new OptionsBuilder()
+                    .include(String.format("%s.*", this.getClass().getName()))
+                    .mode(Mode.Throughput)
+                    .mode(Mode.SampleTime)
+                    .timeUnit(TimeUnit.MICROSECONDS)
+                    .warmupTime(TimeValue.seconds(2))
+                    .warmupIterations(2)
+                    .measurementTime(TimeValue.seconds(2))
+                    .measurementIterations(3)
+                    .threads(threads)
+                    .forks(1)
+                    .addProfiler(GCProfiler.class)
+                    .shouldFailOnError(true)
+                    .shouldDoGC(true)
+                    .build();
+            for (val runResult : new Runner(opt).run()) {
+                write(runResult);
+            }
+        }
+    }
+
+    /**
+     * @return Thread counts to run with when none are given on the command line
+     */
+    protected String defaultThreadCounts() {
+        return "1,8,32";
+    }
+
+    private List<Integer> threadCounts() {
+        return Arrays.stream(System.getProperty("benchmark.threads", defaultThreadCounts()).split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+    }
+
+    private static void write(RunResult runResult) throws IOException {
+        val params = runResult.getParams();
+        val outputNode = mapper.createObjectNode();
+        outputNode.put("name", params.getBenchmark());
+        outputNode.put("mode", params.getMode().name());
+        outputNode.put("iterations", params.getMeasurement().getCount());
+        outputNode.put("threads", params.getThreads());
+        outputNode.put("forks", params.getForks());
+        val paramsNode = outputNode.putObject("params");
+        params.getParamsKeys().forEach(key -> paramsNode.put(key, params.getParam(key)));
+        val statistics = runResult.getPrimaryResult().getStatistics();
+        outputNode.put("unit", runResult.getPrimaryResult().getScoreUnit());
+        outputNode.put("mean", statistics.getMean());
+        if (params.getMode() == Mode.SampleTime) {
+            val percentilesNode = outputNode.putObject("percentiles");
+            for (val percentile : PERCENTILES) {
+                percentilesNode.put("p" + percentile, statistics.getPercentile(percentile));
+            }
+        }
+        runResult.getSecondaryResults()
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                .findFirst()
+                .ifPresent(entry -> outputNode.put("alloc_bytes_per_op", entry.getValue().getScore()));
+        val fileName = new StringBuilder(params.getBenchmark())
+                .append('.').append(params.getMode().shortLabel())
+                .append(".t").append(params.getThreads());
+        params.getParamsKeys().forEach(key -> fileName.append('.').append(key).append('-').append(params.getParam(key)));
+        Files.write(Paths.get(String.format("perf/results/%s.json", fileName)),
+                    mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(outputNode));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import com.google.common.base.Stopwatch;
+import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
+import io.appform.ranger.core.finder.SimpleShardedServiceFinderBuilder;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finderhub.ServiceFinderHub;
+import io.appform.ranger.core.finderhub.ServiceFinderHubBuilder;
+import io.appform.ranger.core.finderhub.StaticDataSource;
+import io.appform.ranger.core.model.Deserializer;
+import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.signals.RefreshScheduler;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Starts a hub tracking 5000 services whose data source blocks for a few milliseconds per call, once on platform
+ * threads and once on virtual threads, and records start up time, live threads and resident memory to perf/results.
+ */
+public class HubStartupBenchmarkTest {
+    private static final int SERVICE_COUNT = 5_000;
+    private static final long UPSTREAM_LATENCY_MS = 5;
+
+    @Test
+    void testHubStartupOnPlatformThreads() {
+        runHubStartup("platform", RefreshScheduler.shared());
+    }
+
+    @Test
+    void testHubStartupOnVirtualThreads() {
+        runHubStartup("virtual", RefreshScheduler.virtualThreads());
+    }
+
+    @SneakyThrows
+    private void runHubStartup(String mode, RefreshScheduler refreshScheduler) {
+        val services = IntStream.range(0, SERVICE_COUNT)
+                .mapToObj(i -> Service.builder().namespace("benchmark").serviceName("service-" + i).build())
+                .collect(Collectors.toSet());
+        final ServiceFinderHub<BenchmarkNodeData, MapBasedServiceRegistry<BenchmarkNodeData>> hub
+                = new ServiceFinderHubBuilder<BenchmarkNodeData, MapBasedServiceRegistry<BenchmarkNodeData>>() {
+            @Override
+            protected void preBuild() {
+                //Nothing to do
+            }
+
+            @Override
+            protected void postBuild(ServiceFinderHub<BenchmarkNodeData, MapBasedServiceRegistry<BenchmarkNodeData>> serviceFinderHub) {
+                //Nothing to do
+            }
+        }
+                .withServiceDataSource(new StaticDataSource(services))
+                .withServiceFinderFactory(service -> {
+                    val finder = new BlockingFinderBuilder()
+                            .withNamespace(service.getNamespace())
+                            .withServiceName(service.getServiceName())
+                            .withDeserializer(new Deserializer<>() {
+                            })
+                            .withNodeRefreshIntervalMs(10_000)
+                            .withRefreshScheduler(refreshScheduler)
+                            .build();
+                    finder.start();
+                    return finder;
+                })
+                .withRefreshScheduler(refreshScheduler)
+                .withHubStartTimeout(600_000)
+                .build();
+        val stopwatch = Stopwatch.createStarted();
+        hub.start();
+        val startupMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        val threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+        val heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        hub.stop();
+
+        Files.createDirectories(Paths.get("perf/results"));
+        val outputNode = BenchmarkTest.mapper.createObjectNode();
+        outputNode.put("name", getClass().getName());
+        outputNode.put("mode", mode);
+        outputNode.put("virtual_threads_supported", RefreshScheduler.virtualThreadsSupported());
+        outputNode.put("services", SERVICE_COUNT);
+        outputNode.put("startup_ms", startupMs);
+        outputNode.put("live_platform_threads", threadCount);
+        outputNode.put("heap_used_bytes", heapUsed);
+        outputNode.put("rss_kb", residentSetKb());
+        Files.write(Paths.get(String.format("perf/results/%s.%s.json", getClass().getName(), mode)),
+                    BenchmarkTest.mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(outputNode));
+    }
+
+    //Only available on Linux, -1 elsewhere
+    @SneakyThrows
+    private static long residentSetKb() {
+        val status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status)
+                .stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static final class BlockingFinderBuilder
+            extends SimpleShardedServiceFinderBuilder<BenchmarkNodeData, BlockingFinderBuilder, Deserializer<BenchmarkNodeData>> {
+
+        @Override
+        public SimpleShardedServiceFinder<BenchmarkNodeData> build() {
+            return buildFinder();
+        }
+
+        @Override
+        protected NodeDataSource<BenchmarkNodeData, Deserializer<BenchmarkNodeData>> dataSource(Service service) {
+            return new NodeDataSource<>() {
+                @Override
+                @SneakyThrows
+                public Optional<List<ServiceNode<BenchmarkNodeData>>> refresh(Deserializer<BenchmarkNodeData> deserializer) {
+                    //Stands in for a blocking call to the upstream
+                    Thread.sleep(UPSTREAM_LATENCY_MS);
+                    return Optional.of(BenchmarkNodes.nodes(3, 100));
+                }
+
+                @Override
+                public void start() {
+                    //Nothing to do
+                }
+
+                @Override
+                public void ensureConnected() {
+                    //Nothing to do
+                }
+
+                @Override
+                public void stop() {
+                    //Nothing to do
+                }
+
+                @Override
+                public boolean isActive() {
+                    return true;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Shared counter round robin against the striped one, under increasing thread counts
+ */
+public class RoundRobinContentionBenchmarkTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class SelectorState {
+        @Param({"round-robin", "striped-round-robin"})
+        public String nodeSelector;
+
+        ServiceNodeSelector<BenchmarkNodeData> selector;
+        List<ServiceNode<BenchmarkNodeData>> serviceNodes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            selector = BenchmarkNodes.nodeSelector(nodeSelector);
+            serviceNodes = List.copyOf(BenchmarkNodes.nodes(16, 100));
+        }
+    }
+
+    @Override
+    protected String defaultThreadCounts() {
+        return "1,8,32,64";
+    }
+
+    @Benchmark
+    public ServiceNode<BenchmarkNodeData> select(SelectorState state) {
+        return state.selector.select(state.serviceNodes);
+    }
+}
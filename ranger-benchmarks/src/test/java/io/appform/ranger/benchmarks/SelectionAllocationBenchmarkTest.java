@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.CachingShardSelector;
+import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Checks that node selection for null and cached criteria does not allocate, using the JMH gc profiler
+ */
+public class SelectionAllocationBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class FinderState {
+        @Param({"random", "round-robin", "weighted", "alias", "latency-aware"})
+        public String nodeSelector;
+
+        @Param({"8", "64"})
+        public int nodeCount;
+
+        SimpleShardedServiceFinder<BenchmarkNodeData> finder;
+        final Predicate<BenchmarkNodeData> criteria = BenchmarkNodes.criteria(50);
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            val registry = new MapBasedServiceRegistry<BenchmarkNodeData>(BenchmarkNodes.SERVICE);
+            registry.updateNodes(BenchmarkNodes.nodes(nodeCount, 50));
+            finder = new SimpleShardedServiceFinder<>(registry,
+                                                      new CachingShardSelector<>(new MatchingShardSelector<>()),
+                                                      BenchmarkNodes.nodeSelector(nodeSelector));
+        }
+    }
+
+    @Benchmark
+    public ServiceNode<BenchmarkNodeData> getWithoutCriteria(FinderState state) {
+        return state.finder.getNodeOrNull(null);
+    }
+
+    @Benchmark
+    public ServiceNode<BenchmarkNodeData> getWithCachedCriteria(FinderState state) {
+        return state.finder.getNodeOrNull(state.criteria);
+    }
+
+    @Test
+    void testSelectionDoesNotAllocate() throws RunnerException {
+        val opt = new OptionsBuilder()
+                .include(String.format("%s.*", this.getClass().getName()))
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .warmupTime(TimeValue.seconds(2))
+                .warmupIterations(2)
+                .measurementTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .threads(1)
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+        for (val runResult : new Runner(opt).run()) {
+            val allocationRate = runResult.getSecondaryResults()
+                    .entrySet()
+                    .stream()
+                    .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                    .map(entry -> entry.getValue().getScore())
+                    .findFirst()
+                    .orElseThrow();
+            //Anything below a byte per op is harness noise averaged over millions of calls
+            Assertions.assertTrue(allocationRate < 1.0,
+                                  String.format("%s %s allocated %.2f B/op",
+                                                runResult.getParams().getBenchmark(),
+                                                runResult.getParams().getParam("nodeSelector"),
+                                                allocationRate));
+        }
+    }
+}
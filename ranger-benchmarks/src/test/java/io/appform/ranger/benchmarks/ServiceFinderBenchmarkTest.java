@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.CachingShardSelector;
+import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ShardSelector;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Predicate;
+
+/**
+ * End to end node lookup through {@link SimpleShardedServiceFinder}: shard selection followed by node selection
+ */
+public class ServiceFinderBenchmarkTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class FinderState {
+        @Param({"10", "100", "1000", "10000"})
+        public int nodeCount;
+
+        @Param({"100", "10", "1"})
+        public int selectivity;
+
+        @Param({"matching", "caching"})
+        public String shardSelector;
+
+        @Param({"random", "round-robin", "striped-round-robin", "weighted", "alias", "latency-aware"})
+        public String nodeSelector;
+
+        SimpleShardedServiceFinder<BenchmarkNodeData> finder;
+        Predicate<BenchmarkNodeData> criteria;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            val registry = new MapBasedServiceRegistry<BenchmarkNodeData>(BenchmarkNodes.SERVICE);
+            registry.updateNodes(BenchmarkNodes.nodes(nodeCount, selectivity));
+            final ShardSelector<BenchmarkNodeData, MapBasedServiceRegistry<BenchmarkNodeData>> matching
+                    = new MatchingShardSelector<>();
+            finder = new SimpleShardedServiceFinder<>(registry,
+                                                      "caching".equals(shardSelector)
+                                                      ? new CachingShardSelector<>(matching)
+                                                      : matching,
+                                                      BenchmarkNodes.nodeSelector(nodeSelector));
+            criteria = BenchmarkNodes.criteria(selectivity);
+        }
+    }
+
+    @Benchmark
+    public ServiceNode<BenchmarkNodeData> get(FinderState state) {
+        return state.finder.getNodeOrNull(state.criteria);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.benchmarks;
+
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Cost of updating a registry with a node list that has changed, including building the shard index, and with one
+ * that has not, where only timestamps are refreshed
+ */
+public class ServiceRegistryUpdateBenchmarkTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class RegistryState {
+        @Param({"10", "100", "1000", "10000"})
+        public int nodeCount;
+
+        @Param({"100", "10", "1"})
+        public int selectivity;
+
+        MapBasedServiceRegistry<BenchmarkNodeData> registry;
+        List<ServiceNode<BenchmarkNodeData>> nodes;
+        List<ServiceNode<BenchmarkNodeData>> changedNodes;
+        boolean flip;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            registry = new MapBasedServiceRegistry<>(BenchmarkNodes.SERVICE);
+            nodes = BenchmarkNodes.nodes(nodeCount, selectivity);
+            changedNodes = BenchmarkNodes.nodes(nodeCount + 1, selectivity);
+        }
+    }
+
+    @Benchmark
+    public long updateChangedNodes(RegistryState state) {
+        state.flip = !state.flip;
+        state.registry.updateNodes(state.flip ? state.nodes : state.changedNodes);
+        return state.registry.getGeneration();
+    }
+
+    @Benchmark
+    public long updateUnchangedNodes(RegistryState state) {
+        state.registry.updateNodes(state.nodes);
+        return state.registry.getGeneration();
+    }
+}
@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class RoundRobinContentionBenchmarkTest_SelectorState_jmhType extends RoundRobinContentionBenchmarkTest_SelectorState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class RoundRobinContentionBenchmarkTest_jmhType extends RoundRobinContentionBenchmarkTest_jmhType_B3 {
+}
+
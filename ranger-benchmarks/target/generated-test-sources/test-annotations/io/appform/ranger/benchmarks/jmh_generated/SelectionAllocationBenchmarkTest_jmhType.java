@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class SelectionAllocationBenchmarkTest_jmhType extends SelectionAllocationBenchmarkTest_jmhType_B3 {
+}
+
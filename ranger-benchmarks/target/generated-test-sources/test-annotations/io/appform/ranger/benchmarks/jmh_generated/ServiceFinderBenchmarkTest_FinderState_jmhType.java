@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class ServiceFinderBenchmarkTest_FinderState_jmhType extends ServiceFinderBenchmarkTest_FinderState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class ServiceFinderBenchmarkTest_jmhType extends ServiceFinderBenchmarkTest_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.appform.ranger.benchmarks.jmh_generated;
+public class ServiceRegistryUpdateBenchmarkTest_jmhType extends ServiceRegistryUpdateBenchmarkTest_jmhType_B3 {
+}
+
@@ -61,6 +61,23 @@ public abstract class AbstractRangerClient<T, R extends ServiceRegistry<T>> impl
                                       nodeSelector);
     }
 
+    @Override
+    public ServiceNode<T> getNodeOrNull(Predicate<T> criteria) {
+        return getServiceFinder().getNodeOrNull(
+                CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria), null, null);
+    }
+
+    @Override
+    public Optional<ServiceNode<T>> acquireNode(Predicate<T> criteria) {
+        return getServiceFinder().acquire(
+                CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria));
+    }
+
+    @Override
+    public void reportOutcome(ServiceNode<T> node, long latencyNanos, boolean success) {
+        getServiceFinder().reportOutcome(node, latencyNanos, success);
+    }
+
     @Override
     public List<ServiceNode<T>> getAllNodes() {
         return getAllNodes(initialCriteria);
@@ -22,10 +22,13 @@ import io.appform.ranger.core.finderhub.ServiceDataSource;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.model.*;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.util.FinderUtils;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -57,6 +60,23 @@ public abstract class AbstractRangerHubClient<T, R extends ServiceRegistry<T>, D
     private long hubStartTimeoutMs;
     private Set<String> excludedServices;
 
+    /**
+     * Start even if some services are not ready within the hub start timeout. Such services are served once they
+     * become ready.
+     */
+    private boolean startDegraded;
+
+    /**
+     * Scheduler to run hub and finder refreshes on. Defaults to {@link RefreshScheduler#shared()}.
+     * Use {@link RefreshScheduler#virtualThreads()} to run them on virtual threads on JDK 21 and above.
+     */
+    private RefreshScheduler refreshScheduler;
+
+    /**
+     * Jitter, staggered start and backoff for node refreshes. Defaults to {@link RefreshIntervalPolicy#fixed()}.
+     */
+    private RefreshIntervalPolicy refreshIntervalPolicy;
+
     @Override
     public void start() {
         Preconditions.checkNotNull(mapper, "Mapper can't be null");
@@ -140,6 +160,43 @@ public abstract class AbstractRangerHubClient<T, R extends ServiceRegistry<T>, D
                                                         nodeSelector));
     }
 
+    @Override
+    public ServiceNode<T> getNodeOrNull(final Service service, final Predicate<T> criteria) {
+        val finder = this.getHub().getFinders().get().get(service);
+        return null == finder
+               ? null
+               : finder.getNodeOrNull(CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria),
+                                      null,
+                                      null);
+    }
+
+    @Override
+    public long getLastUpdate(final Service service) {
+        val finder = this.getHub().getFinders().get().get(service);
+        return null == finder ? -1 : finder.getServiceRegistry().getLastUpdate();
+    }
+
+    @Override
+    public Optional<ServiceNode<T>> acquireNode(final Service service, final Predicate<T> criteria) {
+        return this.getHub()
+                .finder(service)
+                .flatMap(finder -> finder.acquire(CriteriaUtils.getCriteria(alwaysUseInitialCriteria,
+                                                                            initialCriteria,
+                                                                            criteria)));
+    }
+
+    @Override
+    public void reportOutcome(
+            final Service service,
+            final ServiceNode<T> node,
+            long latencyNanos,
+            boolean success) {
+        val finder = this.getHub().getFinders().get().get(service);
+        if (null != finder) {
+            finder.reportOutcome(node, latencyNanos, success);
+        }
+    }
+
     @Override
     public List<ServiceNode<T>> getAllNodes(
             final Service service,
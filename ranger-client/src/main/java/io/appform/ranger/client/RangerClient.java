@@ -40,6 +40,33 @@ public interface RangerClient<T, R extends ServiceRegistry<T>> {
             final ShardSelector<T, R> shardSelector,
             final ServiceNodeSelector<T> nodeSelector);
 
+    /**
+     * Allocation free variant of {@link #getNode(Predicate)} for hot paths
+     *
+     * @param criteria Criteria to select the shard
+     * @return Selected node or null if no matching node exists
+     */
+    ServiceNode<T> getNodeOrNull(final Predicate<T> criteria);
+
+    /**
+     * Same as {@link #getNode(Predicate)}, for callers that will report the outcome of the call made to the returned
+     * node using {@link #reportOutcome(ServiceNode, long, boolean)}
+     *
+     * @param criteria Criteria to select the shard
+     * @return Selected node if a matching node exists
+     */
+    Optional<ServiceNode<T>> acquireNode(final Predicate<T> criteria);
+
+    /**
+     * Report the result of a call made to a node obtained from this client. Feeds node selectors that route on
+     * live performance data. A no-op for selectors that do not use it.
+     *
+     * @param node         Node the call was made to
+     * @param latencyNanos Time taken by the call
+     * @param success      Whether the call succeeded
+     */
+    void reportOutcome(final ServiceNode<T> node, long latencyNanos, boolean success);
+
     List<ServiceNode<T>> getAllNodes();
 
     List<ServiceNode<T>> getAllNodes(final Predicate<T> criteria);
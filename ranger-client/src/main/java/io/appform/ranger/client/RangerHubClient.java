@@ -52,6 +52,36 @@ public interface RangerHubClient<T, R extends ServiceRegistry<T>> {
             ShardSelector<T, R> shardSelector,
             ServiceNodeSelector<T> nodeSelector);
 
+    /**
+     * Allocation free variant of {@link #getNode(Service, Predicate)} for hot paths
+     *
+     * @param service  Service to look up
+     * @param criteria Criteria to select the shard
+     * @return Selected node or null if the service is not known or no matching node exists
+     */
+    ServiceNode<T> getNodeOrNull(final Service service, final Predicate<T> criteria);
+
+    /**
+     * Same as {@link #getNode(Service, Predicate)}, for callers that will report the outcome of the call made to the
+     * returned node using {@link #reportOutcome(Service, ServiceNode, long, boolean)}
+     *
+     * @param service  Service to look up
+     * @param criteria Criteria to select the shard
+     * @return Selected node if the service is known and a matching node exists
+     */
+    Optional<ServiceNode<T>> acquireNode(final Service service, final Predicate<T> criteria);
+
+    /**
+     * Report the result of a call made to a node of the given service. Feeds node selectors that route on
+     * live performance data. A no-op for selectors that do not use it.
+     *
+     * @param service      Service the node belongs to
+     * @param node         Node the call was made to
+     * @param latencyNanos Time taken by the call
+     * @param success      Whether the call succeeded
+     */
+    void reportOutcome(final Service service, final ServiceNode<T> node, long latencyNanos, boolean success);
+
     List<ServiceNode<T>> getAllNodes(final Service service, final Predicate<T> criteria);
 
     List<ServiceNode<T>> getAllNodes(
@@ -59,6 +89,15 @@ public interface RangerHubClient<T, R extends ServiceRegistry<T>> {
             final Predicate<T> criteria,
             final ShardSelector<T, R> shardSelector);
 
+    /**
+     * @param service Service to look up
+     * @return Stamp of the last update to the node list of the service, see {@link ServiceRegistry#getLastUpdate()}.
+     * Negative if the service is not known or updates are not tracked.
+     */
+    default long getLastUpdate(final Service service) {
+        return -1;
+    }
+
     default boolean isReplicationSource() {
         return false;
     }
@@ -22,11 +22,14 @@ import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
 import io.appform.ranger.core.finder.serviceregistry.ServiceRegistryUpdater;
 import io.appform.ranger.core.finder.serviceregistry.signal.ScheduledRegistryUpdateSignal;
 import io.appform.ranger.core.model.Deserializer;
+import io.appform.ranger.core.model.HubConstants;
 import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.Signal;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -51,9 +54,13 @@ public abstract class BaseServiceFinderBuilder
     protected String serviceName;
     protected int nodeRefreshIntervalMs;
     protected boolean disablePushUpdaters;
+    protected boolean deltaRefresh;
+    protected long initialUpdateTimeoutMs = HubConstants.SERVICE_REFRESH_TIMEOUT_MS;
     protected D deserializer;
     protected ShardSelector<T, R> shardSelector;
     protected ServiceNodeSelector<T> nodeSelector = new RandomServiceNodeSelector<>();
+    protected RefreshScheduler refreshScheduler;
+    protected RefreshIntervalPolicy refreshIntervalPolicy = RefreshIntervalPolicy.fixed();
     protected final List<Signal<T>> additionalRefreshSignals = new ArrayList<>();
     protected final List<Consumer<Void>> startSignalHandlers = Lists.newArrayList();
     protected final List<Consumer<Void>> stopSignalHandlers = Lists.newArrayList();
@@ -88,6 +95,56 @@ public abstract class BaseServiceFinderBuilder
         return (B)this;
     }
 
+    /**
+     * Scheduler to run periodic refreshes and registry updates on. Defaults to {@link RefreshScheduler#shared()}.
+     */
+    public B withRefreshScheduler(RefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+        return (B)this;
+    }
+
+    /**
+     * Run refreshes and registry updates on virtual threads. Needs JDK 21 or above, ignored with a warning otherwise.
+     */
+    public B withVirtualThreads() {
+        return withRefreshScheduler(RefreshScheduler.virtualThreads());
+    }
+
+    /**
+     * Controls jitter, staggered start and backoff of the periodic node refresh.
+     * Defaults to {@link RefreshIntervalPolicy#fixed()}.
+     */
+    public B withRefreshIntervalPolicy(RefreshIntervalPolicy refreshIntervalPolicy) {
+        this.refreshIntervalPolicy = null != refreshIntervalPolicy ? refreshIntervalPolicy : this.refreshIntervalPolicy;
+        return (B)this;
+    }
+
+    /**
+     * Stagger and jitter periodic refreshes, and poll services with unchanged node lists less often.
+     * See {@link RefreshIntervalPolicy#adaptive()}.
+     */
+    public B withAdaptiveRefresh() {
+        return withRefreshIntervalPolicy(RefreshIntervalPolicy.adaptive());
+    }
+
+    /**
+     * Fetch only changes to the node list on refresh, for data sources that support it.
+     * See {@link NodeDataSource#refreshDelta(Deserializer, String)}.
+     */
+    public B withDeltaRefresh() {
+        this.deltaRefresh = true;
+        return (B)this;
+    }
+
+    /**
+     * Time {@link ServiceFinder#start()} waits for the first node list before failing.
+     * Defaults to {@link HubConstants#SERVICE_REFRESH_TIMEOUT_MS}, non-positive values keep the default.
+     */
+    public B withInitialUpdateTimeoutMs(long initialUpdateTimeoutMs) {
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs > 0 ? initialUpdateTimeoutMs : this.initialUpdateTimeoutMs;
+        return (B)this;
+    }
+
     public B withDisableWatchers() {
         this.disablePushUpdaters = true;
         return (B)this;
@@ -151,14 +208,24 @@ public abstract class BaseServiceFinderBuilder
         val signalGenerators = new ArrayList<Signal<T>>();
         val nodeDataSource = dataSource(service);
 
-        signalGenerators.add(new ScheduledRegistryUpdateSignal<>(service, nodeRefreshIntervalMs));
+        val refreshInterval = refreshIntervalPolicy.create(nodeRefreshIntervalMs);
+        signalGenerators.add(new ScheduledRegistryUpdateSignal<>(service, refreshInterval, refreshScheduler));
         additionalRefreshSignals.addAll(implementationSpecificRefreshSignals(service, nodeDataSource));
         if (!additionalRefreshSignals.isEmpty()) {
             signalGenerators.addAll(additionalRefreshSignals);
             log.debug("Added additional signal handlers");
         }
 
-        val updater = new ServiceRegistryUpdater<>(registry, nodeDataSource, signalGenerators, deserializer);
+        val updater = new ServiceRegistryUpdater<>(registry,
+                                                   nodeDataSource,
+                                                   signalGenerators,
+                                                   deserializer,
+                                                   refreshScheduler,
+                                                   refreshIntervalPolicy.getUnchangedRefreshesBeforeBackoff() > 0
+                                                   ? refreshInterval
+                                                   : null,
+                                                   deltaRefresh,
+                                                   initialUpdateTimeoutMs);
         finder.getStartSignal()
                 .registerConsumers(startSignalHandlers)
                 .registerConsumer(x -> nodeDataSource.start())
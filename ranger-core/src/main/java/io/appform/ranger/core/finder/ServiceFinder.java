@@ -67,11 +67,87 @@ public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
             Predicate<T> criteria,
             final ShardSelector<T, R> shardSelector,
             final ServiceNodeSelector<T> nodeSelector) {
+        return Optional.ofNullable(getNodeOrNull(criteria, shardSelector, nodeSelector));
+    }
+
+    /**
+     * Same as {@link #get(Predicate)}, but returns null instead of an empty {@link Optional} if no node is found.
+     * When called with null or {@link io.appform.ranger.core.model.CacheableCriteria} on a caching shard selector,
+     * and with one of the bundled node selectors, this path does not allocate.
+     *
+     * @param criteria Criteria to select the shard. Can be null.
+     * @return Selected node or null if no matching node exists
+     */
+    public ServiceNode<T> getNodeOrNull(Predicate<T> criteria) {
+        return getNodeOrNull(criteria, null, null);
+    }
+
+    public ServiceNode<T> getNodeOrNull(
+            Predicate<T> criteria,
+            final ShardSelector<T, R> shardSelector,
+            final ServiceNodeSelector<T> nodeSelector) {
         val nodes = ObjectUtils.requireNonNullElse(shardSelector, this.shardSelector)
                 .nodes(criteria, serviceRegistry);
         return nodes.isEmpty()
-               ? Optional.empty()
-               : Optional.ofNullable(ObjectUtils.requireNonNullElse(nodeSelector, this.nodeSelector).select(nodes));
+               ? null
+               : ObjectUtils.requireNonNullElse(nodeSelector, this.nodeSelector).select(nodes);
+    }
+
+    /**
+     * Key aware variant of {@link #get(Predicate)}. With a key aware node selector such as
+     * {@link io.appform.ranger.core.finder.nodeselector.ConsistentHashServiceNodeSelector}, the same routing key
+     * lands on the same node as long as membership is stable. Other selectors ignore the key.
+     *
+     * @param criteria   Criteria to select the shard. Can be null.
+     * @param routingKey Hash of the key to route on, see
+     *                   {@link io.appform.ranger.core.finder.nodeselector.ConsistentHashServiceNodeSelector#routingKey(CharSequence)}
+     * @return Selected node if a matching node exists
+     */
+    public Optional<ServiceNode<T>> get(Predicate<T> criteria, long routingKey) {
+        return Optional.ofNullable(getNodeOrNull(criteria, routingKey));
+    }
+
+    /**
+     * Same as {@link #get(Predicate, long)}, but returns null instead of an empty {@link Optional} if no node is found
+     *
+     * @param criteria   Criteria to select the shard. Can be null.
+     * @param routingKey Hash of the key to route on
+     * @return Selected node or null if no matching node exists
+     */
+    public ServiceNode<T> getNodeOrNull(Predicate<T> criteria, long routingKey) {
+        val nodes = shardSelector.nodes(criteria, serviceRegistry);
+        return nodes.isEmpty()
+               ? null
+               : nodeSelector.select(nodes, routingKey);
+    }
+
+    /**
+     * Same as {@link #get(Predicate)}, for callers that will report the outcome of the call made to the returned node
+     * using {@link #reportOutcome(ServiceNode, long, boolean)}. The call is counted as in flight by node selectors
+     * that route on live performance data till then.
+     *
+     * @param criteria Criteria to select the shard. Can be null.
+     * @return Selected node if a matching node exists
+     */
+    public Optional<ServiceNode<T>> acquire(Predicate<T> criteria) {
+        val node = getNodeOrNull(criteria, null, null);
+        if (null == node) {
+            return Optional.empty();
+        }
+        nodeSelector.callStarted(node);
+        return Optional.of(node);
+    }
+
+    /**
+     * Passes feedback about a call made to a node to the node selector of this finder.
+     * Feedback is not forwarded to selectors passed in per call.
+     *
+     * @param node         Node the call was made to
+     * @param latencyNanos Time taken by the call
+     * @param success      Whether the call succeeded
+     */
+    public void reportOutcome(ServiceNode<T> node, long latencyNanos, boolean success) {
+        nodeSelector.reportOutcome(node, latencyNanos, success);
     }
 
     public List<ServiceNode<T>> getAll(Predicate<T> criteria) {
@@ -23,9 +23,19 @@ import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
 
+import java.util.function.Function;
+
 public abstract class SimpleShardedServiceFinderBuilder<T, B extends SimpleShardedServiceFinderBuilder<T,B, D>, D extends Deserializer<T>>
         extends BaseServiceFinderBuilder<T, MapBasedServiceRegistry<T>, SimpleShardedServiceFinder<T>, B, D> {
 
+    protected Function<T, ?> shardKeyExtractor;
+
+    @SuppressWarnings("unchecked")
+    public B withShardKeyExtractor(Function<T, ?> shardKeyExtractor) {
+        this.shardKeyExtractor = shardKeyExtractor;
+        return (B) this;
+    }
+
     @Override
     protected SimpleShardedServiceFinder<T> buildFinder(
             Service service,
@@ -35,6 +45,8 @@ public abstract class SimpleShardedServiceFinderBuilder<T, B extends SimpleShard
         if (null == shardSelector) {
             shardSelector = new MatchingShardSelector<>();
         }
-        return new SimpleShardedServiceFinder<>(new MapBasedServiceRegistry<>(service), shardSelector, nodeSelector);
+        return new SimpleShardedServiceFinder<>(new MapBasedServiceRegistry<>(service, shardKeyExtractor),
+                                                shardSelector,
+                                                nodeSelector);
     }
 }
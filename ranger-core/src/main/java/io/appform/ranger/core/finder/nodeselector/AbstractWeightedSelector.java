@@ -16,9 +16,18 @@ public abstract class AbstractWeightedSelector<T> implements ServiceNodeSelector
 
     protected double adjustWeight(ServiceNode<T> node) {
         double adjustedWeight = 1;
-        for (WeightEnricher<T> enricher : weightAdjusters) {
-            adjustedWeight *= enricher.enrichWeight(node);
+        //Indexed loop to avoid allocating an iterator on every selection
+        for (int i = 0; i < weightAdjusters.size(); i++) {
+            adjustedWeight *= weightAdjusters.get(i).enrichWeight(node);
         }
         return adjustedWeight;
     }
+
+    protected long weightValidUntil(ServiceNode<T> node) {
+        long validUntil = Long.MAX_VALUE;
+        for (int i = 0; i < weightAdjusters.size(); i++) {
+            validUntil = Math.min(validUntil, weightAdjusters.get(i).weightValidUntil(node));
+        }
+        return validUntil;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.finder.nodeselector.weightenricher.WeightEnricher;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import io.appform.ranger.core.model.WeightedNodeSelectorConfig;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Weighted random selection in O(1) irrespective of the number of nodes, using Vose's alias method.
+ * The alias table is derived once per {@link SnapshotNodeList} and kept with it, so in practice it is rebuilt once per
+ * refresh.
+ * Weights that depend on time (for example age based boosts) are folded in at build time and the table is rebuilt
+ * only when such a weight actually changes.
+ * Lists that are not snapshots, such as nodes merged from several shards for a single lookup, would need a table per
+ * call, so they are served by a linear scan over the weights instead.
+ */
+public class AliasWeightedSelector<T> extends AbstractWeightedSelector<T> {
+
+    private final Function<List<ServiceNode<T>>, AliasTable> tableBuilder = this::buildTable;
+
+    public AliasWeightedSelector(final WeightedNodeSelectorConfig weightedNodeSelectorConfig) {
+        this(validated(weightedNodeSelectorConfig));
+    }
+
+    public AliasWeightedSelector(final List<WeightEnricher<T>> weightAdjusters) {
+        super(weightAdjusters);
+    }
+
+    @Override
+    @SuppressWarnings("java:S2245")
+    public ServiceNode<T> select(final List<ServiceNode<T>> serviceNodes) {
+        if (serviceNodes.size() == 1) {
+            return serviceNodes.get(0);
+        }
+        if (!SnapshotNodeList.isSnapshot(serviceNodes)) {
+            return selectByScan(serviceNodes, ThreadLocalRandom.current());
+        }
+        AliasTable table = SnapshotNodeList.derived(serviceNodes, this, tableBuilder);
+        if (table.isStale()) {
+            table = SnapshotNodeList.rederived(serviceNodes, this, tableBuilder);
+        }
+        return table.select(serviceNodes, ThreadLocalRandom.current());
+    }
+
+    private ServiceNode<T> selectByScan(final List<ServiceNode<T>> serviceNodes, final ThreadLocalRandom random) {
+        final int size = serviceNodes.size();
+        double totalWeight = 0.0;
+        for (int i = 0; i < size; i++) {
+            totalWeight += Math.max(0.0, adjustWeight(serviceNodes.get(i)));
+        }
+        if (totalWeight <= 0.0) {
+            return serviceNodes.get(random.nextInt(size));
+        }
+        double remaining = random.nextDouble() * totalWeight;
+        for (int i = 0; i < size; i++) {
+            final double weight = Math.max(0.0, adjustWeight(serviceNodes.get(i)));
+            remaining -= weight;
+            if (weight > 0.0 && remaining < 0.0) {
+                return serviceNodes.get(i);
+            }
+        }
+        //Only reached on floating point error, or if a time based weight changed between the two passes
+        for (int i = size - 1; i > 0; i--) {
+            if (adjustWeight(serviceNodes.get(i)) > 0.0) {
+                return serviceNodes.get(i);
+            }
+        }
+        return serviceNodes.get(0);
+    }
+
+    private AliasTable buildTable(final List<ServiceNode<T>> serviceNodes) {
+        final int size = serviceNodes.size();
+        final double[] weights = new double[size];
+        double totalWeight = 0.0;
+        long validUntil = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            final ServiceNode<T> node = serviceNodes.get(i);
+            //Validity is computed before the weight, so that a weight flipping in between only causes an early rebuild
+            validUntil = Math.min(validUntil, weightValidUntil(node));
+            weights[i] = Math.max(0.0, adjustWeight(node));
+            totalWeight += weights[i];
+        }
+        final double[] probabilities = new double[size];
+        final int[] aliases = new int[size];
+        if (totalWeight <= 0.0) {
+            //Nothing to choose on, so all nodes are equally likely
+            Arrays.fill(probabilities, 1.0);
+            return new AliasTable(probabilities, aliases, validUntil);
+        }
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = weights[i] * size / totalWeight;
+            if (weights[i] < 1.0) {
+                small[smallCount++] = i;
+            }
+            else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+            probabilities[less] = weights[less];
+            aliases[less] = more;
+            weights[more] = (weights[more] + weights[less]) - 1.0;
+            if (weights[more] < 1.0) {
+                small[smallCount++] = more;
+            }
+            else {
+                large[largeCount++] = more;
+            }
+        }
+        //Leftovers are 1 barring floating point error
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1.0;
+        }
+        return new AliasTable(probabilities, aliases, validUntil);
+    }
+
+    private static <T> List<WeightEnricher<T>> validated(final WeightedNodeSelectorConfig weightedNodeSelectorConfig) {
+        weightedNodeSelectorConfig.validate();
+        return WeightedRandomServiceNodeSelector.weightEnrichers(weightedNodeSelectorConfig);
+    }
+
+    private static final class AliasTable {
+        private final double[] probabilities;
+        private final int[] aliases;
+        private final long validUntil;
+
+        private AliasTable(double[] probabilities, int[] aliases, long validUntil) {
+            this.probabilities = probabilities;
+            this.aliases = aliases;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isStale() {
+            return validUntil != Long.MAX_VALUE && System.currentTimeMillis() >= validUntil;
+        }
+
+        private <T> ServiceNode<T> select(List<ServiceNode<T>> nodes, ThreadLocalRandom random) {
+            final int column = random.nextInt(probabilities.length);
+            return random.nextDouble() < probabilities[column]
+                   ? nodes.get(column)
+                   : nodes.get(aliases[column]);
+        }
+    }
+}
@@ -28,4 +28,25 @@ public class ConditionalNodeSelector<T> implements ServiceNodeSelector<T> {
             return secondarySelector.select(serviceNodes);
         }
     }
+
+    @Override
+    public ServiceNode<T> select(final List<ServiceNode<T>> serviceNodes, long routingKey) {
+        if (condition.test(serviceNodes)) {
+            return primarySelector.select(serviceNodes, routingKey);
+        } else {
+            return secondarySelector.select(serviceNodes, routingKey);
+        }
+    }
+
+    @Override
+    public void callStarted(ServiceNode<T> node) {
+        primarySelector.callStarted(node);
+        secondarySelector.callStarted(node);
+    }
+
+    @Override
+    public void reportOutcome(ServiceNode<T> node, long latencyNanos, boolean success) {
+        primarySelector.reportOutcome(node, latencyNanos, success);
+        secondarySelector.reportOutcome(node, latencyNanos, success);
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sticky routing on a consistent hash ring. Every node is placed on the ring at a fixed number of points derived from
+ * its host and port, so a routing key maps to the same node while membership is stable and only the keys owned by a
+ * node move when it joins or leaves. Rings are built per distinct membership and reused across registry refreshes
+ * that do not change it. The mapping from ring to list positions is derived once per {@link SnapshotNodeList}, and
+ * lookups are a binary search over a primitive array.
+ * Lists that are not snapshots, such as nodes merged from several shards, are routed by rendezvous hashing instead: a
+ * linear scan that picks the node scoring highest for the key, without allocating. It has the same properties for
+ * stable membership and node churn, but maps keys independently of the ring.
+ * Routing weights are not taken into account, as time based weight boosts would otherwise move keys around.
+ * Selection without a routing key falls back to random.
+ */
+public class ConsistentHashServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    public static final int DEFAULT_POINTS_PER_NODE = 128;
+
+    private final int pointsPerNode;
+
+    //Keyed on membership, so that a refresh returning the same nodes reuses the ring
+    private final Cache<List<String>, Ring> rings = CacheBuilder.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+    private final Function<List<ServiceNode<T>>, Lookup> lookupBuilder = this::buildLookup;
+
+    public ConsistentHashServiceNodeSelector() {
+        this(DEFAULT_POINTS_PER_NODE);
+    }
+
+    public ConsistentHashServiceNodeSelector(int pointsPerNode) {
+        Preconditions.checkArgument(pointsPerNode > 0, "Points per node must be positive");
+        this.pointsPerNode = pointsPerNode;
+    }
+
+    /**
+     * Allocation free 64 bit hash of a key, to be passed as routing key
+     *
+     * @param key Key to route on
+     * @return Routing key
+     */
+    public static long routingKey(CharSequence key) {
+        //FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Override
+    @SuppressWarnings("java:S2245")
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        return serviceNodes.get(ThreadLocalRandom.current().nextInt(serviceNodes.size()));
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, long routingKey) {
+        if (!SnapshotNodeList.isSnapshot(serviceNodes)) {
+            return selectByScan(serviceNodes, routingKey);
+        }
+        final Lookup lookup = SnapshotNodeList.derived(serviceNodes, this, lookupBuilder);
+        return serviceNodes.get(lookup.indexOf(mix(routingKey)));
+    }
+
+    private ServiceNode<T> selectByScan(List<ServiceNode<T>> serviceNodes, long routingKey) {
+        final int size = serviceNodes.size();
+        int selected = 0;
+        long highestScore = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            final long score = mix(routingKey ^ memberHash(serviceNodes.get(i)));
+            //Strictly greater, so that the first of nodes sharing host and port wins, as on the ring
+            if (score > highestScore || i == 0) {
+                highestScore = score;
+                selected = i;
+            }
+        }
+        return serviceNodes.get(selected);
+    }
+
+    private Lookup buildLookup(List<ServiceNode<T>> serviceNodes) {
+        val listIndexByMember = new HashMap<String, Integer>();
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            listIndexByMember.putIfAbsent(memberId(serviceNodes.get(i)), i);
+        }
+        val members = new ArrayList<>(listIndexByMember.keySet());
+        members.sort(null);
+        val ring = ringFor(List.copyOf(members));
+        val listIndexByOrdinal = new int[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            listIndexByOrdinal[i] = listIndexByMember.get(members.get(i));
+        }
+        return new Lookup(ring, listIndexByOrdinal);
+    }
+
+    private Ring ringFor(List<String> members) {
+        try {
+            return rings.get(members, () -> buildRing(members));
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Ring buildRing(List<String> members) {
+        val points = new long[members.size() * pointsPerNode][];
+        int position = 0;
+        for (int ordinal = 0; ordinal < members.size(); ordinal++) {
+            for (int i = 0; i < pointsPerNode; i++) {
+                val hash = Hashing.murmur3_128()
+                        .hashString(members.get(ordinal) + "#" + i, StandardCharsets.UTF_8)
+                        .asLong();
+                points[position++] = new long[]{hash, ordinal};
+            }
+        }
+        Arrays.sort(points, (lhs, rhs) -> Long.compare(lhs[0], rhs[0]));
+        val hashes = new long[points.length];
+        val ordinals = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            hashes[i] = points[i][0];
+            ordinals[i] = (int) points[i][1];
+        }
+        return new Ring(hashes, ordinals);
+    }
+
+    private static String memberId(ServiceNode<?> node) {
+        return node.getHost() + ":" + node.getPort();
+    }
+
+    //Hash of memberId, without building the string
+    private static long memberHash(ServiceNode<?> node) {
+        val host = node.getHost();
+        long hash = null == host ? 0L : routingKey(host);
+        hash ^= node.getPort();
+        hash *= 0x100000001b3L;
+        return mix(hash);
+    }
+
+    //Spreads keys with poor low bits, such as String.hashCode() values, over the ring
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Ring {
+        private final long[] hashes;
+        private final int[] ordinals;
+
+        private Ring(long[] hashes, int[] ordinals) {
+            this.hashes = hashes;
+            this.ordinals = ordinals;
+        }
+
+        private int ordinalFor(long hash) {
+            int position = Arrays.binarySearch(hashes, hash);
+            if (position < 0) {
+                position = -(position + 1);
+            }
+            return ordinals[position == hashes.length ? 0 : position];
+        }
+    }
+
+    private static final class Lookup {
+        private final Ring ring;
+        private final int[] listIndexByOrdinal;
+
+        private Lookup(Ring ring, int[] listIndexByOrdinal) {
+            this.ring = ring;
+            this.listIndexByOrdinal = listIndexByOrdinal;
+        }
+
+        private int indexOf(long hash) {
+            return listIndexByOrdinal[ring.ordinalFor(hash)];
+        }
+    }
+}
@@ -9,6 +9,9 @@ import java.util.concurrent.ThreadLocalRandom;
 
 public class IterativeWeightedSelector<T> extends AbstractWeightedSelector<T> {
 
+    //Per thread scratch space for cumulative weights. Only grows, so steady state selection does not allocate.
+    private static final ThreadLocal<double[]> WEIGHTS_BUFFER = ThreadLocal.withInitial(() -> new double[16]);
+
     public IterativeWeightedSelector(final List<WeightEnricher<T>> weightAdjusters) {
         super(weightAdjusters);
     }
@@ -16,7 +19,7 @@ public class IterativeWeightedSelector<T> extends AbstractWeightedSelector<T> {
     @Override
     @SuppressWarnings("java:S2245")
     public ServiceNode<T> select(final List<ServiceNode<T>> serviceNodes) {
-        final double[] cumulativeWeights = new double[serviceNodes.size()];
+        final double[] cumulativeWeights = cumulativeWeights(serviceNodes.size());
         double totalWeight = 0.0;
 
         for (int i = 0; i < serviceNodes.size(); i++) {
@@ -28,11 +31,20 @@ public class IterativeWeightedSelector<T> extends AbstractWeightedSelector<T> {
 
         final double randomValue = ThreadLocalRandom.current().nextDouble(totalWeight);
         //Returns: index of the search key, if it is contained in the array; otherwise, (-(insertion point) - 1)
-        int index = Arrays.binarySearch(cumulativeWeights, randomValue);
+        int index = Arrays.binarySearch(cumulativeWeights, 0, serviceNodes.size(), randomValue);
         if (index < 0) {
             index = -index - 1;
         }
 
         return serviceNodes.get(index);
     }
+
+    private static double[] cumulativeWeights(int size) {
+        double[] buffer = WEIGHTS_BUFFER.get();
+        if (buffer.length < size) {
+            buffer = new double[Math.max(size, buffer.length * 2)];
+            WEIGHTS_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.finder.nodeselector.weightenricher.RoutingWeightEnricher;
+import io.appform.ranger.core.finder.nodeselector.weightenricher.WeightEnricher;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.Value;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Power of two choices on live performance data. Two random nodes are compared on their latency EWMA multiplied by
+ * calls in flight (divided by their weight) and the less loaded one is picked. A slow node therefore stops
+ * receiving traffic as soon as calls to it are reported, without waiting for health checks to catch up.
+ * Calls are counted as in flight only when nodes are taken using
+ * {@link io.appform.ranger.core.finder.ServiceFinder#acquire(java.util.function.Predicate)}, and stop being so when
+ * their outcome is reported using
+ * {@link io.appform.ranger.core.finder.ServiceFinder#reportOutcome(ServiceNode, long, boolean)}. Nodes taken using
+ * plain lookups are still picked on latency, but do not add to the calls in flight. Failed calls are counted with a latency of at least the configured failure penalty, so that
+ * nodes failing fast do not attract traffic. A node without latency samples yet is scored with the latency of the node
+ * it is compared against, so that new nodes are compared on calls in flight instead of winning every comparison till
+ * their first call completes.
+ */
+public class LatencyAwareServiceNodeSelector<T> extends AbstractWeightedSelector<T> {
+    public static final double DEFAULT_SMOOTHING_FACTOR = 0.3;
+    public static final Duration DEFAULT_FAILURE_PENALTY = Duration.ofSeconds(1);
+    private static final Duration STATS_RETENTION = Duration.ofMinutes(10);
+
+    private final double smoothingFactor;
+    private final long failurePenaltyNanos;
+
+    //Single instance per endpoint for as long as anything references it, including stats arrays derived from node
+    //lists, so that calls started on one instance are never completed on another
+    private final Cache<NodeKey, NodeStats> stats = CacheBuilder.newBuilder()
+            .weakValues()
+            .build();
+    //Stats outlive node lists, as nodes are recreated on every registry refresh that changes them
+    private final Cache<NodeKey, NodeStats> retainedStats = CacheBuilder.newBuilder()
+            .expireAfterAccess(STATS_RETENTION.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+    //Resolved once per node list snapshot, so that selection is an array read
+    private final Function<List<ServiceNode<T>>, NodeStats[]> statsResolver = this::resolveStats;
+
+    public LatencyAwareServiceNodeSelector() {
+        this(List.of(new RoutingWeightEnricher<>()), DEFAULT_SMOOTHING_FACTOR, DEFAULT_FAILURE_PENALTY);
+    }
+
+    public LatencyAwareServiceNodeSelector(
+            final List<WeightEnricher<T>> weightAdjusters,
+            double smoothingFactor,
+            final Duration failurePenalty) {
+        super(weightAdjusters);
+        Preconditions.checkArgument(smoothingFactor > 0 && smoothingFactor <= 1,
+                                    "Smoothing factor must be in (0, 1]");
+        this.smoothingFactor = smoothingFactor;
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    @SuppressWarnings("java:S2245")
+    public ServiceNode<T> select(final List<ServiceNode<T>> serviceNodes) {
+        final NodeStats[] nodeStats = SnapshotNodeList.derived(serviceNodes, this, statsResolver);
+        final int size = serviceNodes.size();
+        int selected = 0;
+        if (size > 1) {
+            val random = ThreadLocalRandom.current();
+            final int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            val firstLatency = nodeStats[first].getLatencyEwmaNanos();
+            val secondLatency = nodeStats[second].getLatencyEwmaNanos();
+            selected = score(serviceNodes.get(first), nodeStats[first].load(secondLatency))
+                               <= score(serviceNodes.get(second), nodeStats[second].load(firstLatency))
+                       ? first
+                       : second;
+        }
+        return serviceNodes.get(selected);
+    }
+
+    @Override
+    public void callStarted(ServiceNode<T> node) {
+        statsFor(node).callStarted();
+    }
+
+    @Override
+    public void reportOutcome(ServiceNode<T> node, long latencyNanos, boolean success) {
+        statsFor(node).callCompleted(success ? latencyNanos : Math.max(latencyNanos, failurePenaltyNanos));
+    }
+
+    public NodeStats statsFor(ServiceNode<T> node) {
+        val key = new NodeKey(node.getHost(), node.getPort());
+        final NodeStats nodeStats;
+        try {
+            nodeStats = stats.get(key, () -> new NodeStats(smoothingFactor));
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        if (null == retainedStats.getIfPresent(key)) {
+            retainedStats.put(key, nodeStats);
+        }
+        return nodeStats;
+    }
+
+    private NodeStats[] resolveStats(final List<ServiceNode<T>> serviceNodes) {
+        val nodeStats = new NodeStats[serviceNodes.size()];
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            nodeStats[i] = statsFor(serviceNodes.get(i));
+        }
+        return nodeStats;
+    }
+
+    private double score(ServiceNode<T> node, double load) {
+        val weight = adjustWeight(node);
+        return weight > 0 ? load / weight : Double.MAX_VALUE;
+    }
+
+    @Value
+    private static class NodeKey {
+        String host;
+        int port;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live performance data for a node as seen by this client: an exponentially weighted moving average of call
+ * latency and the number of calls currently in flight.
+ */
+public final class NodeStats {
+    private final double smoothingFactor;
+    private final AtomicLong latencyEwmaNanos = new AtomicLong(0);
+    private final AtomicLong inFlight = new AtomicLong(0);
+
+    NodeStats(double smoothingFactor) {
+        this.smoothingFactor = smoothingFactor;
+    }
+
+    public long getLatencyEwmaNanos() {
+        return latencyEwmaNanos.get();
+    }
+
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void callCompleted(long latencyNanos) {
+        //Kept at zero, so that outcomes reported for calls that were not started do not hide ones that were
+        inFlight.updateAndGet(current -> current > 0 ? current - 1 : 0);
+        long current;
+        long updated;
+        do {
+            current = latencyEwmaNanos.get();
+            updated = 0 == current
+                      ? latencyNanos
+                      : current + (long) (smoothingFactor * (latencyNanos - current));
+        } while (!latencyEwmaNanos.compareAndSet(current, updated));
+    }
+
+    /**
+     * @param priorLatencyNanos Latency to assume if no call has completed yet
+     */
+    double load(long priorLatencyNanos) {
+        val latencyEwmaNanos = getLatencyEwmaNanos();
+        //Kept above zero, so that nodes without any latency are still compared on calls in flight
+        val latencyNanos = Math.max(1, 0 == latencyEwmaNanos ? priorLatencyNanos : latencyEwmaNanos);
+        return (double) latencyNanos * (getInFlight() + 1);
+    }
+}
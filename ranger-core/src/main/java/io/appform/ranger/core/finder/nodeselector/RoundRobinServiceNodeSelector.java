@@ -26,6 +26,14 @@ public class RoundRobinServiceNodeSelector<T> implements ServiceNodeSelector<T>
 
     @Override
     public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
-        return serviceNodes.get(index.updateAndGet(i -> (i + 1) % serviceNodes.size()));
+        //Explicit CAS loop instead of updateAndGet, as the capturing lambda would be allocated on every call
+        final int size = serviceNodes.size();
+        int current;
+        int next;
+        do {
+            current = index.get();
+            next = (current + 1) % size;
+        } while (!index.compareAndSet(current, next));
+        return serviceNodes.get(next);
     }
 }
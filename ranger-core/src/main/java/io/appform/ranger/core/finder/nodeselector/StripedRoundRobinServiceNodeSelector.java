@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Round robin without a single shared counter. Threads are spread over a fixed number of counters by a hash of their
+ * id, each counter starting at a random offset, so that threads mostly do not contend on the same cache line and load
+ * still spreads evenly across nodes. Unlike thread locals, the number of counters does not grow with the number of
+ * threads, which matters when selection runs on virtual threads.
+ * Counters are never reset, so when the node list grows or shrinks the walk continues from the same position
+ * modulo the new size instead of jumping back to the start.
+ */
+public class StripedRoundRobinServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    //Counters are two cache lines apart, so that adjacent line prefetching does not pair them up either
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray counters;
+    private final int stripeMask;
+
+    public StripedRoundRobinServiceNodeSelector() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes Number of counters, rounded up to a power of two
+     */
+    public StripedRoundRobinServiceNodeSelector(int stripes) {
+        Preconditions.checkArgument(stripes > 0, "Number of stripes must be positive");
+        final int stripeCount = Integer.highestOneBit(stripes) == stripes
+                                ? stripes
+                                : Integer.highestOneBit(stripes) << 1;
+        this.counters = new AtomicLongArray(stripeCount * PADDING);
+        this.stripeMask = stripeCount - 1;
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < stripeCount; i++) {
+            counters.set(i * PADDING, random.nextInt() & Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        final int stripe = stripeFor(Thread.currentThread().getId());
+        return serviceNodes.get(Math.floorMod(counters.getAndIncrement(stripe * PADDING), serviceNodes.size()));
+    }
+
+    //Thread ids are sequential, so they are mixed before being masked
+    private int stripeFor(long threadId) {
+        long hash = threadId * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 32;
+        return (int) hash & stripeMask;
+    }
+}
@@ -21,11 +21,7 @@ public class WeightedRandomServiceNodeSelector<T> implements ServiceNodeSelector
         weightedNodeSelectorConfig.validate();
         final Predicate<List<ServiceNode<T>>> condition = serviceNodes ->
                 serviceNodes.size() <= weightedNodeSelectorConfig.getWeightedSelectionThreshold();
-        final List<WeightEnricher<T>> weightEnrichers = List.of(
-                new RoutingWeightEnricher<>(),
-                new TimeBasedWeightEnricher<>(weightedNodeSelectorConfig.getMinNodeAgeMs(),
-                                              weightedNodeSelectorConfig.getWeightBoostMultiplier())
-                                                               );
+        final List<WeightEnricher<T>> weightEnrichers = weightEnrichers(weightedNodeSelectorConfig);
 
         this.conditionalSelector = new ConditionalNodeSelector<>(
                 condition,
@@ -38,4 +34,11 @@ public class WeightedRandomServiceNodeSelector<T> implements ServiceNodeSelector
     public ServiceNode<T> select(final List<ServiceNode<T>> serviceNodes) {
         return conditionalSelector.select(serviceNodes);
     }
+
+    static <T> List<WeightEnricher<T>> weightEnrichers(final WeightedNodeSelectorConfig weightedNodeSelectorConfig) {
+        return List.of(
+                new RoutingWeightEnricher<>(),
+                new TimeBasedWeightEnricher<>(weightedNodeSelectorConfig.getMinNodeAgeMs(),
+                                              weightedNodeSelectorConfig.getWeightBoostMultiplier()));
+    }
 }
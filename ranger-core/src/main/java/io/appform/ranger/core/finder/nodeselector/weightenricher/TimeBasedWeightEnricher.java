@@ -20,4 +20,10 @@ public class TimeBasedWeightEnricher<T> implements WeightEnricher<T> {
         }
         return 1.0;
     }
+
+    @Override
+    public long weightValidUntil(ServiceNode<T> node) {
+        final var boostTime = node.getHealthySinceTimeStamp() + minNodeAgeMs + 1;
+        return System.currentTimeMillis() >= boostTime ? Long.MAX_VALUE : boostTime;
+    }
 }
\ No newline at end of file
@@ -4,4 +4,15 @@ import io.appform.ranger.core.model.ServiceNode;
 
 public interface WeightEnricher<T> {
     double enrichWeight(ServiceNode<T> node);
+
+    /**
+     * Selectors that precompute weights use this to know when the weight returned by
+     * {@link #enrichWeight(ServiceNode)} for the given node can change without the node itself changing.
+     *
+     * @param node Node for which weight is computed
+     * @return Epoch millis till which the weight of the node stays the same. Long.MAX_VALUE if it never changes.
+     */
+    default long weightValidUntil(ServiceNode<T> node) {
+        return Long.MAX_VALUE;
+    }
 }
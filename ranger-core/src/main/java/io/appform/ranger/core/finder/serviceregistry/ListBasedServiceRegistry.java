@@ -15,14 +15,13 @@
  */
 package io.appform.ranger.core.finder.serviceregistry;
 
-import com.google.common.collect.ImmutableList;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.SnapshotNodeList;
 import lombok.EqualsAndHashCode;
 import lombok.val;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -38,11 +37,11 @@ public class ListBasedServiceRegistry<T> extends ServiceRegistry<T> {
     @Override
     public List<ServiceNode<T>> nodeList() {
         val nodeList = this.nodes.get();
-        return null == nodeList ? Collections.emptyList() : nodeList;
+        return null == nodeList ? SnapshotNodeList.empty() : nodeList;
     }
 
     @Override
     public void update(List<ServiceNode<T>> serviceNodes) {
-        nodes.set(ImmutableList.copyOf(serviceNodes));
+        nodes.set(SnapshotNodeList.of(serviceNodes));
     }
 }
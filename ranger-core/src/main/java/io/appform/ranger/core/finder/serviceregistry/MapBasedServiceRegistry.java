@@ -15,8 +15,6 @@
  */
 package io.appform.ranger.core.finder.serviceregistry;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
@@ -25,33 +23,51 @@ import io.appform.ranger.core.model.ServiceRegistry;
 import lombok.EqualsAndHashCode;
 import lombok.val;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @EqualsAndHashCode(callSuper = true)
 public class MapBasedServiceRegistry<T> extends ServiceRegistry<T> {
-    private final AtomicReference<ListMultimap<T, ServiceNode<T>>> nodes = new AtomicReference<>();
+    private final Function<T, ?> shardKeyExtractor;
+    private final AtomicReference<ShardIndex<T>> index = new AtomicReference<>();
 
     public MapBasedServiceRegistry(Service service) {
+        this(service, null);
+    }
+
+    /**
+     * @param service           Service for which nodes are tracked
+     * @param shardKeyExtractor Optional extractor used to additionally index nodes by a part of the shard data
+     *                          (for example region). Pass the same instance to {@link io.appform.ranger.core.model.KeyedCriteria}
+     *                          to get lookups served directly from the index.
+     */
+    public MapBasedServiceRegistry(Service service, Function<T, ?> shardKeyExtractor) {
         super(service);
+        this.shardKeyExtractor = shardKeyExtractor;
+    }
+
+    public ShardIndex<T> index() {
+        val currentIndex = index.get();
+        return null == currentIndex ? ShardIndex.empty() : currentIndex;
     }
 
     public ListMultimap<T, ServiceNode<T>> nodes() {
-        val nodeList = nodes.get();
-        return null == nodeList ? ImmutableListMultimap.of() : nodeList;
+        return index().getNodes();
     }
 
     @Override
     public List<ServiceNode<T>> nodeList() {
-        val nodeList = nodes.get();
-        return null == nodeList ? List.of() : new ArrayList<>(nodeList.values());
+        return index().getAllNodes();
     }
 
     @Override
     public void update(List<ServiceNode<T>> nodes) {
-        ListMultimap<T, ServiceNode<T>> serviceNodes = ArrayListMultimap.create();
-        nodes.forEach(serviceNode -> serviceNodes.put(serviceNode.getNodeData(), serviceNode));
-        this.nodes.set(ImmutableListMultimap.copyOf(serviceNodes));
+        this.index.set(ShardIndex.build(nodes, shardKeyExtractor));
+    }
+
+    @Override
+    protected void refresh(List<ServiceNode<T>> nodes) {
+        this.index.set(index().withNodes(nodes));
     }
 }
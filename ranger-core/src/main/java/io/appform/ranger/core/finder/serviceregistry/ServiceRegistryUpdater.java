@@ -15,28 +15,29 @@
  */
 package io.appform.ranger.core.finder.serviceregistry;
 
-import com.github.rholder.retry.RetryerBuilder;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import io.appform.ranger.core.model.Deserializer;
+import io.appform.ranger.core.model.HubConstants;
 import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.signals.RefreshInterval;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.core.util.Exceptions;
 import io.appform.ranger.core.util.FinderUtils;
-import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
@@ -45,37 +46,110 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
     private final NodeDataSource<T, D> nodeDataSource;
     private final D deserializer;
 
-    private final Lock checkLock = new ReentrantLock();
-    private final Condition checkCondition = checkLock.newCondition();
-    private final AtomicBoolean checkForUpdate = new AtomicBoolean(false);
-    private Future<Void> queryThreadFuture;
+    private final RefreshScheduler scheduler;
+    private final RefreshInterval refreshInterval;
+    private final boolean deltaRefresh;
+    private final long initialUpdateTimeoutMs;
+    //Version of the last delta applied to the registry, null if the next refresh should fetch a snapshot
+    private volatile String deltaVersion;
+    //Node list as returned by the source at deltaVersion. Deltas apply to this and not to the registry, which only
+    //has the nodes that passed validation.
+    private volatile List<ServiceNode<T>> deltaBase = List.of();
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    //Updates run as tasks on the scheduler's worker pool instead of on a thread parked per service.
+    //Signals arriving while an update is running are coalesced into a single follow up update.
+    private final AtomicBoolean checkForUpdate = new AtomicBoolean(false);
+    private final AtomicBoolean updateRunning = new AtomicBoolean(false);
+    private final AtomicBoolean started = new AtomicBoolean(false);
 
     public ServiceRegistryUpdater(
             ServiceRegistry<T> serviceRegistry,
             NodeDataSource<T, D> nodeDataSource,
             List<Signal<T>> signalGenerators,
             D deserializer) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, null);
+    }
+
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T, D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer,
+            RefreshScheduler scheduler) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, scheduler, null);
+    }
+
+    /**
+     * @param refreshInterval If provided, is told after every successful refresh whether the node list changed, so
+     *                        that polling can be backed off for services that do not change
+     */
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T, D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer,
+            RefreshScheduler scheduler,
+            RefreshInterval refreshInterval) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, scheduler, refreshInterval, false);
+    }
+
+    /**
+     * @param deltaRefresh Fetch only changes from the data source using
+     *                     {@link NodeDataSource#refreshDelta(Deserializer, String)} and apply them to the registry
+     */
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T, D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer,
+            RefreshScheduler scheduler,
+            RefreshInterval refreshInterval,
+            boolean deltaRefresh) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, scheduler, refreshInterval, deltaRefresh,
+             HubConstants.SERVICE_REFRESH_TIMEOUT_MS);
+    }
+
+    /**
+     * @param initialUpdateTimeoutMs Time {@link #start()} waits for the first node list before failing
+     */
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T, D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer,
+            RefreshScheduler scheduler,
+            RefreshInterval refreshInterval,
+            boolean deltaRefresh,
+            long initialUpdateTimeoutMs) {
         this.serviceRegistry = serviceRegistry;
         this.nodeDataSource = nodeDataSource;
         this.deserializer = deserializer;
+        this.scheduler = Objects.requireNonNullElseGet(scheduler, RefreshScheduler::shared);
+        this.refreshInterval = refreshInterval;
+        this.deltaRefresh = deltaRefresh;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
         signalGenerators.forEach(signalGenerator -> signalGenerator.registerConsumer(this::checkForUpdate));
     }
 
     public void start() {
         val serviceName = serviceRegistry.getService().getServiceName();
-        queryThreadFuture = this.executorService.submit(this::queryExecutor);
+        started.set(true);
         log.info("Started updater for [{}]. Triggering initial update.", serviceName);
         checkForUpdate(null);
         log.info("Waiting for initial update to complete for: {}", serviceName);
         val stopwatch = Stopwatch.createStarted();
         try {
-            RetryerBuilder.<Boolean>newBuilder()
-                    .retryIfResult(r -> null == r || !r)
-                    .retryIfException()
-                    .build()
-                    .call(serviceRegistry::isRefreshed);
+            serviceRegistry.readiness().get(initialUpdateTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Exceptions.illegalState("Interrupted while waiting for initial state for service: " + serviceName);
+        }
+        catch (TimeoutException e) {
+            //Stopped so that a finder that failed to start does not keep refreshing in the background
+            stop();
+            Exceptions.illegalState("No node list received for service: " + serviceName + " in "
+                                            + initialUpdateTimeoutMs + "ms");
         }
         catch (Exception e) {
             Exceptions.illegalState("Could not perform initial state for service: " + serviceName, e);
@@ -85,45 +159,47 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
     }
 
     public void stop() {
-        if (null != queryThreadFuture) {
-            executorService.shutdownNow();
-        }
+        started.set(false);
     }
 
     public void checkForUpdate(T signalData) {
         Preconditions.checkArgument(null == signalData);
+        checkForUpdate.set(true);
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        if (!started.get() || !updateRunning.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            checkLock.lock();
-            checkForUpdate.set(true);
-            checkCondition.signalAll();
+            scheduler.execute(this::runUpdates);
         }
-        finally {
-            checkLock.unlock();
+        catch (RejectedExecutionException e) {
+            updateRunning.set(false);
+            log.warn("Refresh scheduler rejected update for service: {}", serviceRegistry.getService().name());
         }
     }
 
-    private Void queryExecutor() {
-        //Start checking for updates
-        while (true) {
-            try {
-                checkLock.lock();
-                while (!checkForUpdate.get()) {
-                    checkCondition.await();
-                }
+    private void runUpdates() {
+        try {
+            while (started.get() && checkForUpdate.getAndSet(false)) {
                 updateRegistry();
             }
-            catch (InterruptedException e) {
-                log.info("Updater thread interrupted");
-                Thread.currentThread().interrupt();
-                return null;
-            }
-            catch (Exception e) {
-                log.error("Registry update failed for service: " + serviceRegistry.getService().name(), e);
-            }
-            finally {
-                checkForUpdate.set(false);
-                checkLock.unlock();
-            }
+        }
+        catch (InterruptedException e) {
+            log.info("Updater interrupted");
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e) {
+            log.error("Registry update failed for service: " + serviceRegistry.getService().name(), e);
+        }
+        finally {
+            updateRunning.set(false);
+        }
+        //A signal may have arrived after the last check but before the running flag was cleared
+        if (checkForUpdate.get()) {
+            scheduleUpdate();
         }
     }
 
@@ -134,14 +210,20 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
         if (nodeDataSource.isActive()) { //Source should implement circuit breaker to fail fast and reopen after some
             // time
             try {
-                val nodeList = nodeDataSource.refresh(deserializer).orElse(null);
+                val nodeList = deltaRefresh
+                               ? fetchWithDelta().orElse(null)
+                               : nodeDataSource.refresh(deserializer).orElse(null);
                 if (null != nodeList) {
                     log.debug("Updating nodeList of size: {} for [{}]", nodeList.size(),
                               serviceRegistry.getService().getServiceName());
                     val livenessCheckMaxAge = nodeDataSource.healthcheckZombieCheckThresholdTime(serviceRegistry.getService());
                     //Remove all stale nodes before updating. This is done centrally to ensure some data sources
                     //don't skip this check. Some control is still provided so that they can overload.
-                    serviceRegistry.updateNodes(FinderUtils.filterValidNodes(serviceRegistry.getService(), nodeList, livenessCheckMaxAge));
+                    val changed = serviceRegistry.updateNodes(
+                            FinderUtils.filterValidNodes(serviceRegistry.getService(), nodeList, livenessCheckMaxAge));
+                    if (null != refreshInterval) {
+                        refreshInterval.onRefresh(changed);
+                    }
                 }
                 else {
                     log.warn("Empty list returned from node data source. We are in a weird state. Keeping old list for {}",
@@ -156,6 +238,7 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
             }
         }
         if (!nodeDataSource.isActive() || callFailed) {
+            resetDelta();
             val currTime = System.currentTimeMillis();
             log.warn("Node data source seems to be down. Keeping old list for {}." +
                              " Will update timestamp to keep stale date relevant.",
@@ -163,9 +246,41 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
             serviceRegistry.updateNodes(serviceRegistry.nodeList()
                                                 .stream()
                                                 .filter(node -> HealthcheckStatus.healthy == node.getHealthcheckStatus())
-                                                .map(node -> node.setLastUpdatedTimeStamp(currTime))
+                                                .map(node -> node.withLastUpdatedTimeStamp(currTime))
                                                 .toList());
         }
     }
 
+    private Optional<List<ServiceNode<T>>> fetchWithDelta() {
+        val delta = nodeDataSource.refreshDelta(deserializer, deltaVersion).orElse(null);
+        if (null == delta) {
+            return Optional.empty();
+        }
+        val nodeList = delta.applyTo(deltaBase);
+        if (nodeList.isPresent()) {
+            deltaApplied(delta.getVersion(), nodeList.get());
+            return nodeList;
+        }
+        log.info("Delta for service {} does not match the last node list. Fetching a snapshot",
+                 serviceRegistry.getService().getServiceName());
+        val snapshot = nodeDataSource.refreshDelta(deserializer, null).orElse(null);
+        if (null == snapshot) {
+            resetDelta();
+            return Optional.empty();
+        }
+        val snapshotNodes = snapshot.applyTo(List.of());
+        snapshotNodes.ifPresent(nodes -> deltaApplied(snapshot.getVersion(), nodes));
+        return snapshotNodes;
+    }
+
+    private void deltaApplied(String version, List<ServiceNode<T>> nodes) {
+        deltaBase = nodes;
+        deltaVersion = version;
+    }
+
+    private void resetDelta() {
+        deltaVersion = null;
+        deltaBase = List.of();
+    }
+
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.serviceregistry;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import io.appform.ranger.core.model.KeyedCriteria;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable view of the nodes of a sharded service. It is built once per registry refresh so that lookups on the
+ * discovery path do not need to re-scan or copy the node list. Criteria are evaluated once per distinct shard
+ * and, when a single shard matches, the precomputed list for that shard is returned as is.
+ * If a key extractor has been registered, nodes are additionally grouped by the extracted key and
+ * {@link KeyedCriteria} using the same extractor are answered with a single map read.
+ * Precomputed lists are {@link SnapshotNodeList snapshots}, lists merged from several shards are not.
+ * All lists, merged ones included, keep the order in which nodes were passed to the registry.
+ * When a refresh only brings newer update timestamps, {@link #withNodes(List)} reuses the grouping of this index for
+ * the latest nodes instead of evaluating shard data again.
+ */
+public final class ShardIndex<T> {
+    @SuppressWarnings("rawtypes")
+    private static final ShardIndex EMPTY = new ShardIndex<>(SnapshotNodeList.empty(),
+                                                             ImmutableList.of(),
+                                                             null,
+                                                             ImmutableMap.of());
+
+    @Getter
+    private final SnapshotNodeList<T> allNodes;
+    private final ImmutableList<Group<T, T>> shards;
+    private final Function<T, ?> keyExtractor;
+    private final ImmutableMap<Object, Group<Object, T>> keyedNodes;
+    //Built on first use, most lookups go through matching()
+    private volatile ImmutableListMultimap<T, ServiceNode<T>> nodes;
+
+    private ShardIndex(
+            SnapshotNodeList<T> allNodes,
+            ImmutableList<Group<T, T>> shards,
+            Function<T, ?> keyExtractor,
+            ImmutableMap<Object, Group<Object, T>> keyedNodes) {
+        this.allNodes = allNodes;
+        this.shards = shards;
+        this.keyExtractor = keyExtractor;
+        this.keyedNodes = keyedNodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ShardIndex<T> empty() {
+        return (ShardIndex<T>) EMPTY;
+    }
+
+    public static <T> ShardIndex<T> build(final List<ServiceNode<T>> serviceNodes, final Function<T, ?> keyExtractor) {
+        val allNodes = SnapshotNodeList.of(ImmutableList.copyOf(serviceNodes));
+        val shardPositions = ImmutableListMultimap.<T, Integer>builder();
+        val keyedPositions = ImmutableListMultimap.<Object, Integer>builder();
+        for (int i = 0; i < allNodes.size(); i++) {
+            val nodeData = allNodes.get(i).getNodeData();
+            shardPositions.put(nodeData, i);
+            if (null != keyExtractor) {
+                val key = keyExtractor.apply(nodeData);
+                if (null != key) {
+                    keyedPositions.put(key, i);
+                }
+            }
+        }
+        return new ShardIndex<>(allNodes,
+                                groups(allNodes, shardPositions.build()).values().asList(),
+                                keyExtractor,
+                                groups(allNodes, keyedPositions.build()));
+    }
+
+    /**
+     * Index of nodes that differ from the indexed ones only in their update timestamps
+     *
+     * @param serviceNodes Latest nodes, in the same order as {@link #getAllNodes()}
+     */
+    public ShardIndex<T> withNodes(final List<ServiceNode<T>> serviceNodes) {
+        Preconditions.checkArgument(serviceNodes.size() == allNodes.size(),
+                                    "Expected %s nodes, got %s", allNodes.size(), serviceNodes.size());
+        val latestNodes = SnapshotNodeList.of(ImmutableList.copyOf(serviceNodes));
+        val latestShards = ImmutableList.<Group<T, T>>builderWithExpectedSize(shards.size());
+        for (val shard : shards) {
+            latestShards.add(shard.withNodes(latestNodes));
+        }
+        val latestKeyedNodes = ImmutableMap.<Object, Group<Object, T>>builderWithExpectedSize(keyedNodes.size());
+        for (val keyed : keyedNodes.values()) {
+            latestKeyedNodes.put(keyed.key, keyed.withNodes(latestNodes));
+        }
+        return new ShardIndex<>(latestNodes, latestShards.build(), keyExtractor, latestKeyedNodes.build());
+    }
+
+    /**
+     * @return Nodes grouped by shard data, built on first call
+     */
+    public ImmutableListMultimap<T, ServiceNode<T>> getNodes() {
+        var grouped = nodes;
+        if (null == grouped) {
+            val builder = ImmutableListMultimap.<T, ServiceNode<T>>builder();
+            shards.forEach(shard -> builder.putAll(shard.key, shard.nodes));
+            grouped = builder.build();
+            nodes = grouped;
+        }
+        return grouped;
+    }
+
+    public List<ServiceNode<T>> matching(final Predicate<T> criteria) {
+        if (null == criteria) {
+            return allNodes;
+        }
+        if (null != keyExtractor && criteria instanceof KeyedCriteria) {
+            val keyedCriteria = (KeyedCriteria<T, ?>) criteria;
+            if (keyedCriteria.getKeyExtractor() == keyExtractor) {
+                val keyed = null == keyedCriteria.getKey() ? null : keyedNodes.get(keyedCriteria.getKey());
+                return null == keyed ? SnapshotNodeList.empty() : keyed.nodes;
+            }
+        }
+        Group<T, T> matched = null;
+        boolean[] selected = null;
+        int selectedCount = 0;
+        for (val shard : shards) {
+            if (!criteria.test(shard.key)) {
+                continue;
+            }
+            if (null == matched) {
+                matched = shard;
+                continue;
+            }
+            if (null == selected) {
+                selected = new boolean[allNodes.size()];
+                selectedCount = matched.select(selected);
+            }
+            selectedCount += shard.select(selected);
+        }
+        if (null != selected) {
+            val merged = ImmutableList.<ServiceNode<T>>builderWithExpectedSize(selectedCount);
+            for (int i = 0; i < selected.length; i++) {
+                if (selected[i]) {
+                    merged.add(allNodes.get(i));
+                }
+            }
+            return merged.build();
+        }
+        return null == matched ? SnapshotNodeList.empty() : matched.nodes;
+    }
+
+    public int size() {
+        return allNodes.size();
+    }
+
+    private static <K, T> ImmutableMap<K, Group<K, T>> groups(
+            SnapshotNodeList<T> allNodes,
+            ImmutableListMultimap<K, Integer> positions) {
+        val groups = ImmutableMap.<K, Group<K, T>>builderWithExpectedSize(positions.keySet().size());
+        for (val key : positions.keySet()) {
+            val groupPositions = Ints.toArray(positions.get(key));
+            groups.put(key, new Group<>(key, groupPositions, nodesAt(allNodes, groupPositions)));
+        }
+        return groups.build();
+    }
+
+    private static <T> SnapshotNodeList<T> nodesAt(SnapshotNodeList<T> allNodes, int[] positions) {
+        val nodes = ImmutableList.<ServiceNode<T>>builderWithExpectedSize(positions.length);
+        for (val position : positions) {
+            nodes.add(allNodes.get(position));
+        }
+        return SnapshotNodeList.of(nodes.build());
+    }
+
+    private static final class Group<K, T> {
+        private final K key;
+        private final int[] positions;
+        private final SnapshotNodeList<T> nodes;
+
+        private Group(K key, int[] positions, SnapshotNodeList<T> nodes) {
+            this.key = key;
+            this.positions = positions;
+            this.nodes = nodes;
+        }
+
+        private Group<K, T> withNodes(SnapshotNodeList<T> allNodes) {
+            return new Group<>(key, positions, nodesAt(allNodes, positions));
+        }
+
+        private int select(boolean[] selected) {
+            for (val position : positions) {
+                selected[position] = true;
+            }
+            return positions.length;
+        }
+    }
+}
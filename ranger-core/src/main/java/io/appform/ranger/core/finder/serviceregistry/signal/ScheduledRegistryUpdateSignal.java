@@ -16,6 +16,8 @@
 package io.appform.ranger.core.finder.serviceregistry.signal;
 
 import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.signals.RefreshInterval;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.ScheduledSignal;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,7 +32,21 @@ public class ScheduledRegistryUpdateSignal<T> extends ScheduledSignal<T> {
     public ScheduledRegistryUpdateSignal(
             Service service,
             long refreshIntervalMillis) {
-        super(service, () -> null, Collections.emptyList(), refreshIntervalMillis);
+        this(service, refreshIntervalMillis, null);
+    }
+
+    public ScheduledRegistryUpdateSignal(
+            Service service,
+            long refreshIntervalMillis,
+            RefreshScheduler scheduler) {
+        this(service, RefreshInterval.fixed(refreshIntervalMillis), scheduler);
+    }
+
+    public ScheduledRegistryUpdateSignal(
+            Service service,
+            RefreshInterval refreshInterval,
+            RefreshScheduler scheduler) {
+        super(service, () -> null, Collections.emptyList(), refreshInterval.getBaseIntervalMillis(), refreshInterval, scheduler);
     }
 
 }
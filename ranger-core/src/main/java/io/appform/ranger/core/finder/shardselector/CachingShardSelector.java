@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.model.CacheableCriteria;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.val;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes the result of the wrapped {@link ShardSelector} for {@link CacheableCriteria}, as a
+ * {@link SnapshotNodeList}. Results are kept per registry update and are dropped as soon as the registry swaps in
+ * new nodes, including refreshes that only bring newer timestamps, so that cached nodes are the ones the registry
+ * serves. Any other criteria is passed on to the wrapped selector as is.
+ * A single instance can be shared between finders of different services, results are tracked per registry instance,
+ * so a registry re-created for the same service never sees the results of the one it replaced.
+ */
+public class CachingShardSelector<T, R extends ServiceRegistry<T>> implements ShardSelector<T, R> {
+    private final ShardSelector<T, R> shardSelector;
+    //Identity based and weakly held, so results go away with the registry they were computed from
+    private final Cache<ServiceRegistry<T>, UpdateCache<T>> caches = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingShardSelector(ShardSelector<T, R> shardSelector) {
+        this.shardSelector = shardSelector;
+    }
+
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        if (!(criteria instanceof CacheableCriteria)) {
+            return shardSelector.nodes(criteria, serviceRegistry);
+        }
+        val cache = cacheFor(serviceRegistry);
+        val cached = cache.results.get(criteria);
+        if (null != cached) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        val nodes = SnapshotNodeList.of(shardSelector.nodes(criteria, serviceRegistry));
+        val existing = cache.results.putIfAbsent(criteria, nodes);
+        return null == existing ? nodes : existing;
+    }
+
+    public CriteriaCacheStats getStats() {
+        return new CriteriaCacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private UpdateCache<T> cacheFor(R serviceRegistry) {
+        //Update stamps only ever grow
+        val lastUpdate = serviceRegistry.getLastUpdate();
+        val current = caches.getIfPresent(serviceRegistry);
+        if (null != current && current.lastUpdate == lastUpdate) {
+            return current;
+        }
+        return caches.asMap().compute(serviceRegistry, (registry, existing) -> {
+            if (null != existing && existing.lastUpdate >= lastUpdate) {
+                return existing;
+            }
+            if (null != existing) {
+                evictions.add(existing.results.size());
+            }
+            return new UpdateCache<>(lastUpdate);
+        });
+    }
+
+    private static final class UpdateCache<T> {
+        private final long lastUpdate;
+        private final Map<Predicate<T>, List<ServiceNode<T>>> results = new ConcurrentHashMap<>();
+
+        private UpdateCache(long lastUpdate) {
+            this.lastUpdate = lastUpdate;
+        }
+    }
+}
@@ -21,20 +21,12 @@ import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ShardSelector;
 
 import java.util.List;
-import java.util.Map;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class MatchingShardSelector<T> implements ShardSelector<T, MapBasedServiceRegistry<T>> {
 
     @Override
     public List<ServiceNode<T>> nodes(Predicate<T> criteria, MapBasedServiceRegistry<T> serviceRegistry) {
-        return null == criteria ? serviceRegistry.nodeList() :
-            serviceRegistry.nodes()
-                .entries()
-                .stream()
-                .filter(e -> criteria.test(e.getKey()))
-                .map(Map.Entry::getValue)
-                .toList();
+        return serviceRegistry.index().matching(criteria);
     }
 }
@@ -15,15 +15,13 @@
  */
 package io.appform.ranger.core.finderhub;
 
-import com.github.rholder.retry.RetryerBuilder;
-import com.github.rholder.retry.StopStrategies;
-import com.github.rholder.retry.WaitStrategies;
 import com.google.common.base.Stopwatch;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.model.HubConstants;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.signals.ExternalTriggeredSignal;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.ScheduledSignal;
 import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.core.util.Exceptions;
@@ -41,8 +39,8 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  *
@@ -79,7 +77,14 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
 
     private final Set<String> excludedServices;
 
-    private final ForkJoinPool refresherPool;
+    private final Executor refresherPool;
+    private final int refresherParallelism;
+    private final boolean startDegraded;
+
+    //Completed once the finder for a service is available and its registry has received the first node list
+    private final Map<Service, CompletableFuture<Void>> serviceReadiness = new ConcurrentHashMap<>();
+    //Services whose finders are being built, mapped to a token identifying the build
+    private final Map<Service, Object> pendingBuilds = new ConcurrentHashMap<>();
 
     public ServiceFinderHub(
             ServiceDataSource serviceDataSource,
@@ -94,6 +99,37 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             long serviceRefreshTimeoutMs,
             long hubStartTimeoutMs,
             final Set<String> excludedServices) {
+        this(serviceDataSource, finderFactory, serviceRefreshTimeoutMs, hubStartTimeoutMs, excludedServices, null);
+    }
+
+    /**
+     * @param refreshScheduler Scheduler to build finders on if it runs on virtual threads. Otherwise, a dedicated
+     *                         pool of max(20, cores) threads is used.
+     */
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshTimeoutMs,
+            long hubStartTimeoutMs,
+            final Set<String> excludedServices,
+            final RefreshScheduler refreshScheduler) {
+        this(serviceDataSource, finderFactory, serviceRefreshTimeoutMs, hubStartTimeoutMs, excludedServices,
+             refreshScheduler, false);
+    }
+
+    /**
+     * @param startDegraded Let {@link #start()} return even if some services are not ready by the start deadline,
+     *                      instead of failing. Such services keep getting refreshed and become available once ready.
+     *                      See {@link #readinessReport()}.
+     */
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshTimeoutMs,
+            long hubStartTimeoutMs,
+            final Set<String> excludedServices,
+            final RefreshScheduler refreshScheduler,
+            boolean startDegraded) {
         this.serviceDataSource = serviceDataSource;
         this.finderFactory = finderFactory;
         this.serviceRefreshTimeoutMs = serviceRefreshTimeoutMs == 0 ? HubConstants.SERVICE_REFRESH_TIMEOUT_MS : serviceRefreshTimeoutMs;
@@ -102,8 +138,19 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
                                                       () -> null,
                                                       Collections.emptyList(),
                                       10_000));
-        this.refresherPool = createRefresherPool();
+        //Building a finder blocks until its first update has run on the refresh scheduler, so finders can only be
+        //built on the scheduler itself if it can not run out of threads
+        if (null == refreshScheduler || refreshScheduler.getParallelism() != Integer.MAX_VALUE) {
+            val pool = createRefresherPool();
+            this.refresherPool = pool;
+            this.refresherParallelism = pool.getParallelism();
+        }
+        else {
+            this.refresherPool = refreshScheduler::execute;
+            this.refresherParallelism = refreshScheduler.getParallelism();
+        }
         this.excludedServices = Objects.requireNonNullElseGet(excludedServices, Set::of);
+        this.startDegraded = startDegraded;
     }
 
     public Optional<ServiceFinder<T, R>> finder(final Service service) {
@@ -116,17 +163,25 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             return CompletableFuture.completedFuture(finder);
         }
         serviceDataSource.add(service);
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                updateAvailable();
-                waitTillServiceIsReady(service);
-                return finders.get().get(service);
-            }
-            catch (Exception e) {
-                log.warn("Exception whiling building finder", e);
-                throw e;
-            }
-        });
+        updateAvailable();
+        return readiness(service)
+                .copy()
+                .orTimeout(serviceRefreshTimeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> finders.get().get(service))
+                .whenComplete((builtFinder, e) -> {
+                    if (null != e) {
+                        log.warn("Exception whiling building finder", e);
+                    }
+                });
+    }
+
+    /**
+     * @return Whether each known service is ready, i.e. its finder has been built and has received a node list
+     */
+    public Map<Service, Boolean> readinessReport() {
+        return serviceReadiness.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().isDone()));
     }
 
     public void start() {
@@ -207,7 +262,6 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             return;
         }
         alreadyUpdating.set(true);
-        val updatedFinders = new ConcurrentHashMap<Service, ServiceFinder<T, R>>();
         try {
             val services = FinderUtils.getEligibleServices(serviceDataSource.services(), excludedServices);
             if (services.isEmpty()) {
@@ -215,25 +269,20 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
                 return;
             }
             val knownServiceFinders = finders.get();
-            val newFinders = refresherPool.submit(() -> services.parallelStream()
-                            .filter(service -> !knownServiceFinders.containsKey(service))
-                            .collect(Collectors.toMap(Function.identity(), finderFactory::buildFinder)))
-                    .get();
-            val matchingServices = knownServiceFinders.entrySet()
-                    .stream()
-                    .filter(entry -> services.contains(entry.getKey()))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            if (newFinders.isEmpty() && matchingServices.size() == knownServiceFinders.size()) {
+            Stream.concat(knownServiceFinders.keySet().stream(), pendingBuilds.keySet().stream())
+                    .filter(service -> !services.contains(service))
+                    .distinct()
+                    .toList()
+                    .forEach(this::removeFinder);
+            val newServices = services.stream()
+                    .filter(service -> !knownServiceFinders.containsKey(service)
+                            && !pendingBuilds.containsKey(service))
+                    .toList();
+            if (newServices.isEmpty()) {
                 log.debug("No update to known list of services. Skipping update on the registry.");
                 return;
             }
-            updatedFinders.putAll(newFinders);
-            updatedFinders.putAll(matchingServices);
-            finders.set(updatedFinders);
-        }
-        catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Refresh interrupted.");
+            newServices.forEach(this::buildAndPublishFinder);
         }
         catch (Exception e) {
             log.error("Error updating service list. Will maintain older list", e);
@@ -243,53 +292,102 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
         }
     }
 
+    //Each finder is published as soon as it is built, so that a slow service does not hold back the others
+    private void buildAndPublishFinder(Service service) {
+        val build = new Object();
+        if (null != pendingBuilds.putIfAbsent(service, build)) {
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> finderFactory.buildFinder(service), refresherPool)
+                .whenComplete((finder, e) -> {
+                    if (!pendingBuilds.remove(service, build)) {
+                        log.info("Service {} was removed while its finder was being built", service.getServiceName());
+                        if (null != finder) {
+                            finder.stop();
+                        }
+                        return;
+                    }
+                    if (null != e) {
+                        log.error("Error building finder for service " + service.getServiceName()
+                                          + ". Will be retried on the next update", e);
+                        return;
+                    }
+                    finders.get().put(service, finder);
+                    //Readiness is signalled only once the finder is visible to callers
+                    finder.getServiceRegistry()
+                            .readiness()
+                            .thenRun(() -> {
+                                if (finders.get().get(service) == finder) {
+                                    readiness(service).complete(null);
+                                }
+                            });
+                });
+    }
+
+    private void removeFinder(Service service) {
+        pendingBuilds.remove(service);
+        val readiness = serviceReadiness.remove(service);
+        if (null != readiness) {
+            //Callers waiting on the service would otherwise wait till their own timeout for a finder that never comes
+            readiness.completeExceptionally(new IllegalStateException(
+                    "Service " + service.getServiceName() + " was removed before it was ready"));
+        }
+        val finder = finders.get().remove(service);
+        if (null != finder) {
+            log.info("Service {} is no longer available. Stopping its finder", service.getServiceName());
+            finder.stop();
+        }
+    }
+
     private void waitTillHubIsReady() {
         val services = FinderUtils.getEligibleServices(serviceDataSource.services(), excludedServices);
-        val timeToRefresh = Math.max(hubStartTimeoutMs,
-                                     (serviceRefreshTimeoutMs * services.size()) / refresherPool.getParallelism());
+        //A degraded start has to happen by the configured deadline, so it is never stretched
+        val timeToRefresh = startDegraded
+                            ? hubStartTimeoutMs
+                            : Math.max(hubStartTimeoutMs,
+                                       (serviceRefreshTimeoutMs * services.size()) / refresherParallelism);
         if (timeToRefresh != hubStartTimeoutMs) {
             log.warn("Max hub refresh time has been dynamically adjusted to {} ms from the provided {} ms as the " +
                              "provided time would have been insufficient to refresh {} services.",
                     timeToRefresh, hubStartTimeoutMs, services.size());
         }
-        val hubRefresher = CompletableFuture.allOf(
-                services.stream()
-                        .map(service -> CompletableFuture.supplyAsync((Supplier<Void>) () -> {
-                            waitTillServiceIsReady(service);
-                            return null;
-                        })).toArray(CompletableFuture[]::new));
+        val readiness = services.stream()
+                .collect(Collectors.toMap(Function.identity(), this::readiness));
         try {
-            hubRefresher.get(timeToRefresh, TimeUnit.MILLISECONDS);
+            //Services removed in the meantime are not waited for
+            CompletableFuture.allOf(readiness.values()
+                                            .stream()
+                                            .map(serviceReady -> serviceReady.exceptionally(e -> null))
+                                            .toArray(CompletableFuture[]::new))
+                    .get(timeToRefresh, TimeUnit.MILLISECONDS);
         }
         catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
             Exceptions.illegalState("Refresh interrupted");
         }
         catch (TimeoutException e) {
+            val notReady = readiness.entrySet()
+                    .stream()
+                    .filter(entry -> !entry.getValue().isDone())
+                    .map(entry -> entry.getKey().getServiceName())
+                    .sorted()
+                    .toList();
+            if (startDegraded) {
+                log.warn("Starting service finder hub in degraded mode. {} of {} services are not ready yet: {}",
+                         notReady.size(), services.size(), notReady);
+                return;
+            }
             Exceptions.illegalState("Couldn't perform service hub refresh at this time. " +
-                                          "Refresh exceeded the start up time specified");
+                                          "Refresh exceeded the start up time specified. Services not ready: "
+                                            + notReady);
         }
         catch (Exception e) {
             Exceptions.illegalState("Couldn't perform hub refresh at this time", e);
         }
     }
 
-    private void waitTillServiceIsReady(Service service) {
-        try {
-            RetryerBuilder.<Boolean>newBuilder()
-                    .retryIfResult(r -> !r)
-                    .withStopStrategy(StopStrategies.stopAfterDelay(serviceRefreshTimeoutMs, TimeUnit.MILLISECONDS))
-                    .withWaitStrategy(WaitStrategies.fixedWait(1, TimeUnit.SECONDS))
-                    .build()
-                    .call(() -> Optional.ofNullable(getFinders().get().get(service))
-                            .map(ServiceFinder::getServiceRegistry)
-                            .map(ServiceRegistry::isRefreshed)
-                            .orElse(false));
-        }
-        catch (Exception e) {
-            Exceptions
-                    .illegalState("Could not perform initial state for service: " + service.getServiceName(), e);
-        }
+    private CompletableFuture<Void> readiness(Service service) {
+        return serviceReadiness.computeIfAbsent(service, key -> new CompletableFuture<>());
     }
 
 }
@@ -18,6 +18,7 @@ package io.appform.ranger.core.finderhub;
 import com.google.common.base.Preconditions;
 import io.appform.ranger.core.model.HubConstants;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.ScheduledSignal;
 import io.appform.ranger.core.signals.Signal;
 import lombok.val;
@@ -45,6 +46,8 @@ public abstract class ServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> {
     private long hubStartTimeoutMs = HubConstants.HUB_START_TIMEOUT_MS;
 
     private Set<String> excludedServices = new HashSet<>();
+    private RefreshScheduler refreshScheduler;
+    private boolean startDegraded;
 
     public ServiceFinderHubBuilder<T, R> withServiceDataSource(ServiceDataSource serviceDataSource) {
         this.serviceDataSource = serviceDataSource;
@@ -86,22 +89,48 @@ public abstract class ServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> {
         return this;
     }
 
+    /**
+     * Let the hub start even if some services are not ready within the start timeout.
+     * See {@link ServiceFinderHub#readinessReport()}.
+     */
+    public ServiceFinderHubBuilder<T, R> withStartDegraded(boolean startDegraded) {
+        this.startDegraded = startDegraded;
+        return this;
+    }
+
     public ServiceFinderHubBuilder<T, R> withExcludedServices(Set<String> excludedServices) {
         this.excludedServices = Objects.requireNonNullElseGet(excludedServices, Set::of);
         return this;
     }
 
+    /**
+     * Scheduler for hub level refreshes. Finders are built on it as well if it runs on virtual threads.
+     * The finder factory needs to be given the same scheduler for finders to use it.
+     */
+    public ServiceFinderHubBuilder<T, R> withRefreshScheduler(RefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+        return this;
+    }
+
+    /**
+     * Run hub refreshes on virtual threads. Needs JDK 21 or above, ignored with a warning otherwise.
+     */
+    public ServiceFinderHubBuilder<T, R> withVirtualThreads() {
+        return withRefreshScheduler(RefreshScheduler.virtualThreads());
+    }
+
     public ServiceFinderHub<T, R> build() {
         preBuild();
         Preconditions.checkNotNull(serviceDataSource, "Provide a non-null service data source");
         Preconditions.checkNotNull(serviceFinderFactory, "Provide a non-null service finder factory");
 
         val hub = new ServiceFinderHub<>(serviceDataSource, serviceFinderFactory, serviceRefreshTimeoutMs,
-                hubStartTimeoutMs, excludedServices);
+                hubStartTimeoutMs, excludedServices, refreshScheduler, startDegraded);
         final ScheduledSignal<Void> refreshSignal = new ScheduledSignal<>("service-hub-refresh-timer",
                                                                           () -> null,
                                                                           Collections.emptyList(),
-                                                                          refreshFrequencyMs);
+                                                                          refreshFrequencyMs,
+                                                                          refreshScheduler);
         hub.registerUpdateSignal(refreshSignal);
         extraRefreshSignals.forEach(hub::registerUpdateSignal);
 
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import java.util.function.Predicate;
+
+/**
+ * Marker for criteria that have stable equals/hashCode across calls, so that results computed for them can be
+ * cached. Plain lambdas do not qualify, as a fresh instance is usually created for every call.
+ */
+public interface CacheableCriteria<T> extends Predicate<T> {
+}
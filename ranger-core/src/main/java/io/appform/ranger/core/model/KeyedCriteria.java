@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import lombok.Value;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Criteria that matches nodes whose shard data yields the given key.
+ * When the key extractor is the same instance that was registered with the registry, lookups are served
+ * directly from the precomputed shard index without evaluating the predicate on any node.
+ */
+@Value
+public class KeyedCriteria<T, K> implements CacheableCriteria<T> {
+    Function<T, K> keyExtractor;
+    K key;
+
+    public static <T, K> KeyedCriteria<T, K> of(final Function<T, K> keyExtractor, final K key) {
+        return new KeyedCriteria<>(keyExtractor, key);
+    }
+
+    @Override
+    public boolean test(T nodeData) {
+        return Objects.equals(key, keyExtractor.apply(nodeData));
+    }
+}
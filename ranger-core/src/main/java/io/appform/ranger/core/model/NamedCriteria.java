@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * Criteria identified by a name. Two instances with the same name are considered to be the same criteria,
+ * so callers must make sure a name is used for only one predicate.
+ */
+@Value
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class NamedCriteria<T> implements CacheableCriteria<T> {
+    @EqualsAndHashCode.Include
+    String name;
+    Predicate<T> predicate;
+
+    public static <T> NamedCriteria<T> of(final String name, final Predicate<T> predicate) {
+        return new NamedCriteria<>(name, predicate);
+    }
+
+    @Override
+    public boolean test(T nodeData) {
+        return predicate.test(nodeData);
+    }
+}
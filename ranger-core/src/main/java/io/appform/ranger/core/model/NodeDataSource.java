@@ -28,6 +28,15 @@ public interface NodeDataSource<T, D extends Deserializer<T>> extends NodeDataSt
 
     Optional<List<ServiceNode<T>>> refresh(D deserializer) throws CommunicationException;
 
+    /**
+     * Fetch changes to the node list since a version returned earlier. Sources that can not compute changes return
+     * the full node list as a snapshot.
+     * @param sinceVersion Version from the last delta that was applied, null to get a snapshot
+     */
+    default Optional<NodeDelta<T>> refreshDelta(D deserializer, String sinceVersion) throws CommunicationException {
+        return refresh(deserializer).map(nodes -> NodeDelta.snapshot(null, nodes));
+    }
+
     default long healthcheckZombieCheckThresholdTime(Service service) {
         return isActive() ? (System.currentTimeMillis() - 60000) : 0; //1 Minute
     }
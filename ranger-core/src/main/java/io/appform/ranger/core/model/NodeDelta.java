@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Changes to the node list of a service since a version returned earlier by the same source.
+ * Nodes are identified by their endpoint ({@link ServiceNode#representation()}).
+ * <ul>
+ *     <li>version: Token to pass to the next call to get changes after this one</li>
+ *     <li>snapshot: If true, upserts is the complete node list and replaces everything known so far</li>
+ *     <li>upserts: Nodes that were added or modified</li>
+ *     <li>removed: Endpoints of nodes that went away</li>
+ *     <li>heartbeats: New lastUpdatedTimeStamp for nodes whose content has not changed</li>
+ * </ul>
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class NodeDelta<T> {
+    String version;
+    boolean snapshot;
+    @Builder.Default
+    List<ServiceNode<T>> upserts = Collections.emptyList();
+    @Builder.Default
+    Set<String> removed = Collections.emptySet();
+    @Builder.Default
+    Map<String, Long> heartbeats = Collections.emptyMap();
+
+    public static <T> NodeDelta<T> snapshot(String version, List<ServiceNode<T>> nodes) {
+        return NodeDelta.<T>builder()
+                .version(version)
+                .snapshot(true)
+                .upserts(nodes)
+                .build();
+    }
+
+    /**
+     * Apply the changes to a node list. Nodes in the current list are never modified, heartbeats replace them with
+     * copies carrying the new timestamp.
+     * @return The updated node list or empty if the delta refers to nodes that are not present in the current list
+     * and a full refresh is needed
+     */
+    public Optional<List<ServiceNode<T>>> applyTo(List<ServiceNode<T>> currentNodes) {
+        if (snapshot) {
+            return Optional.of(upserts);
+        }
+        val nodes = new LinkedHashMap<String, ServiceNode<T>>();
+        currentNodes.forEach(node -> nodes.put(node.representation(), node));
+        removed.forEach(nodes::remove);
+        upserts.forEach(node -> nodes.put(node.representation(), node));
+        for (val heartbeat : heartbeats.entrySet()) {
+            val node = nodes.get(heartbeat.getKey());
+            if (null == node) {
+                return Optional.empty();
+            }
+            nodes.put(heartbeat.getKey(), node.withLastUpdatedTimeStamp(heartbeat.getValue()));
+        }
+        return Optional.of(new ArrayList<>(nodes.values()));
+    }
+}
@@ -20,6 +20,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.With;
 
 @Data
 @NoArgsConstructor
@@ -34,6 +35,7 @@ public class ServiceNode<T> {
     @Builder.Default
     private HealthcheckStatus healthcheckStatus = HealthcheckStatus.healthy;
     @Builder.Default
+    @With
     private long lastUpdatedTimeStamp = Long.MIN_VALUE;
     private long healthySinceTimeStamp;
     //Can be any scheme that you intend to init.
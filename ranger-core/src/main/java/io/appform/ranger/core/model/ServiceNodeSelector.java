@@ -19,4 +19,39 @@ import java.util.List;
 
 public interface ServiceNodeSelector<T> {
     ServiceNode<T> select(List<ServiceNode<T>> serviceNodes);
+
+    /**
+     * Select a node for a routing key. Key aware selectors return the same node for the same key as long as the
+     * membership of the list is stable, others ignore the key.
+     *
+     * @param serviceNodes Nodes to select from
+     * @param routingKey   Hash of the key to route on
+     * @return Selected node
+     */
+    default ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, long routingKey) {
+        return select(serviceNodes);
+    }
+
+    /**
+     * Called before a call is made to a node returned by {@link #select(List)}, when the caller will report its
+     * outcome using {@link #reportOutcome(ServiceNode, long, boolean)}. Selectors that track calls in flight override
+     * this, others ignore it.
+     *
+     * @param node Node the call is about to be made to
+     */
+    default void callStarted(ServiceNode<T> node) {
+        //Nothing to do by default
+    }
+
+    /**
+     * Feedback about a call made to a node returned by {@link #select(List)}.
+     * Selectors that route on live performance data override this, others ignore it.
+     *
+     * @param node         Node the call was made to
+     * @param latencyNanos Time taken by the call
+     * @param success      Whether the call succeeded
+     */
+    default void reportOutcome(ServiceNode<T> node, long latencyNanos, boolean success) {
+        //Nothing to do by default
+    }
 }
@@ -15,30 +15,162 @@
  */
 package io.appform.ranger.core.model;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import io.appform.ranger.core.util.NodeFingerprints;
+import lombok.Getter;
+import lombok.val;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import lombok.Getter;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class ServiceRegistry<T> {
     @Getter
     private final Service service;
     private final AtomicBoolean refreshed = new AtomicBoolean(false);
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    //Shared by all registries so that update stamps of different registries never match
+    private static final AtomicLong UPDATE_SEQUENCE = new AtomicLong(0);
+
+    private final AtomicLong generation = new AtomicLong(0);
+    private volatile long lastUpdate = 0;
+    //Only written by the updater, which never runs concurrently for a registry
+    private volatile long fingerprint;
 
     public abstract List<ServiceNode<T>> nodeList();
 
-    public void updateNodes(List<ServiceNode<T>> nodes) {
+    /**
+     * Swap in a new node list. If the list has the same content as the current one, the latest nodes are swapped in
+     * through {@link #refresh(List)} without bumping the generation, so that the index is reused and data cached
+     * against the generation is left untouched. Nodes already handed out are never modified.
+     * @return true if the node list changed
+     */
+    public boolean updateNodes(List<ServiceNode<T>> nodes) {
+        val fingerprint = NodeFingerprints.fingerprint(nodes);
+        if (refreshed.get() && fingerprint == this.fingerprint && refreshTimestamps(nodes)) {
+            lastUpdate = UPDATE_SEQUENCE.incrementAndGet();
+            return false;
+        }
         update(nodes);
+        this.fingerprint = fingerprint;
+        //Generation is bumped only after the new list is visible so that anything cached against
+        //a generation is never older than the data it was computed from
+        generation.incrementAndGet();
+        lastUpdate = UPDATE_SEQUENCE.incrementAndGet();
         refreshed.set(true);
+        ready.complete(null);
+        return true;
+    }
+
+    /**
+     * @return A counter that changes every time a new node list is swapped into this registry.
+     * Can be used to invalidate data derived from the node list.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return A stamp that changes every time nodes are updated, including updates that only refreshed timestamps.
+     * Stamps are unique across registries. Can be used to invalidate data that includes node timestamps.
+     */
+    public long getLastUpdate() {
+        return lastUpdate;
     }
 
     public boolean isRefreshed() {
         return refreshed.get();
     }
 
+    /**
+     * @return A future that completes when the first node list is swapped into this registry
+     */
+    public CompletableFuture<Void> readiness() {
+        return ready.copy();
+    }
+
     protected ServiceRegistry(Service service) {
         this.service = service;
     }
 
     protected abstract void update(List<ServiceNode<T>> nodes);
+
+    /**
+     * Swap in nodes that differ from the current ones only in their update timestamps. They are passed in the same
+     * order as {@link #nodeList()}, so registries can reuse whatever they built for the current nodes.
+     * Does a full {@link #update(List)} by default.
+     */
+    protected void refresh(List<ServiceNode<T>> nodes) {
+        update(nodes);
+    }
+
+    /**
+     * Swap in the latest nodes if they only carry newer update timestamps. Matching fingerprints are confirmed node
+     * by node before anything is swapped, so a fingerprint collision can not hide a real change.
+     * @return false if some of the latest nodes could not be matched and the list needs to be swapped after all
+     */
+    private boolean refreshTimestamps(List<ServiceNode<T>> latestNodes) {
+        val currentNodes = nodeList();
+        val matchingNodes = matchByEndpoint(currentNodes, latestNodes);
+        if (null == matchingNodes) {
+            return false;
+        }
+        for (int i = 0; i < currentNodes.size(); i++) {
+            if (!sameContent(currentNodes.get(i), matchingNodes.get(i))) {
+                return false;
+            }
+        }
+        refresh(matchingNodes);
+        return true;
+    }
+
+    /**
+     * @return The latest node for each current node, in the same order, or null if the endpoints do not match up
+     */
+    private static <T> List<ServiceNode<T>> matchByEndpoint(
+            List<ServiceNode<T>> currentNodes,
+            List<ServiceNode<T>> latestNodes) {
+        if (currentNodes.size() != latestNodes.size()) {
+            return null;
+        }
+        //Sources mostly return nodes in the same order every time
+        var samePositions = true;
+        for (int i = 0; i < currentNodes.size() && samePositions; i++) {
+            samePositions = sameEndpoint(currentNodes.get(i), latestNodes.get(i));
+        }
+        if (samePositions) {
+            return latestNodes;
+        }
+        val latestByEndpoint = new HashMap<String, ServiceNode<T>>();
+        latestNodes.forEach(node -> latestByEndpoint.put(node.representation(), node));
+        if (latestByEndpoint.size() != latestNodes.size()) {
+            return null;
+        }
+        val matchingNodes = new ArrayList<ServiceNode<T>>(currentNodes.size());
+        for (val currentNode : currentNodes) {
+            val latestNode = latestByEndpoint.get(currentNode.representation());
+            if (null == latestNode) {
+                return null;
+            }
+            matchingNodes.add(latestNode);
+        }
+        return matchingNodes;
+    }
+
+    private static <T> boolean sameEndpoint(ServiceNode<T> lhs, ServiceNode<T> rhs) {
+        return lhs.getPort() == rhs.getPort() && Objects.equals(lhs.getHost(), rhs.getHost());
+    }
+
+    //Everything but the update timestamp, which is all a refresh may change
+    private static <T> boolean sameContent(ServiceNode<T> lhs, ServiceNode<T> rhs) {
+        return sameEndpoint(lhs, rhs)
+                && Double.compare(lhs.getRoutingWeight(), rhs.getRoutingWeight()) == 0
+                && lhs.getHealthcheckStatus() == rhs.getHealthcheckStatus()
+                && lhs.getHealthySinceTimeStamp() == rhs.getHealthySinceTimeStamp()
+                && Objects.equals(lhs.getPortScheme(), rhs.getPortScheme())
+                && Objects.equals(lhs.getNodeData(), rhs.getNodeData());
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable node list handed out by a registry, which stays the same instance until the registry swaps in a new node
+ * list. Selectors attach data they derive from a list (alias tables, hash ring lookups, partitions and the like) to the
+ * list itself using {@link #derived(List, Object, Function)}, so that it is computed once per refresh and goes away
+ * together with the list.
+ * <p>
+ * Only snapshots carry derived data. The registries return snapshots for all nodes, for a single shard and for keyed
+ * lookups, and {@link io.appform.ranger.core.finder.shardselector.CachingShardSelector} returns them for cacheable
+ * criteria. Lists built per lookup, such as criteria matching several shards without a caching shard selector, are
+ * not snapshots, and anything derived from them is recomputed on every call. Selectors should use a cheaper path
+ * that does not need derived data for such lists.
+ */
+public final class SnapshotNodeList<T> extends AbstractList<ServiceNode<T>> implements RandomAccess {
+    @SuppressWarnings("rawtypes")
+    private static final SnapshotNodeList EMPTY = new SnapshotNodeList<>(ImmutableList.of());
+
+    private final ImmutableList<ServiceNode<T>> nodes;
+    //Created on first use, most lists never have anything derived from them
+    private volatile ConcurrentHashMap<Object, Object> derivedData;
+
+    private SnapshotNodeList(ImmutableList<ServiceNode<T>> nodes) {
+        this.nodes = nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> SnapshotNodeList<T> empty() {
+        return (SnapshotNodeList<T>) EMPTY;
+    }
+
+    /**
+     * @return The list itself if it is already a snapshot, otherwise a snapshot of an immutable copy of it
+     */
+    public static <T> SnapshotNodeList<T> of(List<ServiceNode<T>> nodes) {
+        if (nodes instanceof SnapshotNodeList) {
+            return (SnapshotNodeList<T>) nodes;
+        }
+        return nodes.isEmpty() ? empty() : new SnapshotNodeList<>(ImmutableList.copyOf(nodes));
+    }
+
+    public static boolean isSnapshot(List<?> nodes) {
+        return nodes instanceof SnapshotNodeList;
+    }
+
+    /**
+     * Data derived from a node list by the given owner. For snapshots it is built on first use and kept with the
+     * list, for any other list it is built on every call.
+     *
+     * @param nodes   Node list to derive data from
+     * @param owner   Identifies the derived data on the list, usually the selector deriving it
+     * @param builder Builds the data from the list. Should be held in a field, so that calls do not allocate.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, V> V derived(
+            List<ServiceNode<T>> nodes,
+            Object owner,
+            Function<? super List<ServiceNode<T>>, ? extends V> builder) {
+        //The empty snapshot is shared, so nothing is kept on it
+        if (!(nodes instanceof SnapshotNodeList) || nodes.isEmpty()) {
+            return builder.apply(nodes);
+        }
+        final ConcurrentHashMap<Object, Object> data = ((SnapshotNodeList<T>) nodes).derivedData();
+        final Object existing = data.get(owner);
+        if (null != existing) {
+            return (V) existing;
+        }
+        return (V) data.computeIfAbsent(owner, key -> builder.apply(nodes));
+    }
+
+    /**
+     * Replace data derived earlier, for data that expires while the list is still being served
+     *
+     * @return The newly built data
+     */
+    public static <T, V> V rederived(
+            List<ServiceNode<T>> nodes,
+            Object owner,
+            Function<? super List<ServiceNode<T>>, ? extends V> builder) {
+        final V value = builder.apply(nodes);
+        if (nodes instanceof SnapshotNodeList && !nodes.isEmpty()) {
+            ((SnapshotNodeList<T>) nodes).derivedData().put(owner, value);
+        }
+        return value;
+    }
+
+    @Override
+    public ServiceNode<T> get(int index) {
+        return nodes.get(index);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    private ConcurrentHashMap<Object, Object> derivedData() {
+        ConcurrentHashMap<Object, Object> data = derivedData;
+        if (null == data) {
+            synchronized (this) {
+                data = derivedData;
+                if (null == data) {
+                    data = new ConcurrentHashMap<>(4);
+                    derivedData = data;
+                }
+            }
+        }
+        return data;
+    }
+}
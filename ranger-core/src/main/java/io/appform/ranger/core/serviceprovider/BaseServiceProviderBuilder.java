@@ -31,6 +31,7 @@ import io.appform.ranger.core.model.NodeDataSink;
 import io.appform.ranger.core.model.Serializer;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.core.signals.ScheduledSignal;
 import io.appform.ranger.core.signals.Signal;
 import lombok.AccessLevel;
@@ -200,12 +201,18 @@ public abstract class BaseServiceProviderBuilder<T, B extends BaseServiceProvide
         val service = Service.builder().namespace(namespace).serviceName(serviceName).build();
         val usableNodeDataSource = dataSink(service);
 
+        //Heartbeats get a thread of their own, so that slow finder refreshes on the shared refresh scheduler can
+        //never delay them long enough for this node to be marked stale
+        val healthcheckScheduler = new RefreshScheduler(
+                String.format("health-%s-%s", namespace, serviceName), 1);
         val healthcheckUpdateSignalGenerator
                 = new ScheduledSignal<>(
                 service,
                 new HealthChecker(healthchecks, staleUpdateThresholdMs),
                 Collections.emptyList(),
-                healthUpdateIntervalMs
+                healthUpdateIntervalMs,
+                null,
+                healthcheckScheduler
         );
 
         val healthServices = Collections.singletonList(serviceHealthAggregator);
@@ -237,6 +244,7 @@ public abstract class BaseServiceProviderBuilder<T, B extends BaseServiceProvide
         stopSignal
                 .registerConsumer(x -> healthServices.forEach(HealthService::stop))
                 .registerConsumer(x -> signalGenerators.forEach(Signal::stop))
+                .registerConsumer(x -> healthcheckScheduler.shutdown())
                 .registerConsumer(x -> usableNodeDataSource.stop())
                 .registerConsumers(stopSignalHandlers);
         return serviceProvider;
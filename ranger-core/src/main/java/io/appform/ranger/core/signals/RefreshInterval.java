@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.signals;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh interval of a single service, computed as per a {@link RefreshIntervalPolicy}. Whoever updates the
+ * registry reports the outcome of every refresh using {@link #onRefresh(boolean)} so that the interval can be backed
+ * off for services that do not change.
+ */
+public class RefreshInterval {
+    private final RefreshIntervalPolicy policy;
+    @Getter
+    private final long baseIntervalMillis;
+    private final long maxIntervalMillis;
+    private final AtomicLong currentIntervalMillis;
+    private final AtomicInteger unchangedRefreshes = new AtomicInteger();
+
+    RefreshInterval(RefreshIntervalPolicy policy, long baseIntervalMillis) {
+        this.policy = policy;
+        this.baseIntervalMillis = baseIntervalMillis;
+        this.maxIntervalMillis = baseIntervalMillis * policy.getMaxBackoffMultiplier();
+        this.currentIntervalMillis = new AtomicLong(baseIntervalMillis);
+    }
+
+    public static RefreshInterval fixed(long intervalMillis) {
+        return RefreshIntervalPolicy.fixed().create(intervalMillis);
+    }
+
+    public long initialDelayMillis() {
+        return policy.isRandomInitialDelay() && baseIntervalMillis > 0
+               ? ThreadLocalRandom.current().nextLong(baseIntervalMillis)
+               : 0;
+    }
+
+    /**
+     * @return Delay before the next refresh, with jitter applied
+     */
+    public long nextDelayMillis() {
+        final long interval = currentIntervalMillis.get();
+        final long jitter = (long) (interval * policy.getJitterFraction());
+        return jitter <= 0
+               ? interval
+               : interval - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+    }
+
+    /**
+     * @return Interval without jitter that is currently in effect
+     */
+    public long currentIntervalMillis() {
+        return currentIntervalMillis.get();
+    }
+
+    /**
+     * Record the outcome of a successful refresh
+     * @param changed true if the refresh changed the node list of the service
+     */
+    public void onRefresh(boolean changed) {
+        if (changed) {
+            unchangedRefreshes.set(0);
+            currentIntervalMillis.set(baseIntervalMillis);
+            return;
+        }
+        final int threshold = policy.getUnchangedRefreshesBeforeBackoff();
+        if (threshold > 0 && unchangedRefreshes.incrementAndGet() >= threshold) {
+            unchangedRefreshes.set(0);
+            currentIntervalMillis.updateAndGet(current -> Math.min(current * 2, maxIntervalMillis));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.signals;
+
+import com.google.common.base.Preconditions;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * How the delay between periodic refreshes of a service is computed. Immutable, so a single policy can be shared
+ * by all finders of a hub; every scheduled signal gets its own {@link RefreshInterval} from it.
+ * <ul>
+ *     <li>jitterFraction: Each delay is picked uniformly from interval * (1 +/- jitterFraction)</li>
+ *     <li>randomInitialDelay: Start the first periodic refresh at a random point within the first interval</li>
+ *     <li>unchangedRefreshesBeforeBackoff: Double the interval after these many consecutive refreshes that did not
+ *     change the node list. Zero disables backoff.</li>
+ *     <li>maxBackoffMultiplier: The interval is never backed off beyond interval * maxBackoffMultiplier</li>
+ * </ul>
+ * A change in the node list resets the interval to the configured one.
+ */
+@Value
+public class RefreshIntervalPolicy {
+    private static final RefreshIntervalPolicy FIXED = new RefreshIntervalPolicy(0, false, 0, 1);
+
+    public static final double DEFAULT_JITTER_FRACTION = 0.1;
+    public static final int DEFAULT_UNCHANGED_REFRESHES_BEFORE_BACKOFF = 5;
+    public static final int DEFAULT_MAX_BACKOFF_MULTIPLIER = 8;
+
+    double jitterFraction;
+    boolean randomInitialDelay;
+    int unchangedRefreshesBeforeBackoff;
+    int maxBackoffMultiplier;
+
+    @Builder
+    public RefreshIntervalPolicy(
+            double jitterFraction,
+            boolean randomInitialDelay,
+            int unchangedRefreshesBeforeBackoff,
+            int maxBackoffMultiplier) {
+        Preconditions.checkArgument(jitterFraction >= 0 && jitterFraction < 1,
+                                    "jitterFraction needs to be in [0, 1)");
+        Preconditions.checkArgument(unchangedRefreshesBeforeBackoff >= 0,
+                                    "unchangedRefreshesBeforeBackoff can not be negative");
+        this.jitterFraction = jitterFraction;
+        this.randomInitialDelay = randomInitialDelay;
+        this.unchangedRefreshesBeforeBackoff = unchangedRefreshesBeforeBackoff;
+        this.maxBackoffMultiplier = Math.max(1, maxBackoffMultiplier);
+    }
+
+    /**
+     * Refresh exactly every interval, starting immediately. This is the default.
+     */
+    public static RefreshIntervalPolicy fixed() {
+        return FIXED;
+    }
+
+    /**
+     * Staggered start, jitter and backoff for unchanged services with default settings
+     */
+    public static RefreshIntervalPolicy adaptive() {
+        return new RefreshIntervalPolicy(DEFAULT_JITTER_FRACTION,
+                                         true,
+                                         DEFAULT_UNCHANGED_REFRESHES_BEFORE_BACKOFF,
+                                         DEFAULT_MAX_BACKOFF_MULTIPLIER);
+    }
+
+    public RefreshInterval create(long intervalMillis) {
+        return new RefreshInterval(this, intervalMillis);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.signals;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs periodic refresh work for any number of finders on a fixed number of threads. A single timer thread only
+ * hands tasks over to a bounded worker pool, so slow data sources do not delay the timers of other services.
+ * Scheduled signals and registry updaters use {@link #shared()} unless given a scheduler explicitly, so thread count
+ * depends on the number of cores and not on the number of services being tracked. Service providers do not use it for
+ * their health updates, as a heartbeat must not queue behind blocking refreshes.
+ * On JDK 21 and above, {@link #virtualThreads()} runs the work on virtual threads instead, as almost all of it is
+ * blocking I/O against the upstream.
+ */
+@Slf4j
+public class RefreshScheduler {
+    private static final int DEFAULT_WORKER_THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    /**
+     * Number of tasks that can run at the same time, {@link Integer#MAX_VALUE} for virtual threads
+     */
+    @Getter
+    private final int parallelism;
+
+    public RefreshScheduler(String name, int workerThreads) {
+        this(timer(name), workers(name, workerThreads), workerThreads);
+    }
+
+    public RefreshScheduler(ScheduledExecutorService timer, ExecutorService workers, int parallelism) {
+        this.timer = timer;
+        this.workers = workers;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return Scheduler shared by all finders that were not given one explicitly. Uses daemon threads, so it never
+     * needs to be shut down.
+     */
+    public static RefreshScheduler shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * @return Scheduler running refresh work on virtual threads, shared by everything that opted in to it. Falls
+     * back to {@link #shared()} on runtimes without virtual threads.
+     */
+    public static RefreshScheduler virtualThreads() {
+        return VirtualHolder.INSTANCE;
+    }
+
+    /**
+     * @return true if the runtime supports virtual threads
+     */
+    public static boolean virtualThreadsSupported() {
+        return null != VirtualHolder.VIRTUAL_EXECUTOR_FACTORY;
+    }
+
+    /**
+     * Run a task on the worker pool
+     */
+    public void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    /**
+     * Run a task periodically on the worker pool. The next run is scheduled only once the previous one has finished,
+     * so a task never runs concurrently with itself.
+     *
+     * @param name           Name used for logging
+     * @param task           Task to run
+     * @param initialDelayMs Delay before the first run
+     * @param delayMs        Evaluated after every run to get the delay before the next one
+     * @return Handle to cancel further runs
+     */
+    public ScheduledTask scheduleWithFixedDelay(
+            String name,
+            Runnable task,
+            long initialDelayMs,
+            LongSupplier delayMs) {
+        final ScheduledTask scheduledTask = new ScheduledTask(name, task, delayMs);
+        scheduledTask.scheduleAfter(initialDelayMs);
+        return scheduledTask;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static ScheduledExecutorService timer(String name) {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                1, new ThreadFactoryBuilder().setNameFormat(name + "-timer-%d").setDaemon(true).build());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ExecutorService workers(String name, int workerThreads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workerThreads, workerThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat(name + "-worker-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class VirtualHolder {
+        private static final Method VIRTUAL_EXECUTOR_FACTORY = virtualExecutorFactory();
+        private static final RefreshScheduler INSTANCE = createVirtual();
+
+        //Looked up reflectively, as the library is built for JDK 17
+        private static Method virtualExecutorFactory() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            }
+            catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static RefreshScheduler createVirtual() {
+            if (null == VIRTUAL_EXECUTOR_FACTORY) {
+                log.warn("Virtual threads are not supported on this runtime. Using the shared refresh scheduler");
+                return shared();
+            }
+            try {
+                return new RefreshScheduler(timer("ranger-refresh-virtual"),
+                                            (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null),
+                                            Integer.MAX_VALUE);
+            }
+            catch (ReflectiveOperationException e) {
+                log.warn("Could not create virtual thread executor. Using the shared refresh scheduler", e);
+                return shared();
+            }
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final RefreshScheduler INSTANCE = new RefreshScheduler("ranger-refresh", DEFAULT_WORKER_THREADS);
+    }
+
+    /**
+     * A periodic task registered with a {@link RefreshScheduler}
+     */
+    public final class ScheduledTask {
+        private final String name;
+        private final Runnable task;
+        private final LongSupplier delayMs;
+        private volatile boolean cancelled = false;
+        private volatile ScheduledFuture<?> nextRun = null;
+
+        private ScheduledTask(String name, Runnable task, LongSupplier delayMs) {
+            this.name = name;
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            final ScheduledFuture<?> future = nextRun;
+            if (null != future) {
+                future.cancel(false);
+            }
+        }
+
+        private void scheduleAfter(long delay) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                nextRun = timer.schedule(this::dispatch, Math.max(0, delay), TimeUnit.MILLISECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                log.warn("Refresh scheduler has been shut down. No further runs for: {}", name);
+            }
+        }
+
+        private void dispatch() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                workers.execute(this::run);
+            }
+            catch (RejectedExecutionException e) {
+                log.warn("Refresh scheduler has been shut down. No further runs for: {}", name);
+            }
+        }
+
+        private void run() {
+            try {
+                if (!cancelled) {
+                    task.run();
+                }
+            }
+            catch (Exception e) {
+                log.error("Error running scheduled task: " + name, e);
+            }
+            finally {
+                scheduleAfter(delayMs.getAsLong());
+            }
+        }
+    }
+}
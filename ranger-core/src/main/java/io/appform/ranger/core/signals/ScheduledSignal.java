@@ -21,34 +21,43 @@ import lombok.Singular;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- *
+ * Generates a signal periodically, at a fixed interval unless a {@link RefreshInterval} with jitter or backoff is
+ * provided. Runs on a {@link RefreshScheduler}, the shared one by default, instead of owning a thread.
  */
 @Slf4j
 public class ScheduledSignal<T> extends Signal<T> {
     private final String name;
-    private final long refreshIntervalMillis;
+    private final RefreshInterval refreshInterval;
+    private final RefreshScheduler scheduler;
 
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private RefreshScheduler.ScheduledTask scheduledTask = null;
 
-    private ScheduledFuture<?> scheduledFuture = null;
+    public ScheduledSignal(
+            final Service service,
+            final Supplier<T> signalDataGenerator,
+            List<Consumer<T>> consumers,
+            long refreshIntervalMillis) {
+        this(service, signalDataGenerator, consumers, refreshIntervalMillis, null, null);
+    }
 
     @Builder
     public ScheduledSignal(
             final Service service,
             final Supplier<T> signalDataGenerator,
             @Singular List<Consumer<T>> consumers,
-            long refreshIntervalMillis) {
-        super(signalDataGenerator, consumers);
-        this.name = String.format("timer-%s-%s", service.getNamespace(), service.getServiceName());
-        this.refreshIntervalMillis = refreshIntervalMillis;
+            long refreshIntervalMillis,
+            RefreshInterval refreshInterval,
+            RefreshScheduler scheduler) {
+        this(String.format("timer-%s-%s", service.getNamespace(), service.getServiceName()),
+             signalDataGenerator,
+             consumers,
+             Objects.requireNonNullElseGet(refreshInterval, () -> RefreshInterval.fixed(refreshIntervalMillis)),
+             scheduler);
     }
 
     public ScheduledSignal(
@@ -56,27 +65,43 @@ public class ScheduledSignal<T> extends Signal<T> {
             final Supplier<T> signalDataGenerator,
             @Singular List<Consumer<T>> consumers,
             long refreshIntervalMillis) {
+        this(name, signalDataGenerator, consumers, refreshIntervalMillis, null);
+    }
+
+    public ScheduledSignal(
+            final String name,
+            final Supplier<T> signalDataGenerator,
+            List<Consumer<T>> consumers,
+            long refreshIntervalMillis,
+            RefreshScheduler scheduler) {
+        this(name, signalDataGenerator, consumers, RefreshInterval.fixed(refreshIntervalMillis), scheduler);
+    }
+
+    public ScheduledSignal(
+            final String name,
+            final Supplier<T> signalDataGenerator,
+            List<Consumer<T>> consumers,
+            RefreshInterval refreshInterval,
+            RefreshScheduler scheduler) {
         super(signalDataGenerator, consumers);
         this.name = name;
-        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refreshInterval = refreshInterval;
+        this.scheduler = Objects.requireNonNullElseGet(scheduler, RefreshScheduler::shared);
     }
 
     @Override
     public final void start() {
-        scheduledFuture = scheduler.scheduleWithFixedDelay(() -> {
-            try {
-                onSignalReceived();
-            } catch (Exception e) {
-                log.error("Error delivering signal for:" + name , e);
-            }
-        }, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduledTask = scheduler.scheduleWithFixedDelay(name,
+                                                         this::onSignalReceived,
+                                                         refreshInterval.initialDelayMillis(),
+                                                         refreshInterval::nextDelayMillis);
         log.info("Started scheduled signal generator: {}", name);
     }
 
     @Override
     public final void stop() {
-        if(null != scheduledFuture) {
-            scheduledFuture.cancel(true);
+        if(null != scheduledTask) {
+            scheduledTask.cancel();
         }
         log.info("Stopped scheduled signal generator: {}", name);
     }
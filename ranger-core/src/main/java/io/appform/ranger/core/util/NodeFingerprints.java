@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.util;
+
+import com.google.common.hash.Hashing;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Content fingerprints for node lists. Covers everything about a node that affects routing (host, port, scheme,
+ * health, healthy since time, weight and node data) and leaves out the update timestamp, which changes on every
+ * refresh.
+ * Node data is hashed using its hashCode(), so types that do not implement it will never match a previous list.
+ */
+@UtilityClass
+public class NodeFingerprints {
+
+    /**
+     * @return Fingerprint of the list, independent of the order of the nodes in it
+     */
+    public static <T> long fingerprint(final List<ServiceNode<T>> nodes) {
+        long fingerprint = nodes.size();
+        //Indexed loop as the lists passed here are random access and this runs on every refresh
+        for (int i = 0; i < nodes.size(); i++) {
+            fingerprint += mix(nodeHash(nodes.get(i)));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return Fingerprint of the list including node timestamps, independent of the order of the nodes in it. Two
+     * lists with the same snapshot fingerprint serialize to the same content.
+     */
+    public static <T> long snapshotFingerprint(final List<ServiceNode<T>> nodes) {
+        long fingerprint = nodes.size();
+        for (int i = 0; i < nodes.size(); i++) {
+            val node = nodes.get(i);
+            long hash = nodeHash(node);
+            hash = 31 * hash + Long.hashCode(node.getLastUpdatedTimeStamp());
+            fingerprint += mix(hash);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return Hex encoded SHA-256 digest of a set of names, independent of their order. Unlike the node fingerprints,
+     * this is collision resistant, so it can be sent to clients as a version.
+     */
+    public static String namesDigest(final Collection<String> values) {
+        val hasher = Hashing.sha256().newHasher();
+        values.stream()
+                .sorted()
+                .forEach(value -> hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8));
+        return hasher.hash().toString();
+    }
+
+    private static <T> long nodeHash(final ServiceNode<T> node) {
+        long hash = Objects.hashCode(node.getHost());
+        hash = 31 * hash + node.getPort();
+        hash = 31 * hash + Objects.hashCode(node.getPortScheme());
+        hash = 31 * hash + Objects.hashCode(node.getHealthcheckStatus());
+        hash = 31 * hash + Double.hashCode(node.getRoutingWeight());
+        hash = 31 * hash + Long.hashCode(node.getHealthySinceTimeStamp());
+        return 31 * hash + Objects.hashCode(node.getNodeData());
+    }
+
+    //Finalizer from murmur3, spreads the bits so that summing hashes of similar nodes does not cancel out
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.core.finder;
 
+import io.appform.ranger.core.finder.nodeselector.LatencyAwareServiceNodeSelector;
 import io.appform.ranger.core.finder.shardselector.ListShardSelector;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceNodeSelector;
@@ -49,4 +50,20 @@ class UnshardedClusterFinderTest {
         Assertions.assertTrue(serviceNode.isPresent());
         Assertions.assertEquals("localhost-1", serviceNode.get().getHost());
     }
+
+    @Test
+    void onlyAcquiredNodesAreCountedInFlight() {
+        val nodeSelector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val finder = new SimpleUnshardedServiceFinder<>(
+                RegistryTestUtils.getUnshardedRegistry(),
+                new ListShardSelector<>(),
+                nodeSelector
+        );
+        val looked = finder.get(RangerTestUtils.getCriteria(1)).orElseThrow();
+        Assertions.assertEquals(0, nodeSelector.statsFor(looked).getInFlight());
+        val acquired = finder.acquire(RangerTestUtils.getCriteria(1)).orElseThrow();
+        Assertions.assertEquals(1, nodeSelector.statsFor(acquired).getInFlight());
+        finder.reportOutcome(acquired, 1000, true);
+        Assertions.assertEquals(0, nodeSelector.statsFor(acquired).getInFlight());
+    }
 }
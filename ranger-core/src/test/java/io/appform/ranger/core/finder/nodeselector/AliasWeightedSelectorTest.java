@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.finder.nodeselector.weightenricher.RoutingWeightEnricher;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import io.appform.ranger.core.model.WeightedNodeSelectorConfig;
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+class AliasWeightedSelectorTest {
+
+    @Test
+    void testSelectionFollowsRoutingWeights() {
+        assertSelectionFollowsRoutingWeights(SnapshotNodeList.of(weightedNodes()));
+    }
+
+    @Test
+    void testSelectionFromListsThatAreNotSnapshotsFollowsRoutingWeights() {
+        assertSelectionFollowsRoutingWeights(weightedNodes());
+    }
+
+    @Test
+    void testAllZeroWeightsSelectUniformly() {
+        val selector = new AliasWeightedSelector<TestNodeData>(List.of(new RoutingWeightEnricher<>()));
+        val serviceNodes = List.of(node("localhost-1", 0.0), node("localhost-2", 0.0));
+        val counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(selector.select(serviceNodes).getHost(), 1, Integer::sum);
+        }
+        Assertions.assertEquals(2, counts.size());
+    }
+
+    @Test
+    void testTableIsRebuiltForNewNodeList() {
+        val selector = new AliasWeightedSelector<TestNodeData>(WeightedNodeSelectorConfig.builder()
+                                                                       .minNodeAgeMs(60_000)
+                                                                       .weightBoostMultiplier(1.0)
+                                                                       .weightedSelectionThreshold(10)
+                                                                       .build());
+        Assertions.assertEquals("localhost-1",
+                                selector.select(SnapshotNodeList.of(List.of(node("localhost-1", 1.0),
+                                                                            node("localhost-2", 0.0)))).getHost());
+        Assertions.assertEquals("localhost-2",
+                                selector.select(SnapshotNodeList.of(List.of(node("localhost-1", 0.0),
+                                                                            node("localhost-2", 1.0)))).getHost());
+    }
+
+    private static void assertSelectionFollowsRoutingWeights(List<ServiceNode<TestNodeData>> serviceNodes) {
+        val selector = new AliasWeightedSelector<TestNodeData>(List.of(new RoutingWeightEnricher<>()));
+        val counts = new HashMap<String, Integer>();
+        val iterations = 100_000;
+        for (int i = 0; i < iterations; i++) {
+            counts.merge(selector.select(serviceNodes).getHost(), 1, Integer::sum);
+        }
+        Assertions.assertFalse(counts.containsKey("localhost-3"));
+        Assertions.assertEquals(0.1, counts.get("localhost-1") / (double) iterations, 0.01);
+        Assertions.assertEquals(0.3, counts.get("localhost-2") / (double) iterations, 0.01);
+        Assertions.assertEquals(0.6, counts.get("localhost-4") / (double) iterations, 0.01);
+    }
+
+    private static List<ServiceNode<TestNodeData>> weightedNodes() {
+        return List.of(node("localhost-1", 1.0), node("localhost-2", 3.0), node("localhost-3", 0.0),
+                       node("localhost-4", 6.0));
+    }
+
+    private static ServiceNode<TestNodeData> node(String host, double weight) {
+        return ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(9000)
+                .routingWeight(weight)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .build();
+    }
+}
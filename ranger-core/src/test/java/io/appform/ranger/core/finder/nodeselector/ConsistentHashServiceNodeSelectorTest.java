@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ConsistentHashServiceNodeSelectorTest {
+
+    @Test
+    void testSameKeyLandsOnSameNodeAcrossRefreshes() {
+        val selector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val serviceNodes = SnapshotNodeList.of(nodes(5));
+        val shuffledNodes = new ArrayList<>(nodes(5));
+        Collections.shuffle(shuffledNodes);
+        val shuffled = SnapshotNodeList.of(shuffledNodes);
+        for (int i = 0; i < 1000; i++) {
+            val key = ConsistentHashServiceNodeSelector.routingKey("key-" + i);
+            val selected = selector.select(serviceNodes, key);
+            Assertions.assertSame(selected, selector.select(serviceNodes, key));
+            Assertions.assertEquals(selected.getHost(), selector.select(shuffled, key).getHost());
+        }
+    }
+
+    @Test
+    void testOnlyKeysOfRemovedNodeMove() {
+        val selector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val serviceNodes = SnapshotNodeList.of(nodes(5));
+        val remaining = SnapshotNodeList.of(serviceNodes.subList(0, 4));
+        val counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            val key = ConsistentHashServiceNodeSelector.routingKey("key-" + i);
+            val before = selector.select(serviceNodes, key).getHost();
+            val after = selector.select(remaining, key).getHost();
+            if (!before.equals("localhost-4")) {
+                Assertions.assertEquals(before, after);
+            }
+            counts.merge(before, 1, Integer::sum);
+        }
+        //Keys spread roughly evenly over the ring
+        counts.values().forEach(count -> Assertions.assertEquals(2000.0, count, 600.0));
+    }
+
+    @Test
+    void testListsThatAreNotSnapshotsAreScanned() {
+        val selector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val serviceNodes = nodes(5);
+        val shuffled = new ArrayList<>(nodes(5));
+        Collections.shuffle(shuffled);
+        val remaining = serviceNodes.subList(0, 4);
+        val counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            val key = ConsistentHashServiceNodeSelector.routingKey("key-" + i);
+            val before = selector.select(serviceNodes, key).getHost();
+            Assertions.assertEquals(before, selector.select(shuffled, key).getHost());
+            if (!before.equals("localhost-4")) {
+                Assertions.assertEquals(before, selector.select(remaining, key).getHost());
+            }
+            counts.merge(before, 1, Integer::sum);
+        }
+        counts.values().forEach(count -> Assertions.assertEquals(2000.0, count, 600.0));
+    }
+
+    @Test
+    void testKeyAwareFinderLookup() {
+        val registry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        registry.updateNodes(nodes(3));
+        val finder = new SimpleShardedServiceFinder<>(registry,
+                                                      new MatchingShardSelector<>(),
+                                                      new ConsistentHashServiceNodeSelector<>());
+        val key = ConsistentHashServiceNodeSelector.routingKey("user-42");
+        val selected = finder.get(null, key).orElseThrow();
+        registry.updateNodes(nodes(3));
+        Assertions.assertEquals(selected.getHost(), finder.getNodeOrNull(null, key).getHost());
+    }
+
+    private static List<ServiceNode<TestNodeData>> nodes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ServiceNode.<TestNodeData>builder()
+                        .host("localhost-" + i)
+                        .port(9000)
+                        .nodeData(TestNodeData.builder().shardId(i).build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
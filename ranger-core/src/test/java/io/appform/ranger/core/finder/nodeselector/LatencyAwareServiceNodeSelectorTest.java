@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class LatencyAwareServiceNodeSelectorTest {
+
+    @Test
+    void testSlowNodeIsAvoided() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val serviceNodes = List.of(node("localhost-1"), node("localhost-2"), node("localhost-3"));
+        val counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            val node = selector.select(serviceNodes);
+            selector.callStarted(node);
+            counts.merge(node.getHost(), 1, Integer::sum);
+            selector.reportOutcome(node,
+                                   TimeUnit.MILLISECONDS.toNanos(node.getHost().equals("localhost-2") ? 100 : 1),
+                                   true);
+        }
+        Assertions.assertTrue(counts.getOrDefault("localhost-2", 0) < 100);
+        for (val node : serviceNodes) {
+            Assertions.assertEquals(0, selector.statsFor(node).getInFlight());
+        }
+    }
+
+    @Test
+    void testFailuresArePenalised() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val failing = node("localhost-1");
+        val healthy = node("localhost-2");
+        selector.reportOutcome(failing, TimeUnit.MILLISECONDS.toNanos(1), false);
+        selector.reportOutcome(healthy, TimeUnit.MILLISECONDS.toNanos(5), true);
+        Assertions.assertEquals(LatencyAwareServiceNodeSelector.DEFAULT_FAILURE_PENALTY.toNanos(),
+                                selector.statsFor(failing).getLatencyEwmaNanos());
+        Assertions.assertEquals("localhost-2", selector.select(List.of(failing, healthy)).getHost());
+    }
+
+    @Test
+    void testUnsampledNodeIsComparedOnCallsInFlight() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val sampled = node("localhost-1");
+        val busy = node("localhost-2");
+        selector.reportOutcome(sampled, TimeUnit.MILLISECONDS.toNanos(1), true);
+        for (int i = 0; i < 5; i++) {
+            selector.statsFor(busy).callStarted();
+        }
+        val serviceNodes = SnapshotNodeList.of(List.of(busy, sampled));
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("localhost-1", selector.select(serviceNodes).getHost());
+            selector.reportOutcome(sampled, TimeUnit.MILLISECONDS.toNanos(1), true);
+        }
+    }
+
+    @Test
+    void testStatsInUseAreNotReplaced() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val serviceNodes = SnapshotNodeList.of(List.of(node("localhost-1")));
+        val selected = selector.select(serviceNodes);
+        selector.callStarted(selected);
+        Assertions.assertEquals(1, selector.statsFor(selected).getInFlight());
+        //Outcome reported against a node recreated by a refresh in the meantime
+        selector.reportOutcome(node("localhost-1"), 1000, true);
+        Assertions.assertEquals(0, selector.statsFor(selected).getInFlight());
+    }
+
+    @Test
+    void testOnlyStartedCallsAreInFlight() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val serviceNodes = SnapshotNodeList.of(List.of(node("localhost-1"), node("localhost-2")));
+        for (int i = 0; i < 100; i++) {
+            selector.select(serviceNodes);
+        }
+        for (val node : serviceNodes) {
+            Assertions.assertEquals(0, selector.statsFor(node).getInFlight());
+        }
+    }
+
+    @Test
+    void testOutcomesOfCallsNotStartedAreNotCountedAgainstInFlight() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        val node = node("localhost-1");
+        for (int i = 0; i < 5; i++) {
+            selector.reportOutcome(node, 1000, true);
+        }
+        Assertions.assertEquals(0, selector.statsFor(node).getInFlight());
+        selector.callStarted(node);
+        Assertions.assertEquals(1, selector.statsFor(node).getInFlight());
+    }
+
+    @Test
+    void testStatsSurviveNodeRecreation() {
+        val selector = new LatencyAwareServiceNodeSelector<TestNodeData>();
+        selector.reportOutcome(node("localhost-1"), 1000, true);
+        Assertions.assertEquals(1000, selector.statsFor(node("localhost-1")).getLatencyEwmaNanos());
+    }
+
+    private static ServiceNode<TestNodeData> node(String host) {
+        return ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(9000)
+                .routingWeight(1.0)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .build();
+    }
+}
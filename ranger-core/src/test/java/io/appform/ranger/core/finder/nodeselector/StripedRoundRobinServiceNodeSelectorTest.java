@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class StripedRoundRobinServiceNodeSelectorTest {
+
+    @Test
+    void testNodesAreVisitedInOrder() {
+        val selector = new StripedRoundRobinServiceNodeSelector<TestNodeData>();
+        val serviceNodes = nodes(3);
+        val first = serviceNodes.indexOf(selector.select(serviceNodes));
+        for (int i = 1; i <= 6; i++) {
+            Assertions.assertEquals(serviceNodes.get((first + i) % 3), selector.select(serviceNodes));
+        }
+    }
+
+    @Test
+    void testShrinkingListStaysInRange() {
+        val selector = new StripedRoundRobinServiceNodeSelector<TestNodeData>();
+        val serviceNodes = nodes(5);
+        for (int i = 0; i < 7; i++) {
+            selector.select(serviceNodes);
+        }
+        val shrunk = serviceNodes.subList(0, 2);
+        val seen = new HashMap<String, Integer>();
+        for (int i = 0; i < 4; i++) {
+            seen.merge(selector.select(shrunk).getHost(), 1, Integer::sum);
+        }
+        Assertions.assertEquals(Map.of("localhost-0", 2, "localhost-1", 2), seen);
+    }
+
+    @Test
+    void testDistributionAcrossThreadsIsUniform() throws InterruptedException {
+        val selector = new StripedRoundRobinServiceNodeSelector<TestNodeData>();
+        val serviceNodes = nodes(4);
+        val counts = new ConcurrentHashMap<String, AtomicInteger>();
+        val executorService = Executors.newFixedThreadPool(8);
+        try {
+            IntStream.range(0, 8)
+                    .forEach(t -> executorService.submit(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            counts.computeIfAbsent(selector.select(serviceNodes).getHost(), h -> new AtomicInteger())
+                                    .incrementAndGet();
+                        }
+                    }));
+        }
+        finally {
+            executorService.shutdown();
+            Assertions.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        //Every thread does whole rounds over the list, so each node gets exactly an equal share
+        Assertions.assertEquals(4, counts.size());
+        counts.values().forEach(count -> Assertions.assertEquals(20_000, count.get()));
+    }
+
+    private static List<ServiceNode<TestNodeData>> nodes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ServiceNode.<TestNodeData>builder()
+                        .host("localhost-" + i)
+                        .port(9000 + i)
+                        .nodeData(TestNodeData.builder().shardId(i).build())
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
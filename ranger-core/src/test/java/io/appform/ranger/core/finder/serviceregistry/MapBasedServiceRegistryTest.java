@@ -15,7 +15,11 @@
  */
 package io.appform.ranger.core.finder.serviceregistry;
 
+import com.google.common.collect.ImmutableList;
 import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.KeyedCriteria;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import io.appform.ranger.core.utils.RegistryTestUtils;
@@ -23,6 +27,8 @@ import lombok.val;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.function.Function;
+
 class MapBasedServiceRegistryTest {
 
     @Test
@@ -36,4 +42,92 @@ class MapBasedServiceRegistryTest {
         Assertions.assertEquals("localhost-1", nodes.get(0).getHost());
     }
 
+    @Test
+    void testIndexReturnsPrecomputedShardLists() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val index = serviceRegistry.index();
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertSame(index.matching(null), serviceRegistry.nodeList());
+        Assertions.assertSame(index.matching(RangerTestUtils.getCriteria(2)),
+                              index.matching(RangerTestUtils.getCriteria(2)));
+        Assertions.assertEquals(2, index.matching(data -> data.getShardId() > 1).size());
+        Assertions.assertTrue(index.matching(RangerTestUtils.getCriteria(4)).isEmpty());
+        Assertions.assertTrue(SnapshotNodeList.isSnapshot(index.matching(RangerTestUtils.getCriteria(2))));
+        //Merged per lookup, so nothing should be derived from it
+        Assertions.assertFalse(SnapshotNodeList.isSnapshot(index.matching(data -> data.getShardId() > 1)));
+    }
+
+    @Test
+    void testMergedShardsKeepRegistryOrder() {
+        val serviceRegistry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        serviceRegistry.updateNodes(nodes(1000L, 2, 1, 3, 2, 1));
+        val merged = serviceRegistry.index().matching(data -> data.getShardId() < 3);
+        Assertions.assertEquals(4, merged.size());
+        Assertions.assertEquals(ImmutableList.of(2, 1, 2, 1),
+                                merged.stream().map(node -> node.getNodeData().getShardId()).toList());
+    }
+
+    @Test
+    void testKeyedCriteriaServedFromIndex() {
+        final Function<TestNodeData, Boolean> evenShard = data -> data.getShardId() % 2 == 0;
+        val serviceRegistry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service, evenShard);
+        serviceRegistry.updateNodes(ImmutableList.of(
+                ServiceNode.<TestNodeData>builder().host("localhost-1").port(9000).nodeData(TestNodeData.builder().shardId(1).build()).build(),
+                ServiceNode.<TestNodeData>builder().host("localhost-2").port(9001).nodeData(TestNodeData.builder().shardId(2).build()).build(),
+                ServiceNode.<TestNodeData>builder().host("localhost-4").port(9002).nodeData(TestNodeData.builder().shardId(4).build()).build()));
+        val shardSelector = new MatchingShardSelector<TestNodeData>();
+        val evenNodes = shardSelector.nodes(KeyedCriteria.of(evenShard, true), serviceRegistry);
+        Assertions.assertEquals(2, evenNodes.size());
+        Assertions.assertSame(evenNodes, shardSelector.nodes(KeyedCriteria.of(evenShard, true), serviceRegistry));
+        //A different extractor instance falls back to predicate evaluation
+        final Function<TestNodeData, Boolean> otherEvenShard = data -> data.getShardId() % 2 == 0;
+        Assertions.assertEquals(1, shardSelector.nodes(KeyedCriteria.of(otherEvenShard, false), serviceRegistry).size());
+    }
+
+    @Test
+    void testUnchangedNodesOnlyRefreshTimestamps() {
+        val serviceRegistry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        Assertions.assertTrue(serviceRegistry.updateNodes(nodes(1000L, 1, 2)));
+        val index = serviceRegistry.index();
+        val handedOut = serviceRegistry.nodeList();
+        val generation = serviceRegistry.getGeneration();
+        val lastUpdate = serviceRegistry.getLastUpdate();
+
+        //Same content in a different order, with newer timestamps
+        Assertions.assertFalse(serviceRegistry.updateNodes(nodes(2000L, 1, 2).reverse()));
+        Assertions.assertEquals(generation, serviceRegistry.getGeneration());
+        Assertions.assertNotEquals(lastUpdate, serviceRegistry.getLastUpdate());
+        serviceRegistry.nodeList().forEach(node -> Assertions.assertEquals(2000L, node.getLastUpdatedTimeStamp()));
+        //Registry order and shard grouping are kept, nodes handed out earlier are left as they were
+        Assertions.assertEquals("localhost-1", serviceRegistry.nodeList().get(0).getHost());
+        Assertions.assertEquals(2000L, serviceRegistry.index()
+                .matching(RangerTestUtils.getCriteria(2)).get(0).getLastUpdatedTimeStamp());
+        Assertions.assertEquals(2000L, serviceRegistry.nodes().values().iterator().next().getLastUpdatedTimeStamp());
+        handedOut.forEach(node -> Assertions.assertEquals(1000L, node.getLastUpdatedTimeStamp()));
+        Assertions.assertEquals(1000L, index.matching(RangerTestUtils.getCriteria(2)).get(0).getLastUpdatedTimeStamp());
+
+        //Healthy since time feeds into weights, so a change to it is a change to the list
+        val rejoined = nodes(2500L, 1, 2);
+        rejoined.get(0).setHealthySinceTimeStamp(2500L);
+        Assertions.assertTrue(serviceRegistry.updateNodes(rejoined));
+        Assertions.assertEquals(generation + 1, serviceRegistry.getGeneration());
+
+        Assertions.assertTrue(serviceRegistry.updateNodes(nodes(3000L, 1, 3)));
+        Assertions.assertNotSame(index, serviceRegistry.index());
+        Assertions.assertEquals(generation + 2, serviceRegistry.getGeneration());
+        Assertions.assertEquals(1, serviceRegistry.index().matching(RangerTestUtils.getCriteria(3)).size());
+    }
+
+    private static ImmutableList<ServiceNode<TestNodeData>> nodes(long timestamp, int... shardIds) {
+        val nodes = ImmutableList.<ServiceNode<TestNodeData>>builder();
+        for (int shardId : shardIds) {
+            nodes.add(ServiceNode.<TestNodeData>builder()
+                              .host("localhost-" + shardId)
+                              .port(9000)
+                              .nodeData(TestNodeData.builder().shardId(shardId).build())
+                              .lastUpdatedTimeStamp(timestamp)
+                              .build());
+        }
+        return nodes.build();
+    }
 }
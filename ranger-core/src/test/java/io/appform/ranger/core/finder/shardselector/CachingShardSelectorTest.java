@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.collect.ImmutableList;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.model.NamedCriteria;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CachingShardSelectorTest {
+
+    @Test
+    void testNamedCriteriaResultsAreCachedPerUpdate() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new CachingShardSelector<TestNodeData, MapBasedServiceRegistry<TestNodeData>>(
+                new MatchingShardSelector<>());
+        val criteria = NamedCriteria.of("shard-1", RangerTestUtils.getCriteria(1));
+
+        val nodes = shardSelector.nodes(criteria, serviceRegistry);
+        Assertions.assertEquals("localhost-1", nodes.get(0).getHost());
+        Assertions.assertSame(nodes,
+                              shardSelector.nodes(NamedCriteria.of("shard-1", RangerTestUtils.getCriteria(1)),
+                                                  serviceRegistry));
+        Assertions.assertEquals(new CriteriaCacheStats(1, 1, 0), shardSelector.getStats());
+
+        serviceRegistry.updateNodes(ImmutableList.of(
+                ServiceNode.<TestNodeData>builder().host("localhost-4").port(9000).nodeData(TestNodeData.builder().shardId(1).build()).build()));
+        val updatedNodes = shardSelector.nodes(criteria, serviceRegistry);
+        Assertions.assertEquals("localhost-4", updatedNodes.get(0).getHost());
+        Assertions.assertEquals(new CriteriaCacheStats(1, 2, 1), shardSelector.getStats());
+
+        //Same nodes with a newer timestamp
+        serviceRegistry.updateNodes(ImmutableList.of(
+                ServiceNode.<TestNodeData>builder().host("localhost-4").port(9000).nodeData(TestNodeData.builder().shardId(1).build())
+                        .lastUpdatedTimeStamp(1000L).build()));
+        Assertions.assertEquals(1000L, shardSelector.nodes(criteria, serviceRegistry).get(0).getLastUpdatedTimeStamp());
+        Assertions.assertEquals(new CriteriaCacheStats(1, 3, 2), shardSelector.getStats());
+    }
+
+    @Test
+    void testRecreatedRegistryDoesNotSeeOldResults() {
+        val shardSelector = new CachingShardSelector<TestNodeData, MapBasedServiceRegistry<TestNodeData>>(
+                new MatchingShardSelector<>());
+        val criteria = NamedCriteria.of("shard-1", RangerTestUtils.getCriteria(1));
+        Assertions.assertEquals("localhost-1",
+                                shardSelector.nodes(criteria, RegistryTestUtils.getServiceRegistry()).get(0).getHost());
+
+        //Same service and the same generation, but a different node list
+        val recreated = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        recreated.updateNodes(ImmutableList.of(
+                ServiceNode.<TestNodeData>builder().host("localhost-4").port(9000).nodeData(TestNodeData.builder().shardId(1).build()).build()));
+        Assertions.assertEquals("localhost-4", shardSelector.nodes(criteria, recreated).get(0).getHost());
+    }
+
+    @Test
+    void testPlainCriteriaIsNotCached() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new CachingShardSelector<TestNodeData, MapBasedServiceRegistry<TestNodeData>>(
+                new MatchingShardSelector<>());
+        Assertions.assertEquals(1, shardSelector.nodes(RangerTestUtils.getCriteria(2), serviceRegistry).size());
+        Assertions.assertEquals(3, shardSelector.nodes(null, serviceRegistry).size());
+        Assertions.assertEquals(new CriteriaCacheStats(0, 0, 0), shardSelector.getStats());
+    }
+}
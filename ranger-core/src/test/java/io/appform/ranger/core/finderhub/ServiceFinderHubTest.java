@@ -30,16 +30,21 @@ import io.appform.ranger.core.model.*;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import lombok.val;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 class ServiceFinderHubTest {
 
@@ -111,6 +116,156 @@ class ServiceFinderHubTest {
     }
 
 
+    @Test
+    void testDegradedStart() {
+        val service = new Service("NS", "SERVICE");
+        val degradedHub = new ServiceFinderHub<>(new DynamicDataSource(Lists.newArrayList(service)),
+                service1 ->  new TestServiceFinderBuilder()
+                        .withNamespace(service1.getNamespace())
+                        .withServiceName(service1.getServiceName())
+                        .withDeserializer(new Deserializer<TestNodeData>() {})
+                        .withSleepDuration(3)
+                        .build(), 1_000, 1_000, Set.of(), null, true);
+        try {
+            degradedHub.start();
+            Assertions.assertEquals(Map.of(service, false), degradedHub.readinessReport());
+            Assertions.assertTrue(degradedHub.finder(service).isEmpty());
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(10))
+                    .until(() -> degradedHub.readinessReport().get(service));
+            Assertions.assertTrue(degradedHub.finder(service).isPresent());
+        }
+        finally {
+            degradedHub.stop();
+        }
+    }
+
+    @Test
+    void testFinderPublishedWithoutWaitingForSlowerServices() {
+        val fastService = new Service("NS", "FAST_SERVICE");
+        val slowService = new Service("NS", "SLOW_SERVICE");
+        val hub = new ServiceFinderHub<>(new DynamicDataSource(Lists.newArrayList(fastService, slowService)),
+                service ->  new TestServiceFinderBuilder()
+                        .withNamespace(service.getNamespace())
+                        .withServiceName(service.getServiceName())
+                        .withDeserializer(new Deserializer<TestNodeData>() {})
+                        .withSleepDuration(service.equals(slowService) ? 3 : 0)
+                        .build(), 1_000, 1_000, Set.of(), null, true);
+        try {
+            hub.start();
+            Assertions.assertEquals(Map.of(fastService, true, slowService, false), hub.readinessReport());
+            Assertions.assertTrue(hub.finder(fastService).isPresent());
+            Assertions.assertTrue(hub.finder(slowService).isEmpty());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testRemovedServiceIsDroppedFromReadiness() {
+        val service = new Service("NS", "SERVICE");
+        val otherService = new Service("NS", "OTHER_SERVICE");
+        val services = ConcurrentHashMap.<Service>newKeySet();
+        services.add(service);
+        services.add(otherService);
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                service1 -> new TestServiceFinderBuilder()
+                        .withNamespace(service1.getNamespace())
+                        .withServiceName(service1.getServiceName())
+                        .withDeserializer(new Deserializer<TestNodeData>() {})
+                        .build());
+        try {
+            hub.start();
+            val oldFinder = hub.finder(service).orElseThrow();
+
+            services.remove(service);
+            hub.updateAvailable();
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(10))
+                    .until(() -> hub.finder(service).isEmpty());
+            Assertions.assertFalse(hub.readinessReport().containsKey(service));
+
+            services.add(service);
+            hub.updateAvailable();
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(10))
+                    .until(() -> hub.readinessReport().getOrDefault(service, false));
+            Assertions.assertNotSame(oldFinder, hub.finder(service).orElseThrow());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testWaitersAreReleasedWhenServiceIsRemoved() {
+        val service = new Service("NS", "SERVICE");
+        val otherService = new Service("NS", "OTHER_SERVICE");
+        val services = ConcurrentHashMap.<Service>newKeySet();
+        services.add(service);
+        services.add(otherService);
+        val hub = new ServiceFinderHub<>(new ServiceDataSource() {
+            @Override
+            public Collection<Service> services() {
+                return services;
+            }
+
+            @Override
+            public void add(Service service) {
+                // No-op: The service is already known
+            }
+
+            @Override
+            public void start() {
+                // No-op: Nothing to start for test
+            }
+
+            @Override
+            public void stop() {
+                // No-op: Nothing to stop for test
+            }
+        },
+                service1 -> new TestServiceFinderBuilder()
+                        .withNamespace(service1.getNamespace())
+                        .withServiceName(service1.getServiceName())
+                        .withDeserializer(new Deserializer<TestNodeData>() {})
+                        .withSleepDuration(service1.equals(service) ? 3 : 0)
+                        .build(), 60_000, 1_000, Set.of(), null, true);
+        try {
+            hub.start();
+            val waiter = hub.buildFinder(service);
+
+            services.remove(service);
+            hub.updateAvailable();
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(15))
+                    .until(waiter::isDone);
+            val exception = Assertions.assertThrows(ExecutionException.class, waiter::get);
+            Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testFinderStartIsBoundedWhenNoNodeListArrives() {
+        val finderBuilder = new TestServiceFinderBuilder()
+                .withNamespace("NS")
+                .withServiceName("SERVICE")
+                .withDeserializer(new Deserializer<TestNodeData>() {})
+                .withInitialUpdateTimeoutMs(1_000)
+                .withDataSource(new TestServiceFinderBuilder.TestNodeDataSource() {
+                    @Override
+                    public Optional<List<ServiceNode<TestNodeData>>> refresh(Deserializer<TestNodeData> deserializer) {
+                        return Optional.empty();
+                    }
+                });
+        val exception = Assertions.assertThrows(IllegalStateException.class, finderBuilder::build);
+        Assertions.assertTrue(exception.getMessage().contains("No node list received for service: SERVICE"));
+    }
+
     @Test
     void testDynamicServiceAdditionWithNonDynamicDataSource() {
         val serviceFinderHub = new ServiceFinderHub<>(new StaticDataSource(new HashSet<>()), service -> new TestServiceFinderBuilder()
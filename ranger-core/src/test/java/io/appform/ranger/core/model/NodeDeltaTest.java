@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class NodeDeltaTest {
+
+    @Test
+    void testSnapshotReplacesNodes() {
+        val snapshot = NodeDelta.snapshot("v1", List.of(node("host2", 2, 100L)));
+        val nodes = snapshot.applyTo(List.of(node("host1", 1, 100L))).orElseThrow();
+        Assertions.assertEquals(1, nodes.size());
+        Assertions.assertEquals("host2", nodes.get(0).getHost());
+    }
+
+    @Test
+    void testDeltaIsMergedIntoCurrentNodes() {
+        val current = List.of(node("host1", 1, 100L), node("host2", 2, 100L), node("host3", 3, 100L));
+        val delta = NodeDelta.<TestNodeData>builder()
+                .version("v2")
+                .upserts(List.of(node("host2", 20, 200L), node("host4", 4, 200L)))
+                .removed(Set.of("host1:8080"))
+                .heartbeats(Map.of("host3:8080", 300L))
+                .build();
+        val nodes = delta.applyTo(current).orElseThrow();
+        Assertions.assertEquals(3, nodes.size());
+        Assertions.assertEquals(20, nodes.get(0).getNodeData().getShardId());
+        Assertions.assertEquals(300L, nodes.get(1).getLastUpdatedTimeStamp());
+        Assertions.assertEquals(100L, current.get(2).getLastUpdatedTimeStamp());
+        Assertions.assertEquals("host4", nodes.get(2).getHost());
+    }
+
+    @Test
+    void testHeartbeatForUnknownNodeNeedsSnapshot() {
+        val delta = NodeDelta.<TestNodeData>builder()
+                .version("v2")
+                .heartbeats(Map.of("host5:8080", 300L))
+                .build();
+        Assertions.assertTrue(delta.applyTo(List.of(node("host1", 1, 100L))).isEmpty());
+    }
+
+    private static ServiceNode<TestNodeData> node(String host, int shardId, long timestamp) {
+        return ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(shardId).build())
+                .lastUpdatedTimeStamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class SnapshotNodeListTest {
+
+    @Test
+    void testDataIsDerivedOncePerSnapshotAndOwner() {
+        val builds = new AtomicInteger();
+        final Function<List<ServiceNode<TestNodeData>>, Integer> builder = nodes -> builds.incrementAndGet();
+        val snapshot = SnapshotNodeList.of(nodes(2));
+        val owner = new Object();
+
+        Assertions.assertEquals(1, SnapshotNodeList.derived(snapshot, owner, builder));
+        Assertions.assertEquals(1, SnapshotNodeList.derived(snapshot, owner, builder));
+        Assertions.assertEquals(2, SnapshotNodeList.derived(snapshot, new Object(), builder));
+        Assertions.assertEquals(3, SnapshotNodeList.rederived(snapshot, owner, builder));
+        Assertions.assertEquals(3, SnapshotNodeList.derived(snapshot, owner, builder));
+        //A new snapshot of the same nodes starts afresh
+        Assertions.assertEquals(4, SnapshotNodeList.derived(SnapshotNodeList.of(nodes(2)), owner, builder));
+    }
+
+    @Test
+    void testDataIsNotKeptForOtherLists() {
+        val builds = new AtomicInteger();
+        final Function<List<ServiceNode<TestNodeData>>, Integer> builder = nodes -> builds.incrementAndGet();
+        val nodes = nodes(2);
+        val owner = new Object();
+
+        Assertions.assertEquals(1, SnapshotNodeList.derived(nodes, owner, builder));
+        Assertions.assertEquals(2, SnapshotNodeList.derived(nodes, owner, builder));
+        Assertions.assertEquals(3, SnapshotNodeList.derived(SnapshotNodeList.empty(), owner, builder));
+        Assertions.assertEquals(4, SnapshotNodeList.derived(SnapshotNodeList.empty(), owner, builder));
+    }
+
+    @Test
+    void testSnapshotsAreNotCopiedAgain() {
+        val nodes = nodes(3);
+        val snapshot = SnapshotNodeList.of(nodes);
+        Assertions.assertEquals(nodes, snapshot);
+        Assertions.assertSame(snapshot, SnapshotNodeList.of(snapshot));
+        Assertions.assertTrue(SnapshotNodeList.isSnapshot(snapshot));
+        Assertions.assertFalse(SnapshotNodeList.isSnapshot(nodes));
+        nodes.clear();
+        Assertions.assertEquals(3, snapshot.size());
+    }
+
+    private static List<ServiceNode<TestNodeData>> nodes(int count) {
+        val nodes = new ArrayList<ServiceNode<TestNodeData>>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(ServiceNode.<TestNodeData>builder()
+                              .host("localhost-" + i)
+                              .port(9000)
+                              .nodeData(TestNodeData.builder().shardId(i).build())
+                              .build());
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.signals;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+class RefreshIntervalTest {
+
+    @Test
+    void testFixedIntervalHasNoJitterOrBackoff() {
+        val interval = RefreshInterval.fixed(1000);
+        Assertions.assertEquals(0, interval.initialDelayMillis());
+        IntStream.range(0, 100).forEach(i -> interval.onRefresh(false));
+        Assertions.assertEquals(1000, interval.nextDelayMillis());
+    }
+
+    @Test
+    void testJitterAndInitialDelayStayInBounds() {
+        val interval = RefreshIntervalPolicy.builder()
+                .jitterFraction(0.2)
+                .randomInitialDelay(true)
+                .build()
+                .create(1000);
+        for (int i = 0; i < 1000; i++) {
+            val initialDelay = interval.initialDelayMillis();
+            Assertions.assertTrue(initialDelay >= 0 && initialDelay < 1000);
+            val delay = interval.nextDelayMillis();
+            Assertions.assertTrue(delay >= 800 && delay <= 1200);
+        }
+    }
+
+    @Test
+    void testBackoffOnUnchangedAndSnapBackOnChange() {
+        val interval = RefreshIntervalPolicy.builder()
+                .unchangedRefreshesBeforeBackoff(3)
+                .maxBackoffMultiplier(4)
+                .build()
+                .create(1000);
+        interval.onRefresh(false);
+        interval.onRefresh(false);
+        Assertions.assertEquals(1000, interval.currentIntervalMillis());
+        interval.onRefresh(false);
+        Assertions.assertEquals(2000, interval.currentIntervalMillis());
+        IntStream.range(0, 3).forEach(i -> interval.onRefresh(false));
+        Assertions.assertEquals(4000, interval.currentIntervalMillis());
+        IntStream.range(0, 3).forEach(i -> interval.onRefresh(false));
+        Assertions.assertEquals(4000, interval.currentIntervalMillis());
+        interval.onRefresh(true);
+        Assertions.assertEquals(1000, interval.currentIntervalMillis());
+        Assertions.assertEquals(1000, interval.nextDelayMillis());
+    }
+
+    @Test
+    void testInvalidJitterIsRejected() {
+        val builder = RefreshIntervalPolicy.builder().jitterFraction(1.5);
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+    }
+}
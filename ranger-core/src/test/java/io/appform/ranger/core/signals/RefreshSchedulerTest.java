@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.signals;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+
+class RefreshSchedulerTest {
+
+    private final RefreshScheduler scheduler = new RefreshScheduler("test-refresh", 2);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testManyTasksShareBoundedThreads() {
+        val threads = ConcurrentHashMap.<String>newKeySet();
+        val runs = new AtomicInteger();
+        val tasks = IntStream.range(0, 500)
+                .mapToObj(i -> scheduler.scheduleWithFixedDelay("task-" + i, () -> {
+                    threads.add(Thread.currentThread().getName());
+                    runs.incrementAndGet();
+                }, 0, () -> 10))
+                .toList();
+        await().atMost(Duration.ofSeconds(10)).until(() -> runs.get() >= 1500);
+        tasks.forEach(RefreshScheduler.ScheduledTask::cancel);
+        Assertions.assertTrue(threads.size() <= 2, "Ran on: " + threads);
+    }
+
+    @Test
+    void testCancelledTaskStopsRunning() throws InterruptedException {
+        val runs = new AtomicInteger();
+        val task = scheduler.scheduleWithFixedDelay("task", runs::incrementAndGet, 0, () -> 5);
+        await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() >= 3);
+        task.cancel();
+        //Allow an in flight run to finish
+        Thread.sleep(50);
+        val runsAfterCancel = runs.get();
+        Thread.sleep(100);
+        Assertions.assertEquals(runsAfterCancel, runs.get());
+    }
+
+    @Test
+    void testTaskDoesNotOverlapItself() {
+        val concurrent = new AtomicInteger();
+        val overlaps = new AtomicInteger();
+        val runs = new AtomicInteger();
+        val task = scheduler.scheduleWithFixedDelay("task", () -> {
+            if (concurrent.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            try {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            runs.incrementAndGet();
+        }, 0, () -> 0);
+        await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() >= 10);
+        task.cancel();
+        Assertions.assertEquals(0, overlaps.get());
+    }
+}
@@ -17,27 +17,33 @@
 package io.appform.ranger.discovery.bundle.selectors;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import io.appform.ranger.common.server.ShardInfo;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.model.SnapshotNodeList;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
- *
+ * Picks nodes from the configured environment, falling back to its parents (x.y.z -> x.y -> x) when none are found.
+ * The fallback chain is resolved once, and the nodes per environment are indexed once per registry refresh, so that
+ * a lookup without criteria is a single field read. Nodes returned for the effective environment are a
+ * {@link SnapshotNodeList}, so selectors can keep data derived from them until the next refresh.
  */
 @Slf4j
 public class HierarchicalEnvironmentAwareShardSelector implements ShardSelector<ShardInfo, MapBasedServiceRegistry<ShardInfo>> {
     private static final String DEFAULT_SEPARATOR = ".";
-    private static final Predicate<ShardInfo> DEFAULT_PREDICATE = shardInfo -> true;
 
     private final String environment;
-    private final String separator;
+    private final List<String> fallbackChain;
+    //Index of the latest node multimap seen, the registry replaces the multimap instance on every refresh
+    private volatile EnvironmentIndex current;
 
     public HierarchicalEnvironmentAwareShardSelector(String environment) {
         this(environment, DEFAULT_SEPARATOR);
@@ -45,33 +51,89 @@ public class HierarchicalEnvironmentAwareShardSelector implements ShardSelector<
 
     public HierarchicalEnvironmentAwareShardSelector(String environment, String separator) {
         this.environment = environment;
-        this.separator = separator;
+        val chain = new ArrayList<String>();
+        new IterableEnvironment(environment, separator).forEach(env -> chain.add(env.environment));
+        this.fallbackChain = List.copyOf(chain);
     }
 
     @Override
     public List<ServiceNode<ShardInfo>> nodes(
             Predicate<ShardInfo> criteria, MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
         val serviceNodes = serviceRegistry.nodes();
+        var index = current;
+        if (null == index || index.source != serviceNodes) {
+            index = buildIndex(serviceNodes);
+            current = index;
+        }
         val serviceName = serviceRegistry.getService().getServiceName();
-        val evalPredicate = null != criteria
-                            ? criteria
-                            : DEFAULT_PREDICATE;
-        for (val env : new IterableEnvironment(environment, separator)) {
-            val eligibleNodes = serviceNodes.entries()
-                    .stream()
-                    .filter(e -> e.getKey().getEnvironment().equals(env.environment) && evalPredicate.test(e.getKey()))
-                    .map(Map.Entry::getValue)
-                    .toList();
+        if (null == criteria) {
+            if (null == index.effectiveEnvironment) {
+                log.warn("No valid nodes could be found for environment: {}", environment);
+                return Collections.emptyList();
+            }
+            log.debug("Effective environment for discovery of {} is {}", serviceName, index.effectiveEnvironment);
+            return index.effectiveNodes;
+        }
+        for (val env : fallbackChain) {
+            val eligibleNodes = index.matching(env, criteria);
             if (!eligibleNodes.isEmpty()) {
-                log.debug("Effective environment for discovery of {} is {}", serviceName, env.environment);
+                log.debug("Effective environment for discovery of {} is {}", serviceName, env);
                 return eligibleNodes;
             }
-            log.trace("No nodes found for environment: {}", env.environment);
+            log.trace("No nodes found for environment: {}", env);
         }
         log.warn("No valid nodes could be found for environment: {}", environment);
         return Collections.emptyList();
     }
 
+    private EnvironmentIndex buildIndex(ListMultimap<ShardInfo, ServiceNode<ShardInfo>> serviceNodes) {
+        val builders = new HashMap<String, ImmutableListMultimap.Builder<ShardInfo, ServiceNode<ShardInfo>>>();
+        serviceNodes.entries()
+                .forEach(entry -> builders.computeIfAbsent(entry.getKey().getEnvironment(),
+                                                           env -> ImmutableListMultimap.builder())
+                        .put(entry.getKey(), entry.getValue()));
+        val nodesByEnvironment = new HashMap<String, ImmutableListMultimap<ShardInfo, ServiceNode<ShardInfo>>>();
+        builders.forEach((env, builder) -> nodesByEnvironment.put(env, builder.build()));
+        for (val env : fallbackChain) {
+            val nodes = nodesByEnvironment.get(env);
+            if (null != nodes && !nodes.isEmpty()) {
+                return new EnvironmentIndex(serviceNodes, nodesByEnvironment, env,
+                                            SnapshotNodeList.of(nodes.values().asList()));
+            }
+        }
+        return new EnvironmentIndex(serviceNodes, nodesByEnvironment, null, SnapshotNodeList.empty());
+    }
+
+    private static final class EnvironmentIndex {
+        private final ListMultimap<ShardInfo, ServiceNode<ShardInfo>> source;
+        private final Map<String, ImmutableListMultimap<ShardInfo, ServiceNode<ShardInfo>>> nodesByEnvironment;
+        private final String effectiveEnvironment;
+        private final List<ServiceNode<ShardInfo>> effectiveNodes;
+
+        private EnvironmentIndex(
+                ListMultimap<ShardInfo, ServiceNode<ShardInfo>> source,
+                Map<String, ImmutableListMultimap<ShardInfo, ServiceNode<ShardInfo>>> nodesByEnvironment,
+                String effectiveEnvironment,
+                List<ServiceNode<ShardInfo>> effectiveNodes) {
+            this.source = source;
+            this.nodesByEnvironment = nodesByEnvironment;
+            this.effectiveEnvironment = effectiveEnvironment;
+            this.effectiveNodes = effectiveNodes;
+        }
+
+        private List<ServiceNode<ShardInfo>> matching(String env, Predicate<ShardInfo> criteria) {
+            val nodes = nodesByEnvironment.get(env);
+            if (null == nodes) {
+                return Collections.emptyList();
+            }
+            return nodes.entries()
+                    .stream()
+                    .filter(e -> criteria.test(e.getKey()))
+                    .map(Map.Entry::getValue)
+                    .toList();
+        }
+    }
+
     private static final class IterableEnvironment implements Iterable<IterableEnvironment> {
         private final String environment;
         private final String separator;
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.discovery.bundle.selectors;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prefers nodes in the local region. While the local region has at least {@code minLocalNodes} nodes, all traffic
+ * stays local. Below that, {@code spillFraction} of the calls go to other regions so that a small local pool is not
+ * overloaded; when no local node is left, all calls go remote. Needs the partitions built by
+ * {@link RegionAwareShardSelector}, and delegates to the wrapped selector for anything else.
+ */
+public class RegionAwareServiceNodeSelector implements ServiceNodeSelector<ShardInfo> {
+    public static final int DEFAULT_MIN_LOCAL_NODES = 2;
+    public static final double DEFAULT_SPILL_FRACTION = 0.5;
+
+    private final int minLocalNodes;
+    private final double spillFraction;
+    private final ServiceNodeSelector<ShardInfo> delegate;
+
+    public RegionAwareServiceNodeSelector() {
+        this(DEFAULT_MIN_LOCAL_NODES, DEFAULT_SPILL_FRACTION, new RandomServiceNodeSelector<>());
+    }
+
+    public RegionAwareServiceNodeSelector(
+            int minLocalNodes,
+            double spillFraction,
+            ServiceNodeSelector<ShardInfo> delegate) {
+        Preconditions.checkArgument(minLocalNodes >= 0, "Minimum local nodes can not be negative");
+        Preconditions.checkArgument(spillFraction >= 0 && spillFraction <= 1, "Spill fraction must be in [0, 1]");
+        this.minLocalNodes = minLocalNodes;
+        this.spillFraction = spillFraction;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ServiceNode<ShardInfo> select(List<ServiceNode<ShardInfo>> serviceNodes) {
+        if (!(serviceNodes instanceof RegionPartitionedNodes)) {
+            return delegate.select(serviceNodes);
+        }
+        return delegate.select(partitionFor((RegionPartitionedNodes) serviceNodes));
+    }
+
+    @Override
+    public ServiceNode<ShardInfo> select(List<ServiceNode<ShardInfo>> serviceNodes, long routingKey) {
+        if (!(serviceNodes instanceof RegionPartitionedNodes)) {
+            return delegate.select(serviceNodes, routingKey);
+        }
+        return delegate.select(partitionFor((RegionPartitionedNodes) serviceNodes), routingKey);
+    }
+
+    @Override
+    public void callStarted(ServiceNode<ShardInfo> node) {
+        delegate.callStarted(node);
+    }
+
+    @Override
+    public void reportOutcome(ServiceNode<ShardInfo> node, long latencyNanos, boolean success) {
+        delegate.reportOutcome(node, latencyNanos, success);
+    }
+
+    @SuppressWarnings("java:S2245")
+    private List<ServiceNode<ShardInfo>> partitionFor(RegionPartitionedNodes partitioned) {
+        val local = partitioned.getLocalNodes();
+        val remote = partitioned.getRemoteNodes();
+        if (local.isEmpty()) {
+            return remote;
+        }
+        if (remote.isEmpty() || local.size() >= minLocalNodes) {
+            return local;
+        }
+        return ThreadLocalRandom.current().nextDouble() < spillFraction
+               ? remote
+               : local;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.discovery.bundle.selectors;
+
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Wraps a shard selector and splits the nodes it returns into local and remote region partitions, to be used with
+ * {@link RegionAwareServiceNodeSelector}. Partitions are derived from the {@link SnapshotNodeList} returned by the
+ * wrapped selector, so partitioning happens once per refresh and not on every lookup.
+ */
+public class RegionAwareShardSelector implements ShardSelector<ShardInfo, MapBasedServiceRegistry<ShardInfo>> {
+    private final String localRegion;
+    private final ShardSelector<ShardInfo, MapBasedServiceRegistry<ShardInfo>> delegate;
+    private final Function<List<ServiceNode<ShardInfo>>, RegionPartitionedNodes> partitioner;
+
+    public RegionAwareShardSelector(String localRegion) {
+        this(localRegion, new MatchingShardSelector<>());
+    }
+
+    public RegionAwareShardSelector(
+            String localRegion,
+            ShardSelector<ShardInfo, MapBasedServiceRegistry<ShardInfo>> delegate) {
+        this.localRegion = localRegion;
+        this.delegate = delegate;
+        this.partitioner = serviceNodes -> RegionPartitionedNodes.partition(serviceNodes, localRegion);
+    }
+
+    @Override
+    public List<ServiceNode<ShardInfo>> nodes(
+            Predicate<ShardInfo> criteria, MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
+        val serviceNodes = delegate.nodes(criteria, serviceRegistry);
+        if (serviceNodes.isEmpty()) {
+            return serviceNodes;
+        }
+        return SnapshotNodeList.derived(serviceNodes, this, partitioner);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.discovery.bundle.selectors;
+
+import com.google.common.collect.ImmutableList;
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.SnapshotNodeList;
+import lombok.Getter;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Nodes eligible for a lookup, split into the ones in the local region and the rest. Derived once per
+ * {@link SnapshotNodeList} by {@link RegionAwareShardSelector}, so that {@link RegionAwareServiceNodeSelector} never partitions on the hot path.
+ * Behaves as the full list of nodes for selectors that are not region aware.
+ */
+public final class RegionPartitionedNodes extends AbstractList<ServiceNode<ShardInfo>> implements RandomAccess {
+    private final List<ServiceNode<ShardInfo>> allNodes;
+    @Getter
+    private final List<ServiceNode<ShardInfo>> localNodes;
+    @Getter
+    private final List<ServiceNode<ShardInfo>> remoteNodes;
+
+    private RegionPartitionedNodes(
+            List<ServiceNode<ShardInfo>> allNodes,
+            List<ServiceNode<ShardInfo>> localNodes,
+            List<ServiceNode<ShardInfo>> remoteNodes) {
+        this.allNodes = allNodes;
+        this.localNodes = localNodes;
+        this.remoteNodes = remoteNodes;
+    }
+
+    public static RegionPartitionedNodes partition(List<ServiceNode<ShardInfo>> serviceNodes, String localRegion) {
+        final ImmutableList.Builder<ServiceNode<ShardInfo>> local = ImmutableList.builder();
+        final ImmutableList.Builder<ServiceNode<ShardInfo>> remote = ImmutableList.builder();
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            final ServiceNode<ShardInfo> node = serviceNodes.get(i);
+            if (Objects.equals(localRegion, node.getNodeData().getRegion())) {
+                local.add(node);
+            }
+            else {
+                remote.add(node);
+            }
+        }
+        //Partitions of a snapshot are kept as long as the snapshot, so they are snapshots as well
+        if (SnapshotNodeList.isSnapshot(serviceNodes)) {
+            return new RegionPartitionedNodes(serviceNodes,
+                                              SnapshotNodeList.of(local.build()),
+                                              SnapshotNodeList.of(remote.build()));
+        }
+        return new RegionPartitionedNodes(serviceNodes, local.build(), remote.build());
+    }
+
+    @Override
+    public ServiceNode<ShardInfo> get(int index) {
+        return allNodes.get(index);
+    }
+
+    @Override
+    public int size() {
+        return allNodes.size();
+    }
+}
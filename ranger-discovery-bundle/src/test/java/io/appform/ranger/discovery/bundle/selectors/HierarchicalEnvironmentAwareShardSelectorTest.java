@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.doReturn;
 
 /**
@@ -209,4 +210,28 @@ class HierarchicalEnvironmentAwareShardSelectorTest {
         assertEquals(9999, nodes.get(0).getPort());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLookupServedFromIndexUntilRefresh() {
+        val registry = new MapBasedServiceRegistry<ShardInfo>(
+                Service.builder().namespace("test").serviceName("test-service").build());
+        registry.updateNodes(List.of(
+                new ServiceNode<>("host1", 8888, ShardInfo.builder().environment("x").build(),
+                                  HealthcheckStatus.healthy, System.currentTimeMillis(), "http")));
+        val selector = selector("x.y");
+        val nodes = selector.nodes(null, registry);
+        assertEquals(1, nodes.size());
+        assertSame(nodes, selector.nodes(null, registry));
+
+        registry.updateNodes(List.of(
+                new ServiceNode<>("host1", 8888, ShardInfo.builder().environment("x").build(),
+                                  HealthcheckStatus.healthy, System.currentTimeMillis(), "http"),
+                new ServiceNode<>("host2", 8888, ShardInfo.builder().environment("x.y").build(),
+                                  HealthcheckStatus.healthy, System.currentTimeMillis(), "http")));
+        val refreshed = selector.nodes(null, registry);
+        assertEquals(1, refreshed.size());
+        assertEquals("host2", refreshed.get(0).getHost());
+        assertEquals("host1", selector.nodes(shardInfo -> "x".equals(shardInfo.getEnvironment()), registry)
+                .get(0).getHost());
+    }
+}
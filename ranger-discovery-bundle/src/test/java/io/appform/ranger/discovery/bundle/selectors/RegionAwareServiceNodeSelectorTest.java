@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.discovery.bundle.selectors;
+
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+class RegionAwareServiceNodeSelectorTest {
+
+    private final Service service = Service.builder().namespace("test").serviceName("test-service").build();
+
+    @Test
+    void testLocalNodesPreferred() {
+        val registry = registry(List.of("r1", "r1", "r2", "r2"));
+        val shardSelector = new RegionAwareShardSelector("r1");
+        val nodeSelector = new RegionAwareServiceNodeSelector();
+        val nodes = shardSelector.nodes(null, registry);
+        Assertions.assertEquals(4, nodes.size());
+        Assertions.assertSame(nodes, shardSelector.nodes(null, registry));
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals("r1", nodeSelector.select(nodes).getNodeData().getRegion());
+        }
+    }
+
+    @Test
+    void testSpillWhenLocalPoolIsSmall() {
+        val registry = registry(List.of("r1", "r2", "r2", "r2"));
+        val shardSelector = new RegionAwareShardSelector("r1");
+        val nodeSelector = new RegionAwareServiceNodeSelector(2, 0.25, new RandomServiceNodeSelector<>());
+        val nodes = shardSelector.nodes(null, registry);
+        val counts = new HashMap<String, Integer>();
+        val iterations = 100_000;
+        for (int i = 0; i < iterations; i++) {
+            counts.merge(nodeSelector.select(nodes).getNodeData().getRegion(), 1, Integer::sum);
+        }
+        Assertions.assertEquals(0.25, counts.get("r2") / (double) iterations, 0.01);
+    }
+
+    @Test
+    void testAllRemoteWhenNoLocalNodes() {
+        val registry = registry(List.of("r2", "r3"));
+        val shardSelector = new RegionAwareShardSelector("r1");
+        val nodeSelector = new RegionAwareServiceNodeSelector();
+        val nodes = shardSelector.nodes(null, registry);
+        Assertions.assertNotEquals("r1", nodeSelector.select(nodes).getNodeData().getRegion());
+        Assertions.assertTrue(shardSelector.nodes(shardInfo -> false, registry).isEmpty());
+    }
+
+    @Test
+    void testPartitionsRebuiltOnRefresh() {
+        val registry = registry(List.of("r1", "r2"));
+        val shardSelector = new RegionAwareShardSelector("r1");
+        val before = (RegionPartitionedNodes) shardSelector.nodes(null, registry);
+        registry.updateNodes(nodes(List.of("r1", "r1", "r2")));
+        val after = (RegionPartitionedNodes) shardSelector.nodes(null, registry);
+        Assertions.assertEquals(1, before.getLocalNodes().size());
+        Assertions.assertEquals(2, after.getLocalNodes().size());
+    }
+
+    private MapBasedServiceRegistry<ShardInfo> registry(List<String> regions) {
+        val registry = new MapBasedServiceRegistry<ShardInfo>(service);
+        registry.updateNodes(nodes(regions));
+        return registry;
+    }
+
+    private static List<ServiceNode<ShardInfo>> nodes(List<String> regions) {
+        val nodes = new ArrayList<ServiceNode<ShardInfo>>();
+        for (int i = 0; i < regions.size(); i++) {
+            nodes.add(ServiceNode.<ShardInfo>builder()
+                              .host("host-" + i)
+                              .port(8080)
+                              .nodeData(ShardInfo.builder().environment("prod").region(regions.get(i)).build())
+                              .build());
+        }
+        return nodes;
+    }
+}
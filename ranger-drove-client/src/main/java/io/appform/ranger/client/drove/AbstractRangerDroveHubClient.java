@@ -54,8 +54,10 @@ public abstract class AbstractRangerDroveHubClient<T, R extends ServiceRegistry<
         return new DroveServiceFinderHubBuilder<T, R>()
                 .withServiceDataSource(getServiceDataSource())
                 .withServiceFinderFactory(getFinderFactory())
+                .withRefreshScheduler(getRefreshScheduler())
                 .withRefreshFrequencyMs(getNodeRefreshTimeMs())
                 .withHubStartTimeout(getHubStartTimeoutMs())
+                .withStartDegraded(isStartDegraded())
                 .withServiceRefreshTimeout(getServiceRefreshTimeoutMs())
                 .withExcludedServices(getExcludedServices())
                 .build();
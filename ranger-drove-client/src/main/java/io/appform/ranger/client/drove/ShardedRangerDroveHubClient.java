@@ -42,6 +42,9 @@ public class ShardedRangerDroveHubClient<T>
                 .deserializer(getDeserializer())
                 .shardSelector(shardSelector)
                 .nodeSelector(this.getNodeSelector())
+                .refreshScheduler(getRefreshScheduler())
+                .refreshIntervalPolicy(getRefreshIntervalPolicy())
+                .initialUpdateTimeoutMs(getServiceRefreshTimeoutMs())
                 .mapper(getMapper())
                 .build();
     }
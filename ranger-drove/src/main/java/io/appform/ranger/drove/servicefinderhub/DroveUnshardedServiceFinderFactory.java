@@ -22,6 +22,8 @@ import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.drove.config.DroveUpstreamConfig;
 import io.appform.ranger.drove.serde.DroveResponseDataDeserializer;
 import io.appform.ranger.drove.servicefinder.DroveUnshardedServiceFinderBuilider;
@@ -37,6 +39,9 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
     private final DroveResponseDataDeserializer<T> deserializer;
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshScheduler refreshScheduler;
+    private final RefreshIntervalPolicy refreshIntervalPolicy;
+    private final long initialUpdateTimeoutMs;
     private final int nodeRefreshIntervalMs;
 
     @Builder
@@ -47,7 +52,10 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
             DroveResponseDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs)
+            int nodeRefreshIntervalMs,
+            RefreshScheduler refreshScheduler,
+            RefreshIntervalPolicy refreshIntervalPolicy,
+            long initialUpdateTimeoutMs)
     {
         this.clientConfig = droveConfig;
         this.droveCommunicator = droveCommunicator;
@@ -55,6 +63,9 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshScheduler = refreshScheduler;
+        this.refreshIntervalPolicy = refreshIntervalPolicy;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
     }
 
@@ -70,6 +81,9 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshScheduler(refreshScheduler)
+                .withRefreshIntervalPolicy(refreshIntervalPolicy)
+                .withInitialUpdateTimeoutMs(initialUpdateTimeoutMs)
                 .build();
         serviceFinder.start();
         return serviceFinder;
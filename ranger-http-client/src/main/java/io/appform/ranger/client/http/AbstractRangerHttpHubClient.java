@@ -22,17 +22,24 @@ import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.http.config.HttpClientConfig;
+import io.appform.ranger.http.serde.HTTPBatchResponseDataDeserializer;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
+import io.appform.ranger.http.serde.JacksonBatchResponseDataDeserializer;
+import io.appform.ranger.http.servicefinder.HttpBatchingCommunicator;
 import io.appform.ranger.http.servicefinder.HttpCommunicator;
+import io.appform.ranger.http.servicefinder.HttpNodeWatcher;
 import io.appform.ranger.http.servicefinderhub.HttpServiceDataSource;
 import io.appform.ranger.http.servicefinderhub.HttpServiceFinderHubBuilder;
 import io.appform.ranger.http.utils.RangerHttpUtils;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Getter
@@ -45,30 +52,86 @@ public abstract class AbstractRangerHttpHubClient<T, R extends ServiceRegistry<T
 
     private final HttpCommunicator<T> httpClient;
 
+    /**
+     * Refresh node lists of all services in the hub with one batched call per refresh round instead of one call per
+     * service. Deserializers not implementing {@link HTTPBatchResponseDataDeserializer} are adapted using
+     * {@link JacksonBatchResponseDataDeserializer}.
+     */
+    private final boolean batchRefresh;
+
+    /**
+     * Refresh registries as soon as the upstream reports a change, using a single long polling watch for all
+     * services in the hub. Needs an upstream with the node watch endpoint, node lists are only polled otherwise.
+     */
+    private final boolean enableWatch;
+
+    //Created on first use, not part of the builder
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<HttpCommunicator<T>> communicator = new AtomicReference<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<HttpNodeWatcher<T>> nodeWatcher = new AtomicReference<>();
+
     @Builder.Default
     private final ServiceNodeSelector<T> nodeSelector = new RandomServiceNodeSelector<>();
 
     @Override
     protected ServiceDataSource getDefaultDataSource() {
         return new HttpServiceDataSource<>(clientConfig,
-                                           Objects.requireNonNullElseGet(getHttpClient(),
+                                           Objects.requireNonNullElseGet(communicator(),
                                                                          () -> RangerHttpUtils.httpClient(
                                                                                  clientConfig,
                                                                                  getMapper())));
     }
 
+    /**
+     * @return Communicator shared by the service data source and the finders, null if none was provided and batch
+     * refresh is not enabled
+     */
+    protected synchronized HttpCommunicator<T> communicator() {
+        if (null == communicator.get() && batchRefresh) {
+            communicator.set(new HttpBatchingCommunicator<>(
+                    Objects.requireNonNullElseGet(httpClient,
+                                                  () -> RangerHttpUtils.httpClient(clientConfig, getMapper())),
+                    getMapper(),
+                    getNodeRefreshTimeMs() / 2));
+        }
+        return Objects.requireNonNullElse(communicator.get(), httpClient);
+    }
+
     @Override
     protected ServiceFinderHub<T, R> buildHub() {
         return new HttpServiceFinderHubBuilder<T, R>()
                 .withServiceDataSource(getServiceDataSource())
                 .withServiceFinderFactory(getFinderFactory())
+                .withRefreshScheduler(getRefreshScheduler())
                 .withRefreshFrequencyMs(getNodeRefreshTimeMs())
                 .withHubStartTimeout(getHubStartTimeoutMs())
+                .withStartDegraded(isStartDegraded())
                 .withServiceRefreshTimeout(getServiceRefreshTimeoutMs())
                 .withExcludedServices(getExcludedServices())
                 .build();
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        val watcher = nodeWatcher.get();
+        if (null != watcher) {
+            watcher.close();
+        }
+    }
+
+    /**
+     * @return Watcher shared by the finders of the hub, null if not enabled
+     */
+    protected synchronized HttpNodeWatcher<T> nodeWatcher() {
+        if (null == nodeWatcher.get() && enableWatch) {
+            nodeWatcher.set(new HttpNodeWatcher<>(Objects.requireNonNullElseGet(
+                    communicator(), () -> RangerHttpUtils.httpClient(clientConfig, getMapper()))));
+        }
+        return nodeWatcher.get();
+    }
+
     @Override
     public boolean isReplicationSource() {
         return clientConfig.isReplicationSource();
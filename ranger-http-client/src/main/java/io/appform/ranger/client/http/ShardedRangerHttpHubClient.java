@@ -37,11 +37,15 @@ public class ShardedRangerHttpHubClient<T>
     protected ServiceFinderFactory<T, MapBasedServiceRegistry<T>> getFinderFactory() {
         return HttpShardedServiceFinderFactory.<T>builder()
                 .httpClientConfig(this.getClientConfig())
-                .httpClient(this.getHttpClient())
+                .httpClient(communicator())
+                .nodeWatcher(nodeWatcher())
                 .nodeRefreshIntervalMs(getNodeRefreshTimeMs())
                 .deserializer(getDeserializer())
                 .shardSelector(shardSelector)
                 .nodeSelector(this.getNodeSelector())
+                .refreshScheduler(getRefreshScheduler())
+                .refreshIntervalPolicy(getRefreshIntervalPolicy())
+                .initialUpdateTimeoutMs(getServiceRefreshTimeoutMs())
                 .mapper(getMapper())
                 .build();
     }
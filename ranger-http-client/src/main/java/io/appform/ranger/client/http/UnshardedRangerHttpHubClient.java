@@ -37,11 +37,15 @@ public class UnshardedRangerHttpHubClient<T>
     protected ServiceFinderFactory<T, ListBasedServiceRegistry<T>> getFinderFactory() {
         return HttpUnshardedServiceFinderFactory.<T>builder()
                 .httpClientConfig(this.getClientConfig())
-                .httpClient(this.getHttpClient())
+                .httpClient(communicator())
+                .nodeWatcher(nodeWatcher())
                 .nodeRefreshIntervalMs(getNodeRefreshTimeMs())
                 .deserializer(getDeserializer())
                 .shardSelector(shardSelector)
                 .nodeSelector(this.getNodeSelector())
+                .refreshScheduler(getRefreshScheduler())
+                .refreshIntervalPolicy(getRefreshIntervalPolicy())
+                .initialUpdateTimeoutMs(getServiceRefreshTimeoutMs())
                 .mapper(getMapper())
                 .build();
     }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.response.model;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Media types of responses, other than JSON, that the ranger endpoints can be asked for
+ */
+@UtilityClass
+public class RangerMediaTypes {
+    /**
+     * Binary JSON encoding of Jackson. Smaller and faster to parse than JSON, with the same data model.
+     */
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+}
@@ -18,6 +18,7 @@ package io.appform.ranger.http.common;
 import io.appform.ranger.core.model.NodeDataStoreConnector;
 import io.appform.ranger.http.config.HttpClientConfig;
 import io.appform.ranger.http.servicefinder.HttpCommunicator;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -27,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 public class HttpNodeDataStoreConnector<T> implements NodeDataStoreConnector<T> {
 
     protected final HttpClientConfig config;
+    @Getter
     protected final HttpCommunicator<T> httpCommunicator;
 
     public HttpNodeDataStoreConnector(
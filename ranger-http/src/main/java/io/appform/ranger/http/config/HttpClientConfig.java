@@ -35,4 +35,6 @@ public class HttpClientConfig {
     long operationTimeoutMs;
     long refreshIntervalMillis;
     boolean replicationSource;
+    //Ask for Smile encoded service and node lists. Upstreams that do not support it keep sending JSON.
+    boolean smileEncoding;
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.serde;
+
+import io.appform.ranger.http.model.ServiceNodesBatchResponse;
+
+/**
+ * Deserializer that can additionally read responses of the batched nodes endpoint. Provide one of these to have
+ * node lists of multiple services fetched in a single call.
+ */
+public interface HTTPBatchResponseDataDeserializer<T> extends HTTPResponseDataDeserializer<T> {
+    ServiceNodesBatchResponse<T> deserializeBatch(byte[] data);
+}
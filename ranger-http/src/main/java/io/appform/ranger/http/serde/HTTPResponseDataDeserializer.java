@@ -18,10 +18,28 @@ package io.appform.ranger.http.serde;
 import io.appform.ranger.core.model.Deserializer;
 import io.appform.ranger.http.model.ServiceNodesResponse;
 
+import java.util.List;
+
 /**
  *
  */
 @FunctionalInterface
 public interface HTTPResponseDataDeserializer<T> extends Deserializer<T> {
+    String JSON_MEDIA_TYPE = "application/json";
+
     ServiceNodesResponse<T> deserialize(byte []data);
+
+    /**
+     * Media types of node list responses this deserializer can read, in order of preference
+     */
+    default List<String> supportedMediaTypes() {
+        return List.of(JSON_MEDIA_TYPE);
+    }
+
+    /**
+     * Read a node list response sent in the given media type, which is one of {@link #supportedMediaTypes()}
+     */
+    default ServiceNodesResponse<T> deserialize(byte[] data, String mediaType) {
+        return deserialize(data);
+    }
 }
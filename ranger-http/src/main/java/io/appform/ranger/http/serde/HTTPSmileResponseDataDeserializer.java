@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.serde;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.appform.ranger.http.model.ServiceNodesResponse;
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Deserializer that reads node list responses sent either as Smile or as JSON. Smile is asked for only if enabled
+ * in the client config.
+ */
+public class HTTPSmileResponseDataDeserializer<T> implements HTTPResponseDataDeserializer<T> {
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final TypeReference<ServiceNodesResponse<T>> responseType;
+
+    /**
+     * @param mapper       Mapper for JSON responses. Smile responses are read with a copy of it.
+     * @param responseType Type of the response, with the node data type filled in
+     */
+    public HTTPSmileResponseDataDeserializer(ObjectMapper mapper, TypeReference<ServiceNodesResponse<T>> responseType) {
+        this.jsonMapper = mapper;
+        this.smileMapper = mapper.copyWith(new SmileFactory());
+        this.responseType = responseType;
+    }
+
+    @Override
+    public ServiceNodesResponse<T> deserialize(byte[] data) {
+        return read(jsonMapper, data);
+    }
+
+    @Override
+    public List<String> supportedMediaTypes() {
+        return List.of(RangerMediaTypes.APPLICATION_SMILE, JSON_MEDIA_TYPE);
+    }
+
+    @Override
+    public ServiceNodesResponse<T> deserialize(byte[] data, String mediaType) {
+        return read(RangerMediaTypes.APPLICATION_SMILE.equalsIgnoreCase(mediaType) ? smileMapper : jsonMapper, data);
+    }
+
+    private ServiceNodesResponse<T> read(ObjectMapper mapper, byte[] data) {
+        try {
+            return mapper.readValue(data, responseType);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read node list response", e);
+        }
+    }
+}
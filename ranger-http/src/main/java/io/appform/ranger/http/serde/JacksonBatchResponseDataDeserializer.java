@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNodes;
+import io.appform.ranger.http.model.ServiceNodesBatchResponse;
+import io.appform.ranger.http.model.ServiceNodesResponse;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads responses of the batched nodes endpoint using a deserializer for single node list responses, by handing it
+ * the nodes of each service as a response of their own. Lets node lists be fetched in batches with any deserializer,
+ * at the cost of encoding the nodes of each service again.
+ */
+public class JacksonBatchResponseDataDeserializer<T> implements HTTPBatchResponseDataDeserializer<T> {
+    private final ObjectMapper mapper;
+    private final HTTPResponseDataDeserializer<T> deserializer;
+
+    public JacksonBatchResponseDataDeserializer(ObjectMapper mapper, HTTPResponseDataDeserializer<T> deserializer) {
+        this.mapper = mapper;
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * @return The deserializer itself if it can already read batched responses, otherwise one wrapping it
+     */
+    public static <T> HTTPBatchResponseDataDeserializer<T> batching(
+            ObjectMapper mapper,
+            HTTPResponseDataDeserializer<T> deserializer) {
+        return deserializer instanceof HTTPBatchResponseDataDeserializer
+               ? (HTTPBatchResponseDataDeserializer<T>) deserializer
+               : new JacksonBatchResponseDataDeserializer<>(mapper, deserializer);
+    }
+
+    @Override
+    public ServiceNodesBatchResponse<T> deserializeBatch(byte[] data) {
+        try {
+            val batch = mapper.readTree(data).get("data");
+            if (null == batch || !batch.isArray()) {
+                return ServiceNodesBatchResponse.<T>builder().build();
+            }
+            val services = new ArrayList<ServiceNodes<T>>(batch.size());
+            for (val entry : batch) {
+                val single = mapper.createObjectNode().set("data", entry.get("nodes"));
+                val nodes = deserializer.deserialize(mapper.writeValueAsBytes(single));
+                services.add(ServiceNodes.<T>builder()
+                                     .service(mapper.treeToValue(entry.get("service"), Service.class))
+                                     .nodes(null != nodes && nodes.valid() ? nodes.getData() : List.of())
+                                     .build());
+            }
+            return ServiceNodesBatchResponse.<T>builder().data(services).build();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read node batch response", e);
+        }
+    }
+
+    @Override
+    public ServiceNodesResponse<T> deserialize(byte[] data) {
+        return deserializer.deserialize(data);
+    }
+
+    @Override
+    public List<String> supportedMediaTypes() {
+        return deserializer.supportedMediaTypes();
+    }
+
+    @Override
+    public ServiceNodesResponse<T> deserialize(byte[] data, String mediaType) {
+        return deserializer.deserialize(data, mediaType);
+    }
+}
@@ -16,27 +16,46 @@
 
 package io.appform.ranger.http.servicefinder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.appform.ranger.core.model.NodeDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodesVersion;
 import io.appform.ranger.http.config.HttpClientConfig;
 import io.appform.ranger.http.model.ServiceDataSourceResponse;
+import io.appform.ranger.http.model.ServiceNodesVersionsResponse;
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import io.appform.ranger.http.serde.HTTPBatchResponseDataDeserializer;
+import io.appform.ranger.http.serde.HTTPDeltaResponseDataDeserializer;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -44,19 +63,32 @@ import java.util.function.Supplier;
  */
 @Slf4j
 public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
+    private static final MediaType JSON = MediaType.get("application/json");
+
     private final AtomicBoolean upstreamAvailable = new AtomicBoolean(true);
+    //Cleared if the upstream is an older server without the versioned nodes endpoint
+    private final AtomicBoolean deltaSupported = new AtomicBoolean(true);
+    //Cleared if the upstream is an older server without the batched nodes endpoint
+    private final AtomicBoolean batchSupported = new AtomicBoolean(true);
+    //Cleared if the upstream is an older server without the node watch endpoint
+    private final AtomicBoolean watchSupported = new AtomicBoolean(true);
     private final ScheduledExecutorService resetter = Executors.newSingleThreadScheduledExecutor();
+    //Last responses along with their ETags, sent back in If-None-Match to skip unchanged downloads
+    private final AtomicReference<Tagged<Set<Service>>> lastServices = new AtomicReference<>();
+    private final Map<Service, Tagged<List<ServiceNode<T>>>> lastNodes = new ConcurrentHashMap<>();
 
     @Getter
     private final OkHttpClient httpClient;
     private final HttpClientConfig config;
     private final ObjectMapper mapper;
+    private final ObjectMapper smileMapper;
 
     public HttpApiCommunicator(OkHttpClient httpClient, HttpClientConfig config, ObjectMapper mapper) {
         Objects.requireNonNull(mapper, "mapper has not been set for node data");
         this.httpClient = httpClient;
         this.config = config;
         this.mapper = mapper;
+        this.smileMapper = mapper.copyWith(new SmileFactory());
         resetter.scheduleWithFixedDelay(() -> upstreamAvailable.set(true), 0, 60, TimeUnit.SECONDS);
     }
 
@@ -75,14 +107,22 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
                     .encodedPath("/ranger/services/v1")
                     .addQueryParameter("skipDataFromReplicationSources", Objects.toString(config.isReplicationSource()))
                     .build();
-            val request = new Request.Builder()
-                    .url(httpUrl)
-                    .get()
-                    .build();
+            val last = lastServices.get();
+            val request = conditionalGet(httpUrl,
+                                         last,
+                                         config.isSmileEncoding()
+                                         ? List.of(RangerMediaTypes.APPLICATION_SMILE,
+                                                   HTTPResponseDataDeserializer.JSON_MEDIA_TYPE)
+                                         : List.of());
 
             try (val response = httpClient.newCall(request).execute()) {
+                if (isNotModified(response, last)) {
+                    return last.getData();
+                }
                 if (response.isSuccessful()) {
-                    return parseServices(response, httpUrl);
+                    val services = parseServices(response, httpUrl);
+                    lastServices.set(tagged(response, services));
+                    return services;
                 }
                 else {
                     throw new HttpCommunicationException(
@@ -112,24 +152,194 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
                     .encodedPath(url)
                     .addQueryParameter("skipDataFromReplicationSources", Objects.toString(config.isReplicationSource()))
                     .build();
+            val last = lastNodes.get(service);
+            val request = conditionalGet(httpUrl,
+                                         last,
+                                         config.isSmileEncoding() ? deserializer.supportedMediaTypes() : List.of());
+
+            try (val response = httpClient.newCall(request).execute()) {
+                if (isNotModified(response, last)) {
+                    log.trace("Node list unchanged at {}", httpUrl);
+                    return last.getData();
+                }
+                if (response.isSuccessful()) {
+                    val nodes = parseNodeList(deserializer, response, httpUrl);
+                    val tagged = tagged(response, nodes);
+                    if (null != tagged) {
+                        lastNodes.put(service, tagged);
+                    }
+                    else {
+                        lastNodes.remove(service);
+                    }
+                    return nodes;
+                }
+                else {
+                    throw new HttpCommunicationException("HTTP call failed. url: " + httpUrl + " status: " + response.code());
+                }
+            }
+            catch (Exception e) {
+                throw new HttpCommunicationException("Error getting node data from the http endpoint: " + httpUrl +
+                                                             ". Error: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public Map<Service, List<ServiceNode<T>>> listNodes(
+            Collection<Service> services,
+            HTTPResponseDataDeserializer<T> deserializer) {
+        if (!(deserializer instanceof HTTPBatchResponseDataDeserializer) || !batchSupported.get()) {
+            return HttpCommunicator.super.listNodes(services, deserializer);
+        }
+        val batchDeserializer = (HTTPBatchResponseDataDeserializer<T>) deserializer;
+        final Map<Service, List<ServiceNode<T>>> nodes = executeRemoteCall(() -> {
+            log.debug("Refreshing the node lists of {} services in a batch", services.size());
+            val httpUrl = new HttpUrl.Builder()
+                    .scheme(config.isSecure() ? "https" : "http")
+                    .host(config.getHost())
+                    .port(config.getPort() == 0 ? defaultPort() : config.getPort())
+                    .encodedPath("/ranger/nodes/v1/batch")
+                    .addQueryParameter("skipDataFromReplicationSources", Objects.toString(config.isReplicationSource()))
+                    .build();
+            final Request request;
+            try {
+                request = new Request.Builder()
+                        .url(httpUrl)
+                        .post(RequestBody.create(mapper.writeValueAsBytes(services), JSON))
+                        .build();
+            }
+            catch (JsonProcessingException e) {
+                throw new HttpCommunicationException("Could not serialize services for batch call: " + e.getMessage());
+            }
+
+            try (val response = httpClient.newCall(request).execute()) {
+                if (response.code() == 404 || response.code() == 405) {
+                    log.info("Batched nodes endpoint not available at {}. Will fetch node lists one by one.", httpUrl);
+                    batchSupported.set(false);
+                    return null;
+                }
+                if (response.isSuccessful()) {
+                    return parseNodeBatch(batchDeserializer, services, response, httpUrl);
+                }
+                else {
+                    throw new HttpCommunicationException("HTTP call failed. url: " + httpUrl + " status: " + response.code());
+                }
+            }
+            catch (Exception e) {
+                throw new HttpCommunicationException("Error getting node data from the http endpoint: " + httpUrl +
+                                                             ". Error: " + e.getMessage());
+            }
+        });
+        return null != nodes
+               ? nodes
+               : HttpCommunicator.super.listNodes(services, deserializer);
+    }
+
+    @Override
+    public NodeDelta<T> listNodeDelta(
+            Service service,
+            HTTPResponseDataDeserializer<T> deserializer,
+            String sinceVersion) {
+        if (!(deserializer instanceof HTTPDeltaResponseDataDeserializer) || !deltaSupported.get()) {
+            return HttpCommunicator.super.listNodeDelta(service, deserializer, sinceVersion);
+        }
+        val deltaDeserializer = (HTTPDeltaResponseDataDeserializer<T>) deserializer;
+        final NodeDelta<T> delta = executeRemoteCall(() -> {
+            val url = String.format("/ranger/nodes/v2/%s/%s", service.getNamespace(), service.getServiceName());
+
+            log.debug("Refreshing the node delta from url {} since version {}", url, sinceVersion);
+            val urlBuilder = new HttpUrl.Builder()
+                    .scheme(config.isSecure() ? "https" : "http")
+                    .host(config.getHost())
+                    .port(config.getPort() == 0 ? defaultPort() : config.getPort())
+                    .encodedPath(url)
+                    .addQueryParameter("skipDataFromReplicationSources", Objects.toString(config.isReplicationSource()));
+            if (null != sinceVersion) {
+                urlBuilder.addQueryParameter("since", sinceVersion);
+            }
+            val httpUrl = urlBuilder.build();
             val request = new Request.Builder()
                     .url(httpUrl)
                     .get()
                     .build();
 
             try (val response = httpClient.newCall(request).execute()) {
+                if (response.code() == 404) {
+                    log.info("Versioned nodes endpoint not available at {}. Will fetch full node lists.", httpUrl);
+                    deltaSupported.set(false);
+                    return null;
+                }
                 if (response.isSuccessful()) {
-                    return parseNodeList(deserializer, response, httpUrl);
+                    return parseNodeDelta(deltaDeserializer, response, httpUrl);
                 }
                 else {
                     throw new HttpCommunicationException("HTTP call failed. url: " + httpUrl + " status: " + response.code());
                 }
             }
             catch (Exception e) {
-                throw new HttpCommunicationException("Error getting node data from the http endpoint: " + httpUrl +
+                throw new HttpCommunicationException("Error getting node delta from the http endpoint: " + httpUrl +
                                                              ". Error: " + e.getMessage());
             }
         });
+        return null != delta
+               ? delta
+               : HttpCommunicator.super.listNodeDelta(service, deserializer, sinceVersion);
+    }
+
+    @Override
+    public Optional<Map<Service, String>> watchNodes(Map<Service, String> versions, long timeoutMs) {
+        if (!watchSupported.get()) {
+            return Optional.empty();
+        }
+        val httpUrl = new HttpUrl.Builder()
+                .scheme(config.isSecure() ? "https" : "http")
+                .host(config.getHost())
+                .port(config.getPort() == 0 ? defaultPort() : config.getPort())
+                .encodedPath("/ranger/nodes/v1/watch")
+                .addQueryParameter("timeoutMs", Long.toString(timeoutMs))
+                .addQueryParameter("skipDataFromReplicationSources", Objects.toString(config.isReplicationSource()))
+                .build();
+        final Request request;
+        try {
+            val body = versions.entrySet()
+                    .stream()
+                    .map(entry -> ServiceNodesVersion.builder()
+                            .service(entry.getKey())
+                            .version(entry.getValue())
+                            .build())
+                    .toList();
+            request = new Request.Builder()
+                    .url(httpUrl)
+                    .post(RequestBody.create(mapper.writeValueAsBytes(body), JSON))
+                    .build();
+        }
+        catch (JsonProcessingException e) {
+            throw new HttpCommunicationException("Could not serialize versions for watch call: " + e.getMessage());
+        }
+        //The server holds the call for up to the watch timeout, the usual call timeout applies on top of that
+        val callTimeoutMs = timeoutMs + (config.getOperationTimeoutMs() == 0 ? 3000 : config.getOperationTimeoutMs());
+        val watchClient = httpClient.newBuilder()
+                .callTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+        try (val response = watchClient.newCall(request).execute()) {
+            if (response.code() == 404 || response.code() == 405) {
+                log.info("Node watch endpoint not available at {}. Node lists will only be polled.", httpUrl);
+                watchSupported.set(false);
+                return Optional.empty();
+            }
+            if (!response.isSuccessful()) {
+                throw new HttpCommunicationException("HTTP call failed. url: " + httpUrl + " status: " + response.code());
+            }
+            return Optional.of(parseVersions(response, httpUrl));
+        }
+        catch (HttpCommunicationException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new HttpCommunicationException("Error watching nodes at the http endpoint: " + httpUrl +
+                                                         ". Error: " + e.getMessage());
+        }
     }
 
     @Override
@@ -148,6 +358,28 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
         }
     }
 
+    private static Request conditionalGet(HttpUrl httpUrl, Tagged<?> last, List<String> accept) {
+        val builder = new Request.Builder()
+                .url(httpUrl)
+                .get();
+        if (!accept.isEmpty()) {
+            builder.header("Accept", String.join(", ", accept));
+        }
+        if (null != last) {
+            builder.header("If-None-Match", last.getEtag());
+        }
+        return builder.build();
+    }
+
+    private static boolean isNotModified(Response response, Tagged<?> last) {
+        return response.code() == 304 && null != last;
+    }
+
+    private static <V> Tagged<V> tagged(Response response, V data) {
+        val etag = response.header("ETag");
+        return null == etag ? null : new Tagged<>(etag, data);
+    }
+
     private int defaultPort() {
         return config.isSecure()
                ? 443
@@ -161,7 +393,8 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
             }
             else {
                 val bytes = body.bytes();
-                val serviceDataSourceResponse = mapper.readValue(bytes, ServiceDataSourceResponse.class);
+                val serviceDataSourceResponse = (isSmile(body) ? smileMapper : mapper)
+                        .readValue(bytes, ServiceDataSourceResponse.class);
                 if (serviceDataSourceResponse.valid()) {
                     return serviceDataSourceResponse.getData();
                 }
@@ -177,6 +410,33 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
         }
     }
 
+    private Map<Service, String> parseVersions(Response response, HttpUrl httpUrl) throws IOException {
+        try (val body = response.body()) {
+            if (null == body) {
+                throw new HttpCommunicationException("Empty response body from: " + httpUrl);
+            }
+            val versionsResponse = mapper.readValue(body.bytes(), ServiceNodesVersionsResponse.class);
+            if (!versionsResponse.valid()) {
+                throw new HttpCommunicationException(
+                        "Http call returned null versions for url: " + httpUrl + " response: " + versionsResponse);
+            }
+            val versions = new HashMap<Service, String>();
+            versionsResponse.getData().forEach(version -> versions.put(version.getService(), version.getVersion()));
+            return versions;
+        }
+    }
+
+    private static String mediaType(ResponseBody body) {
+        val contentType = body.contentType();
+        return null == contentType
+               ? HTTPResponseDataDeserializer.JSON_MEDIA_TYPE
+               : contentType.type() + "/" + contentType.subtype();
+    }
+
+    private static boolean isSmile(ResponseBody body) {
+        return RangerMediaTypes.APPLICATION_SMILE.equalsIgnoreCase(mediaType(body));
+    }
+
     private static <T> List<ServiceNode<T>> parseNodeList(
             HTTPResponseDataDeserializer<T> deserializer,
             Response response,
@@ -188,7 +448,7 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
             }
             else {
                 val bytes = body.bytes();
-                val serviceNodesResponse = deserializer.deserialize(bytes);
+                val serviceNodesResponse = deserializer.deserialize(bytes, mediaType(body));
                 if (serviceNodesResponse.valid()) {
                     return serviceNodesResponse.getData();
                 }
@@ -203,4 +463,66 @@ public class HttpApiCommunicator<T> implements HttpCommunicator<T> {
                     "Error parsing node data from server. Url: " + httpUrl + "Error: " + e.getMessage());
         }
     }
+
+    private static <T> Map<Service, List<ServiceNode<T>>> parseNodeBatch(
+            HTTPBatchResponseDataDeserializer<T> deserializer,
+            Collection<Service> services,
+            Response response,
+            HttpUrl httpUrl) {
+        try (val body = response.body()) {
+            if (null == body) {
+                log.warn("HTTP call to {} returned empty body", httpUrl);
+                throw new HttpCommunicationException("Empty response received for call to " + httpUrl);
+            }
+            else {
+                val batchResponse = deserializer.deserializeBatch(body.bytes());
+                if (!batchResponse.valid()) {
+                    throw new HttpCommunicationException(
+                            "Http call returned null nodes for url: " + httpUrl + " response: " + batchResponse);
+                }
+                //Services unknown to the upstream get an empty node list, same as the single service endpoint
+                val nodes = new HashMap<Service, List<ServiceNode<T>>>();
+                services.forEach(service -> nodes.put(service, List.of()));
+                batchResponse.getData().forEach(serviceNodes -> nodes.put(serviceNodes.getService(),
+                                                                          serviceNodes.getNodes()));
+                return nodes;
+            }
+        }
+        catch (Exception e) {
+            throw new HttpCommunicationException(
+                    "Error parsing node data from server. Url: " + httpUrl + "Error: " + e.getMessage());
+        }
+    }
+
+    private static <T> NodeDelta<T> parseNodeDelta(
+            HTTPDeltaResponseDataDeserializer<T> deserializer,
+            Response response,
+            HttpUrl httpUrl) {
+        try (val body = response.body()) {
+            if (null == body) {
+                log.warn("HTTP call to {} returned empty body", httpUrl);
+                throw new HttpCommunicationException("Empty response received for call to " + httpUrl);
+            }
+            else {
+                val deltaResponse = deserializer.deserializeDelta(body.bytes());
+                if (deltaResponse.valid()) {
+                    return deltaResponse.getData();
+                }
+                else {
+                    throw new HttpCommunicationException(
+                            "Http call returned null delta for url: " + httpUrl + " response: " + deltaResponse);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new HttpCommunicationException(
+                    "Error parsing node delta from server. Url: " + httpUrl + "Error: " + e.getMessage());
+        }
+    }
+
+    @Value
+    private static class Tagged<V> {
+        String etag;
+        V data;
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.servicefinder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.model.NodeDelta;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
+import io.appform.ranger.http.serde.JacksonBatchResponseDataDeserializer;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import okhttp3.OkHttpClient;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves node lists of individual services from a single batched call for all services looked up so far. Finders in
+ * a hub refresh around the same time, so the first refresh in a round fetches nodes for all of them and the rest are
+ * served from the result till it is older than the configured age.
+ * Deserializers that can not read batched responses themselves are wrapped in a
+ * {@link JacksonBatchResponseDataDeserializer}, so that every deserializer gets node lists in a single call.
+ */
+@Slf4j
+public class HttpBatchingCommunicator<T> implements HttpCommunicator<T> {
+    private final HttpCommunicator<T> root;
+    private final ObjectMapper mapper;
+    private final long maxAgeMs;
+    private final Set<Service> knownServices = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<Service, List<ServiceNode<T>>> snapshot = Map.of();
+    private volatile long fetchedAt = 0;
+
+    /**
+     * @param mapper Mapper to read batched responses with, for deserializers that can not read them
+     */
+    public HttpBatchingCommunicator(HttpCommunicator<T> root, ObjectMapper mapper, long maxAgeMs) {
+        Objects.requireNonNull(root, "root communicator has not been set");
+        Objects.requireNonNull(mapper, "mapper has not been set");
+        this.root = root;
+        this.mapper = mapper;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    @Override
+    public boolean healthy() {
+        return root.healthy();
+    }
+
+    @Override
+    public Set<Service> services() {
+        return root.services();
+    }
+
+    @Override
+    public List<ServiceNode<T>> listNodes(Service service, HTTPResponseDataDeserializer<T> deserializer) {
+        knownServices.add(service);
+        val nodes = freshNodes(service);
+        if (null != nodes) {
+            return nodes;
+        }
+        synchronized (this) {
+            //Another finder might have refreshed the batch while this one was waiting
+            val refreshed = freshNodes(service);
+            if (null != refreshed) {
+                return refreshed;
+            }
+            return fetchAll(deserializer).getOrDefault(service, List.of());
+        }
+    }
+
+    @Override
+    public synchronized Map<Service, List<ServiceNode<T>>> listNodes(
+            Collection<Service> services,
+            HTTPResponseDataDeserializer<T> deserializer) {
+        knownServices.addAll(services);
+        val fetched = fetchAll(deserializer);
+        val nodes = new HashMap<Service, List<ServiceNode<T>>>();
+        services.forEach(service -> nodes.put(service, fetched.getOrDefault(service, List.of())));
+        return nodes;
+    }
+
+    @Override
+    public NodeDelta<T> listNodeDelta(
+            Service service,
+            HTTPResponseDataDeserializer<T> deserializer,
+            String sinceVersion) {
+        return root.listNodeDelta(service, deserializer, sinceVersion);
+    }
+
+    @Override
+    public Optional<Map<Service, String>> watchNodes(Map<Service, String> versions, long timeoutMs) {
+        return root.watchNodes(versions, timeoutMs);
+    }
+
+    @Override
+    public OkHttpClient getHttpClient() {
+        return root.getHttpClient();
+    }
+
+    @Override
+    public void close() throws Exception {
+        root.close();
+    }
+
+    private Map<Service, List<ServiceNode<T>>> fetchAll(HTTPResponseDataDeserializer<T> deserializer) {
+        val services = Set.copyOf(knownServices);
+        log.debug("Refreshing node lists for {} services", services.size());
+        val fetched = Map.copyOf(root.listNodes(services,
+                                                JacksonBatchResponseDataDeserializer.batching(mapper, deserializer)));
+        snapshot = fetched;
+        fetchedAt = System.currentTimeMillis();
+        return fetched;
+    }
+
+    private List<ServiceNode<T>> freshNodes(Service service) {
+        if (System.currentTimeMillis() - fetchedAt > maxAgeMs) {
+            return null;
+        }
+        return snapshot.get(service);
+    }
+}
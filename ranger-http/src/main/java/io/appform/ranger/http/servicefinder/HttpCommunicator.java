@@ -16,12 +16,18 @@
 
 package io.appform.ranger.http.servicefinder;
 
+import io.appform.ranger.core.model.NodeDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
+import lombok.val;
 import okhttp3.OkHttpClient;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -35,5 +41,37 @@ public interface HttpCommunicator<T> extends AutoCloseable {
     List<ServiceNode<T>> listNodes(final Service service,
                                    HTTPResponseDataDeserializer<T> deserializer);
 
+    /**
+     * List nodes of multiple services. Makes one call per service unless the upstream and the deserializer support
+     * fetching them in a batch.
+     */
+    default Map<Service, List<ServiceNode<T>>> listNodes(final Collection<Service> services,
+                                                         HTTPResponseDataDeserializer<T> deserializer) {
+        val nodes = new HashMap<Service, List<ServiceNode<T>>>();
+        services.forEach(service -> nodes.put(service, listNodes(service, deserializer)));
+        return nodes;
+    }
+
+    /**
+     * List changes to the nodes of a service since a version returned earlier. Returns a snapshot if the upstream or
+     * the deserializer does not support deltas.
+     */
+    default NodeDelta<T> listNodeDelta(final Service service,
+                                       HTTPResponseDataDeserializer<T> deserializer,
+                                       String sinceVersion) {
+        return NodeDelta.snapshot(null, listNodes(service, deserializer));
+    }
+
+    /**
+     * Wait till the node list of any of the services changes from the given version, or the timeout passes. Services
+     * with a null version are returned right away along with their current version.
+     *
+     * @return Services whose node lists changed along with their latest versions, empty on timeout. Empty optional
+     * if the upstream does not support watching.
+     */
+    default Optional<Map<Service, String>> watchNodes(final Map<Service, String> versions, long timeoutMs) {
+        return Optional.empty();
+    }
+
     OkHttpClient getHttpClient();
 }
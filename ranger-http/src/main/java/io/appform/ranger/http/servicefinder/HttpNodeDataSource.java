@@ -16,6 +16,7 @@
 package io.appform.ranger.http.servicefinder;
 
 import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.NodeDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.http.common.HttpNodeDataStoreConnector;
@@ -57,6 +58,11 @@ public class HttpNodeDataSource<T, D extends HTTPResponseDataDeserializer<T>> ex
         return Optional.of(httpCommunicator.listNodes(service, deserializer));
     }
 
+    @Override
+    public Optional<NodeDelta<T>> refreshDelta(D deserializer, String sinceVersion) {
+        return Optional.of(httpCommunicator.listNodeDelta(service, deserializer, sinceVersion));
+    }
+
     @Override
     public boolean isActive() {
         return upstreamAvailable.get();
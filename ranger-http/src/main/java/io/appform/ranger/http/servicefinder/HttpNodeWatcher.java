@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.servicefinder;
+
+import io.appform.ranger.core.model.Service;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Watches node lists of any number of services with a single long polling call to the upstream and notifies
+ * listeners of a service when its node list changes. Listeners are notified once when first added as well, to pick
+ * up changes that happened before the watch started.
+ * Services added while a call is in progress are watched from the next call, which starts at most one watch
+ * timeout later. If the upstream does not support watching, no listener is ever notified and node lists are only
+ * refreshed by polling.
+ */
+@Slf4j
+public class HttpNodeWatcher<T> implements AutoCloseable {
+    public static final long DEFAULT_WATCH_TIMEOUT_MS = 30_000;
+    private static final long RETRY_DELAY_MS = 1_000;
+
+    private final HttpCommunicator<T> communicator;
+    private final long watchTimeoutMs;
+    private final Map<Service, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    private final Map<Service, String> versions = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+    private volatile Thread watchThread = null;
+
+    public HttpNodeWatcher(HttpCommunicator<T> communicator) {
+        this(communicator, DEFAULT_WATCH_TIMEOUT_MS);
+    }
+
+    public HttpNodeWatcher(HttpCommunicator<T> communicator, long watchTimeoutMs) {
+        Objects.requireNonNull(communicator, "http communicator has not been set for node watcher");
+        this.communicator = communicator;
+        this.watchTimeoutMs = watchTimeoutMs;
+    }
+
+    /**
+     * Add a listener for changes to the node list of a service. Starts watching if not started already.
+     */
+    public void addListener(Service service, Runnable listener) {
+        listeners.computeIfAbsent(service, key -> new CopyOnWriteArrayList<>()).add(listener);
+        start();
+    }
+
+    public void removeListener(Service service, Runnable listener) {
+        listeners.computeIfPresent(service, (key, existing) -> {
+            existing.remove(listener);
+            if (!existing.isEmpty()) {
+                return existing;
+            }
+            //Listeners added later for the service get notified once again
+            versions.remove(service);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        val thread = watchThread;
+        if (null != thread) {
+            thread.interrupt();
+        }
+    }
+
+    private void start() {
+        if (stopped || !started.compareAndSet(false, true)) {
+            return;
+        }
+        val thread = new Thread(this::watch, "ranger-http-node-watcher");
+        thread.setDaemon(true);
+        watchThread = thread;
+        thread.start();
+    }
+
+    private void watch() {
+        while (!stopped) {
+            try {
+                val watched = new HashMap<Service, String>();
+                listeners.keySet().forEach(service -> watched.put(service, versions.get(service)));
+                if (watched.isEmpty()) {
+                    Thread.sleep(RETRY_DELAY_MS);
+                    continue;
+                }
+                val changed = communicator.watchNodes(watched, watchTimeoutMs).orElse(null);
+                if (null == changed) {
+                    log.info("Upstream does not support watching node lists. Node lists will only be polled.");
+                    return;
+                }
+                changed.forEach((service, version) -> {
+                    if (listeners.containsKey(service) && null != version) {
+                        versions.put(service, version);
+                        notifyListeners(service);
+                    }
+                });
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (Exception e) {
+                if (stopped) {
+                    return;
+                }
+                log.warn("Error watching node lists: {}. Will retry in {} ms", e.getMessage(), RETRY_DELAY_MS);
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(Service service) {
+        listeners.getOrDefault(service, List.of()).forEach(listener -> {
+            try {
+                listener.run();
+            }
+            catch (Exception e) {
+                log.error("Error notifying node watch listener for service " + service, e);
+            }
+        });
+    }
+}
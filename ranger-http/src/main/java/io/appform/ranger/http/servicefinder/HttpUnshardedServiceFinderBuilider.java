@@ -20,10 +20,14 @@ import io.appform.ranger.core.finder.SimpleUnshardedServiceFinder;
 import io.appform.ranger.core.finder.SimpleUnshardedServiceFinderBuilder;
 import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.http.config.HttpClientConfig;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
+import io.appform.ranger.http.servicefinder.signals.HttpWatchRegistryUpdateSignal;
 import io.appform.ranger.http.utils.RangerHttpUtils;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class HttpUnshardedServiceFinderBuilider<T>
@@ -32,12 +36,33 @@ public class HttpUnshardedServiceFinderBuilider<T>
     private HttpClientConfig clientConfig;
     private ObjectMapper mapper;
     private HttpCommunicator<T> httpClient;
+    private boolean watch;
+    private HttpNodeWatcher<T> nodeWatcher;
 
     public HttpUnshardedServiceFinderBuilider<T> withClientConfig(final HttpClientConfig clientConfig) {
         this.clientConfig = clientConfig;
         return this;
     }
 
+    /**
+     * Refresh the registry as soon as the upstream reports a change to the node list, using a long polling watch
+     * of its own. Polling continues alongside, so the node refresh interval can be raised.
+     */
+    public HttpUnshardedServiceFinderBuilider<T> withWatch() {
+        this.watch = true;
+        return this;
+    }
+
+    /**
+     * Refresh the registry as soon as the upstream reports a change to the node list, using a watcher shared with
+     * other finders, like one used by a hub. The watcher is not closed when the finder is stopped. Ignored if null.
+     */
+    public HttpUnshardedServiceFinderBuilider<T> withNodeWatcher(final HttpNodeWatcher<T> nodeWatcher) {
+        this.nodeWatcher = nodeWatcher;
+        this.watch = watch || null != nodeWatcher;
+        return this;
+    }
+
     public HttpUnshardedServiceFinderBuilider<T> withObjectMapper(final ObjectMapper mapper) {
         this.mapper = mapper;
         return this;
@@ -60,5 +85,22 @@ public class HttpUnshardedServiceFinderBuilider<T>
                                                                       () -> RangerHttpUtils.httpClient(clientConfig, mapper)));
     }
 
+    @Override
+    protected List<Signal<T>> implementationSpecificRefreshSignals(
+            final Service service,
+            final NodeDataSource<T, HTTPResponseDataDeserializer<T>> nodeDataSource) {
+        if (disablePushUpdaters || !watch || !(nodeDataSource instanceof HttpNodeDataSource)) {
+            return Collections.emptyList();
+        }
+        var watcher = nodeWatcher;
+        if (null == watcher) {
+            final HttpNodeWatcher<T> ownWatcher = new HttpNodeWatcher<>(
+                    ((HttpNodeDataSource<T, HTTPResponseDataDeserializer<T>>) nodeDataSource).getHttpCommunicator());
+            stopSignalHandlers.add(x -> ownWatcher.close());
+            watcher = ownWatcher;
+        }
+        return Collections.singletonList(new HttpWatchRegistryUpdateSignal<>(service, watcher));
+    }
+
 }
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.http.servicefinder.signals;
+
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.signals.Signal;
+import io.appform.ranger.http.servicefinder.HttpNodeWatcher;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+
+/**
+ * Signals a registry update whenever the upstream reports a change to the node list of the service through the
+ * given {@link HttpNodeWatcher}
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class HttpWatchRegistryUpdateSignal<T> extends Signal<T> {
+    private final Service service;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final HttpNodeWatcher<T> nodeWatcher;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Runnable listener = this::onSignalReceived;
+
+    public HttpWatchRegistryUpdateSignal(Service service, HttpNodeWatcher<T> nodeWatcher) {
+        super(() -> null, Collections.emptyList());
+        this.service = service;
+        this.nodeWatcher = nodeWatcher;
+    }
+
+    @Override
+    public void start() {
+        nodeWatcher.addListener(service, listener);
+        log.info("Watching node list changes for service: {}", service);
+    }
+
+    @Override
+    public void stop() {
+        nodeWatcher.removeListener(service, listener);
+    }
+}
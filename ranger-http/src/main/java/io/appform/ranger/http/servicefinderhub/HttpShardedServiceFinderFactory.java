@@ -22,9 +22,12 @@ import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.http.config.HttpClientConfig;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
 import io.appform.ranger.http.servicefinder.HttpCommunicator;
+import io.appform.ranger.http.servicefinder.HttpNodeWatcher;
 import io.appform.ranger.http.servicefinder.HttpShardedServiceFinderBuilder;
 import lombok.Builder;
 import lombok.val;
@@ -37,7 +40,11 @@ public class HttpShardedServiceFinderFactory <T> implements ServiceFinderFactory
     private final HTTPResponseDataDeserializer<T> deserializer;
     private final ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshScheduler refreshScheduler;
+    private final RefreshIntervalPolicy refreshIntervalPolicy;
+    private final long initialUpdateTimeoutMs;
     private final int nodeRefreshIntervalMs;
+    private final HttpNodeWatcher<T> nodeWatcher;
 
     @Builder
     public HttpShardedServiceFinderFactory(
@@ -47,7 +54,11 @@ public class HttpShardedServiceFinderFactory <T> implements ServiceFinderFactory
             HTTPResponseDataDeserializer<T> deserializer,
             ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs)
+            int nodeRefreshIntervalMs,
+            RefreshScheduler refreshScheduler,
+            RefreshIntervalPolicy refreshIntervalPolicy,
+            long initialUpdateTimeoutMs,
+            HttpNodeWatcher<T> nodeWatcher)
     {
         this.clientConfig = httpClientConfig;
         this.httpClient = httpClient;
@@ -55,7 +66,11 @@ public class HttpShardedServiceFinderFactory <T> implements ServiceFinderFactory
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshScheduler = refreshScheduler;
+        this.refreshIntervalPolicy = refreshIntervalPolicy;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
+        this.nodeWatcher = nodeWatcher;
     }
 
     @Override
@@ -64,12 +79,16 @@ public class HttpShardedServiceFinderFactory <T> implements ServiceFinderFactory
                 .withClientConfig(clientConfig)
                 .withObjectMapper(mapper)
                 .withHttpCommunicator(httpClient)
+                .withNodeWatcher(nodeWatcher)
                 .withDeserializer(deserializer)
                 .withNamespace(service.getNamespace())
                 .withServiceName(service.getServiceName())
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshScheduler(refreshScheduler)
+                .withRefreshIntervalPolicy(refreshIntervalPolicy)
+                .withInitialUpdateTimeoutMs(initialUpdateTimeoutMs)
                 .build();
         serviceFinder.start();
         return serviceFinder;
@@ -22,9 +22,12 @@ import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
 import io.appform.ranger.http.config.HttpClientConfig;
 import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
 import io.appform.ranger.http.servicefinder.HttpCommunicator;
+import io.appform.ranger.http.servicefinder.HttpNodeWatcher;
 import io.appform.ranger.http.servicefinder.HttpUnshardedServiceFinderBuilider;
 import lombok.Builder;
 import lombok.val;
@@ -37,7 +40,11 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
     private final HTTPResponseDataDeserializer<T> deserializer;
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshScheduler refreshScheduler;
+    private final RefreshIntervalPolicy refreshIntervalPolicy;
+    private final long initialUpdateTimeoutMs;
     private final int nodeRefreshIntervalMs;
+    private final HttpNodeWatcher<T> nodeWatcher;
 
     @Builder
     public HttpUnshardedServiceFinderFactory(
@@ -47,14 +54,22 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
             HTTPResponseDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs) {
+            int nodeRefreshIntervalMs,
+            RefreshScheduler refreshScheduler,
+            RefreshIntervalPolicy refreshIntervalPolicy,
+            long initialUpdateTimeoutMs,
+            HttpNodeWatcher<T> nodeWatcher) {
         this.clientConfig = httpClientConfig;
         this.mapper = mapper;
         this.httpClient = httpClient;
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshScheduler = refreshScheduler;
+        this.refreshIntervalPolicy = refreshIntervalPolicy;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
+        this.nodeWatcher = nodeWatcher;
     }
 
     @Override
@@ -63,12 +78,16 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
                 .withClientConfig(clientConfig)
                 .withObjectMapper(mapper)
                 .withHttpClient(httpClient)
+                .withNodeWatcher(nodeWatcher)
                 .withDeserializer(deserializer)
                 .withNamespace(service.getNamespace())
                 .withServiceName(service.getServiceName())
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshScheduler(refreshScheduler)
+                .withRefreshIntervalPolicy(refreshIntervalPolicy)
+                .withInitialUpdateTimeoutMs(initialUpdateTimeoutMs)
                 .build();
         serviceFinder.start();
         return serviceFinder;
@@ -18,20 +18,38 @@ package io.appform.ranger.http.servicefinder;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.NodeDelta;
+import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodes;
+import io.appform.ranger.core.model.ServiceNodesVersion;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import io.appform.ranger.http.config.HttpClientConfig;
+import io.appform.ranger.http.model.ServiceNodesBatchResponse;
+import io.appform.ranger.http.model.ServiceNodesDeltaResponse;
 import io.appform.ranger.http.model.ServiceNodesResponse;
+import io.appform.ranger.http.model.ServiceNodesVersionsResponse;
+import io.appform.ranger.http.serde.HTTPBatchResponseDataDeserializer;
+import io.appform.ranger.http.serde.HTTPDeltaResponseDataDeserializer;
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import io.appform.ranger.http.serde.HTTPResponseDataDeserializer;
+import io.appform.ranger.http.serde.HTTPSmileResponseDataDeserializer;
+import io.appform.ranger.http.utils.RangerHttpUtils;
 import lombok.Data;
 import lombok.val;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
@@ -94,4 +112,294 @@ class HttpShardedServiceFinderBuilderTest {
         Assertions.assertNotNull(finder.get(nodeData -> true).orElse(null));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testFinderWithDeltaRefresh(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        val payload = MAPPER.writeValueAsBytes(
+                ServiceNodesDeltaResponse.<NodeData>builder()
+                        .data(NodeDelta.snapshot("v1", Collections.singletonList(node)))
+                        .build());
+        stubFor(get(urlPathEqualTo("/ranger/nodes/v2/testns/test"))
+                        .willReturn(aResponse()
+                                            .withBody(payload)
+                                            .withStatus(200)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .build();
+
+        val finder = new HttpShardedServiceFinderBuilder<NodeData>()
+                .withClientConfig(clientConfig)
+                .withNamespace("testns")
+                .withServiceName("test")
+                .withObjectMapper(MAPPER)
+                .withDeserializer(new HTTPDeltaResponseDataDeserializer<>() {
+                    @Override
+                    public ServiceNodesDeltaResponse<NodeData> deserializeDelta(byte[] data) {
+                        try {
+                            return MAPPER.readValue(data, new TypeReference<ServiceNodesDeltaResponse<NodeData>>() {});
+                        }
+                        catch (IOException e) {
+                            throw new IllegalArgumentException(e);
+                        }
+                    }
+
+                    @Override
+                    public ServiceNodesResponse<NodeData> deserialize(byte[] data) {
+                        try {
+                            return MAPPER.readValue(data, new TypeReference<ServiceNodesResponse<NodeData>>() {});
+                        }
+                        catch (IOException e) {
+                            throw new IllegalArgumentException(e);
+                        }
+                    }
+                })
+                .withShardSelector((criteria, registry) -> registry.nodeList())
+                .withNodeRefreshIntervalMs(1000)
+                .withDeltaRefresh()
+                .build();
+        finder.start();
+        RangerTestUtils.sleepUntilFinderStarts(finder);
+        Assertions.assertNotNull(finder.get(nodeData -> true).orElse(null));
+        verify(getRequestedFor(urlPathEqualTo("/ranger/nodes/v2/testns/test")));
+        verify(0, getRequestedFor(urlPathEqualTo("/ranger/nodes/v1/testns/test")));
+        finder.stop();
+    }
+
+    @Test
+    void testBatchingCommunicator(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        val first = new Service("testns", "test1");
+        val second = new Service("testns", "test2");
+        val payload = MAPPER.writeValueAsBytes(
+                ServiceNodesBatchResponse.<NodeData>builder()
+                        .data(List.of(ServiceNodes.<NodeData>builder().service(first).nodes(List.of(node)).build(),
+                                      ServiceNodes.<NodeData>builder().service(second).nodes(List.of(node)).build()))
+                        .build());
+        stubFor(post(urlPathEqualTo("/ranger/nodes/v1/batch"))
+                        .willReturn(aResponse()
+                                            .withBody(payload)
+                                            .withStatus(200)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .build();
+        val deserializer = new HTTPBatchResponseDataDeserializer<NodeData>() {
+            @Override
+            public ServiceNodesBatchResponse<NodeData> deserializeBatch(byte[] data) {
+                try {
+                    return MAPPER.readValue(data, new TypeReference<ServiceNodesBatchResponse<NodeData>>() {});
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+
+            @Override
+            public ServiceNodesResponse<NodeData> deserialize(byte[] data) {
+                try {
+                    return MAPPER.readValue(data, new TypeReference<ServiceNodesResponse<NodeData>>() {});
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+        };
+
+        try (val communicator = new HttpBatchingCommunicator<>(
+                RangerHttpUtils.<NodeData>httpClient(clientConfig, MAPPER), MAPPER, 60_000)) {
+            Assertions.assertEquals(Map.of(first, List.of(node), second, List.of(node)),
+                                    communicator.listNodes(List.of(first, second), deserializer));
+            Assertions.assertEquals(1, communicator.listNodes(first, deserializer).size());
+            Assertions.assertEquals(1, communicator.listNodes(second, deserializer).size());
+        }
+        verify(1, postRequestedFor(urlPathEqualTo("/ranger/nodes/v1/batch")));
+        verify(0, getRequestedFor(urlPathMatching("/ranger/nodes/v1/testns/.*")));
+    }
+
+    @Test
+    void testBatchingCommunicatorWithSingleResponseDeserializer(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        val first = new Service("testns", "test1");
+        val second = new Service("testns", "test2");
+        stubFor(post(urlPathEqualTo("/ranger/nodes/v1/batch"))
+                        .willReturn(aResponse()
+                                            .withBody(MAPPER.writeValueAsBytes(
+                                                    ServiceNodesBatchResponse.<NodeData>builder()
+                                                            .data(List.of(ServiceNodes.<NodeData>builder()
+                                                                                  .service(first)
+                                                                                  .nodes(List.of(node))
+                                                                                  .build(),
+                                                                          ServiceNodes.<NodeData>builder()
+                                                                                  .service(second)
+                                                                                  .build()))
+                                                            .build()))
+                                            .withStatus(200)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .build();
+        HTTPResponseDataDeserializer<NodeData> deserializer = data -> {
+            try {
+                return MAPPER.readValue(data, new TypeReference<ServiceNodesResponse<NodeData>>() {});
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        };
+
+        try (val communicator = new HttpBatchingCommunicator<>(
+                RangerHttpUtils.<NodeData>httpClient(clientConfig, MAPPER), MAPPER, 60_000)) {
+            Assertions.assertEquals(List.of(node), communicator.listNodes(first, deserializer));
+            Assertions.assertEquals(List.of(), communicator.listNodes(second, deserializer));
+        }
+        verify(postRequestedFor(urlPathEqualTo("/ranger/nodes/v1/batch")));
+        verify(0, getRequestedFor(urlPathMatching("/ranger/nodes/v1/testns/.*")));
+    }
+
+    @Test
+    void testConditionalNodeFetch(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        val payload = MAPPER.writeValueAsBytes(
+                ServiceNodesResponse.<NodeData>builder()
+                        .data(Collections.singletonList(node))
+                        .build());
+        stubFor(get(urlPathEqualTo("/ranger/nodes/v1/testns/test"))
+                        .atPriority(2)
+                        .willReturn(aResponse()
+                                            .withHeader("ETag", "\"v1\"")
+                                            .withBody(payload)
+                                            .withStatus(200)));
+        stubFor(get(urlPathEqualTo("/ranger/nodes/v1/testns/test"))
+                        .atPriority(1)
+                        .withHeader("If-None-Match", equalTo("\"v1\""))
+                        .willReturn(aResponse()
+                                            .withHeader("ETag", "\"v1\"")
+                                            .withStatus(304)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .build();
+        val service = new Service("testns", "test");
+        try (val communicator = RangerHttpUtils.<NodeData>httpClient(clientConfig, MAPPER)) {
+            HTTPResponseDataDeserializer<NodeData> deserializer = data -> {
+                try {
+                    return MAPPER.readValue(data, new TypeReference<ServiceNodesResponse<NodeData>>() {});
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            };
+            Assertions.assertEquals(List.of(node), communicator.listNodes(service, deserializer));
+            Assertions.assertEquals(List.of(node), communicator.listNodes(service, deserializer));
+        }
+        verify(2, getRequestedFor(urlPathEqualTo("/ranger/nodes/v1/testns/test")));
+        verify(1, getRequestedFor(urlPathEqualTo("/ranger/nodes/v1/testns/test"))
+                .withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void testFinderWithWatch(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        stubFor(get(urlPathEqualTo("/ranger/nodes/v1/testns/test"))
+                        .willReturn(aResponse()
+                                            .withBody(MAPPER.writeValueAsBytes(
+                                                    ServiceNodesResponse.<NodeData>builder()
+                                                            .data(Collections.singletonList(node))
+                                                            .build()))
+                                            .withStatus(200)));
+        stubFor(post(urlPathEqualTo("/ranger/nodes/v1/watch"))
+                        .willReturn(aResponse()
+                                            .withBody(MAPPER.writeValueAsBytes(
+                                                    ServiceNodesVersionsResponse.builder()
+                                                            .data(List.of(ServiceNodesVersion.builder()
+                                                                                  .service(new Service("testns", "test"))
+                                                                                  .version("v1")
+                                                                                  .build()))
+                                                            .build()))
+                                            .withFixedDelay(100)
+                                            .withStatus(200)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .build();
+
+        val finder = new HttpShardedServiceFinderBuilder<NodeData>()
+                .withClientConfig(clientConfig)
+                .withNamespace("testns")
+                .withServiceName("test")
+                .withObjectMapper(MAPPER)
+                .withDeserializer(data -> {
+                    try {
+                        return MAPPER.readValue(data, new TypeReference<ServiceNodesResponse<NodeData>>() {});
+                    }
+                    catch (IOException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                })
+                .withShardSelector((criteria, registry) -> registry.nodeList())
+                .withNodeRefreshIntervalMs(60_000)
+                .withWatch()
+                .build();
+        finder.start();
+        RangerTestUtils.sleepUntilFinderStarts(finder);
+        Assertions.assertNotNull(finder.get(nodeData -> true).orElse(null));
+        //Refresh interval is far too long for these to come from polling
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> findAll(getRequestedFor(urlPathEqualTo("/ranger/nodes/v1/testns/test"))).size() > 2);
+        verify(moreThanOrExactly(1), postRequestedFor(urlPathEqualTo("/ranger/nodes/v1/watch")));
+        finder.stop();
+    }
+
+    @Test
+    void testSmileNodeFetch(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        val node = ServiceNode.<NodeData>builder().host("127.0.0.1").port(80).nodeData(new NodeData("testNode")).build();
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+        val payload = MAPPER.copyWith(new SmileFactory()).writeValueAsBytes(
+                ServiceNodesResponse.<NodeData>builder()
+                        .data(Collections.singletonList(node))
+                        .build());
+        stubFor(get(urlPathEqualTo("/ranger/nodes/v1/testns/test"))
+                        .withHeader("Accept", containing(RangerMediaTypes.APPLICATION_SMILE))
+                        .willReturn(aResponse()
+                                            .withHeader("Content-Type", RangerMediaTypes.APPLICATION_SMILE)
+                                            .withBody(payload)
+                                            .withStatus(200)));
+        val clientConfig = HttpClientConfig.builder()
+                .host("127.0.0.1")
+                .port(wireMockRuntimeInfo.getHttpPort())
+                .connectionTimeoutMs(30_000)
+                .operationTimeoutMs(30_000)
+                .smileEncoding(true)
+                .build();
+        try (val communicator = RangerHttpUtils.<NodeData>httpClient(clientConfig, MAPPER)) {
+            Assertions.assertEquals(
+                    List.of(node),
+                    communicator.listNodes(new Service("testns", "test"),
+                                           new HTTPSmileResponseDataDeserializer<>(
+                                                   MAPPER, new TypeReference<ServiceNodesResponse<NodeData>>() {})));
+        }
+    }
+}
@@ -129,6 +129,6 @@ public abstract class RangerServerBundle<
         */
         environment.healthChecks().register("rotation-check", new RotationCheck(rotationStatus));
         healthChecks.forEach(healthCheck -> environment.healthChecks().register(healthCheck.getClass().getName(), healthCheck));
-        environment.jersey().register(new RangerResource<>(hubs));
+        environment.jersey().register(new RangerResource<>(hubs, mapper));
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.util.NodeFingerprints;
+import io.appform.ranger.http.response.model.GenericResponse;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized node list responses per service, kept along with a gzipped copy so that serving one is only a buffer
+ * write. A snapshot is rebuilt only once a registry it was built from has been updated, which is detected using the
+ * last update stamps of the registries of the service across hubs. Each snapshot is serialized into a
+ * {@link ResponseFormat} the first time it is asked for in it. Registries never modify nodes they have handed out,
+ * so a snapshot serialized after it was built still matches the version computed when building it.
+ */
+class NodeSnapshotCache<T> {
+    private final Map<ResponseFormat, ObjectMapper> mappers;
+    private final BiFunction<Service, Boolean, long[]> lastUpdates;
+    private final BiFunction<Service, Boolean, List<ServiceNode<T>>> nodes;
+    private final Map<SnapshotKey, NodeSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param mappers     Mappers to serialize responses with, for each response format
+     * @param lastUpdates Last update stamps of the registries of a service in the hubs the response is built from
+     * @param nodes       Nodes to be sent for a service
+     */
+    NodeSnapshotCache(
+            Map<ResponseFormat, ObjectMapper> mappers,
+            BiFunction<Service, Boolean, long[]> lastUpdates,
+            BiFunction<Service, Boolean, List<ServiceNode<T>>> nodes) {
+        this.mappers = mappers;
+        this.lastUpdates = lastUpdates;
+        this.nodes = nodes;
+    }
+
+    NodeSnapshot get(Service service, boolean skipDataFromReplicationSources) {
+        val key = new SnapshotKey(service, skipDataFromReplicationSources);
+        //Read before the nodes, so a snapshot is never older than the stamps it is stored against
+        val updates = lastUpdates.apply(service, skipDataFromReplicationSources);
+        val existing = snapshots.get(key);
+        if (null != existing && Arrays.equals(existing.getLastUpdates(), updates)) {
+            return existing;
+        }
+        val snapshot = build(nodes.apply(service, skipDataFromReplicationSources), updates);
+        //Services not known to all hubs are not cached, so lookups for random names do not fill the cache up
+        if (Arrays.stream(updates).allMatch(update -> update >= 0)) {
+            snapshots.put(key, snapshot);
+        }
+        else {
+            snapshots.remove(key);
+        }
+        return snapshot;
+    }
+
+    EncodedResponse encoded(NodeSnapshot snapshot, ResponseFormat format) {
+        return snapshot.getEncoded().computeIfAbsent(format, key -> encode(snapshot.getResponse(), key));
+    }
+
+    private NodeSnapshot build(List<ServiceNode<T>> serviceNodes, long[] updates) {
+        return new NodeSnapshot(updates,
+                                Long.toHexString(NodeFingerprints.snapshotFingerprint(serviceNodes)),
+                                Long.toHexString(NodeFingerprints.fingerprint(serviceNodes)),
+                                GenericResponse.<Collection<ServiceNode<T>>>builder()
+                                        .data(serviceNodes)
+                                        .build(),
+                                Collections.synchronizedMap(new EnumMap<>(ResponseFormat.class)));
+    }
+
+    private EncodedResponse encode(Object response, ResponseFormat format) {
+        try {
+            val data = mappers.get(format).writeValueAsBytes(response);
+            return new EncodedResponse(data, gzip(data));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize node list", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        val output = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (val gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * A node list response along with its serialized forms
+     * <ul>
+     *     <li>version: Covers the nodes and their timestamps</li>
+     *     <li>contentVersion: Covers the nodes but not their timestamps</li>
+     * </ul>
+     */
+    @Value
+    static class NodeSnapshot {
+        long[] lastUpdates;
+        String version;
+        String contentVersion;
+        Object response;
+        @Getter(AccessLevel.PRIVATE)
+        Map<ResponseFormat, EncodedResponse> encoded;
+    }
+
+    /**
+     * A node list response serialized in one of the response formats
+     */
+    @Value
+    static class EncodedResponse {
+        byte[] data;
+        byte[] gzipped;
+    }
+
+    @Value
+    private static class SnapshotKey {
+        Service service;
+        boolean skipDataFromReplicationSources;
+    }
+}
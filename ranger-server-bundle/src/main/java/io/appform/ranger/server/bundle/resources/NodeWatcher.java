@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNodesVersion;
+import io.appform.ranger.http.response.model.GenericResponse;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.ws.rs.container.AsyncResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Holds long polling watch requests till the node list of one of the watched services changes or the watch times
+ * out. Pending watches are checked periodically on a single thread. The version of a service is computed only once
+ * per check, however many watches are waiting on it.
+ */
+@Slf4j
+class NodeWatcher {
+    private final BiFunction<Service, Boolean, String> versionProvider;
+    private final Queue<Watch> watches = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("ranger-node-watcher-%d").setDaemon(true).build());
+
+    /**
+     * @param versionProvider Computes the current version of the node list of a service, given whether data from
+     *                        replication sources is to be skipped
+     * @param checkIntervalMs Interval at which pending watches are checked for changes
+     */
+    NodeWatcher(BiFunction<Service, Boolean, String> versionProvider, long checkIntervalMs) {
+        this.versionProvider = versionProvider;
+        checker.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void watch(
+            List<ServiceNodesVersion> versions,
+            boolean skipDataFromReplicationSources,
+            long timeoutMs,
+            AsyncResponse response) {
+        val watch = new Watch(List.copyOf(versions),
+                              skipDataFromReplicationSources,
+                              System.currentTimeMillis() + timeoutMs,
+                              response);
+        val changed = changes(watch, new HashMap<>());
+        if (!changed.isEmpty() || timeoutMs <= 0) {
+            resume(watch, changed);
+            return;
+        }
+        watches.add(watch);
+    }
+
+    private void check() {
+        try {
+            val now = System.currentTimeMillis();
+            val currentVersions = new HashMap<VersionKey, String>();
+            val iterator = watches.iterator();
+            while (iterator.hasNext()) {
+                val watch = iterator.next();
+                if (watch.getResponse().isDone()) {
+                    iterator.remove();
+                    continue;
+                }
+                val changed = changes(watch, currentVersions);
+                if (!changed.isEmpty() || now >= watch.getDeadline()) {
+                    iterator.remove();
+                    resume(watch, changed);
+                }
+            }
+        }
+        catch (Exception e) {
+            log.error("Error checking node watches", e);
+        }
+    }
+
+    private List<ServiceNodesVersion> changes(Watch watch, Map<VersionKey, String> currentVersions) {
+        val changed = new ArrayList<ServiceNodesVersion>();
+        for (val known : watch.getVersions()) {
+            val current = currentVersions.computeIfAbsent(
+                    new VersionKey(known.getService(), watch.isSkipDataFromReplicationSources()),
+                    key -> versionProvider.apply(key.getService(), key.isSkipDataFromReplicationSources()));
+            if (!Objects.equals(current, known.getVersion())) {
+                changed.add(ServiceNodesVersion.builder()
+                                    .service(known.getService())
+                                    .version(current)
+                                    .build());
+            }
+        }
+        return changed;
+    }
+
+    private static void resume(Watch watch, List<ServiceNodesVersion> changed) {
+        watch.getResponse().resume(GenericResponse.<List<ServiceNodesVersion>>builder()
+                                           .data(changed)
+                                           .build());
+    }
+
+    @Value
+    private static class Watch {
+        List<ServiceNodesVersion> versions;
+        boolean skipDataFromReplicationSources;
+        long deadline;
+        AsyncResponse response;
+    }
+
+    @Value
+    private static class VersionKey {
+        Service service;
+        boolean skipDataFromReplicationSources;
+    }
+}
@@ -16,11 +16,20 @@
 package io.appform.ranger.server.bundle.resources;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.appform.ranger.client.RangerHubClient;
+import io.appform.ranger.core.model.NodeDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodes;
+import io.appform.ranger.core.model.ServiceNodesVersion;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.util.NodeFingerprints;
 import io.appform.ranger.http.response.model.GenericResponse;
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import io.dropwizard.jackson.Jackson;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
@@ -28,11 +37,23 @@ import javax.inject.Inject;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,47 +62,236 @@ import java.util.stream.Collectors;
 @Path("/ranger")
 public class RangerResource<T, R extends ServiceRegistry<T>> {
 
+    private static final long WATCH_CHECK_INTERVAL_MS = 250;
+    private static final long MAX_WATCH_TIMEOUT_MS = 60_000;
+
     private final List<RangerHubClient<T, R>> rangerHubs;
+    private final Map<ResponseFormat, ObjectMapper> mappers;
+    private final NodeSnapshotCache<T> snapshots;
+    private final NodeWatcher nodeWatcher;
 
-    @Inject
+    /**
+     * Serializes with a default Dropwizard mapper, which does not pick up customisations made to the environment's
+     * mapper. Prefer passing the environment's mapper.
+     */
     public RangerResource(List<RangerHubClient<T, R>> rangerHubs) {
+        this(rangerHubs, Jackson.newObjectMapper());
+    }
+
+    /**
+     * @param mapper Mapper of the Dropwizard environment, so that node data is serialized the same way as in
+     *               responses not served from snapshots
+     */
+    @Inject
+    public RangerResource(List<RangerHubClient<T, R>> rangerHubs, ObjectMapper mapper) {
         this.rangerHubs = rangerHubs;
+        this.mappers = new EnumMap<>(Map.of(ResponseFormat.JSON, mapper,
+                                            ResponseFormat.SMILE, mapper.copyWith(new SmileFactory())));
+        this.snapshots = new NodeSnapshotCache<>(
+                mappers,
+                this::lastUpdates,
+                (service, skipDataFromReplicationSources) -> List.copyOf(
+                        nodes(service.getNamespace(), service.getServiceName(), skipDataFromReplicationSources)));
+        this.nodeWatcher = new NodeWatcher((service, skipDataFromReplicationSources) -> snapshots.get(
+                service, skipDataFromReplicationSources).getContentVersion(),
+                                           WATCH_CHECK_INTERVAL_MS);
     }
 
+    /**
+     * Services known to the hubs. Carries a strong ETag and returns 304 if it matches the one in If-None-Match.
+     * Sent as Smile if the client prefers it, with an ETag of its own.
+     */
     @GET
     @Path("/services/v1")
+    @Produces({MediaType.APPLICATION_JSON, RangerMediaTypes.APPLICATION_SMILE})
     @Timed
-    public GenericResponse<Set<Service>> getServices(
+    public Response getServices(
+            @Context final Request request,
+            @HeaderParam(HttpHeaders.ACCEPT) final String accept,
             @QueryParam("skipDataFromReplicationSources") @DefaultValue("false") boolean skipDataFromReplicationSources) {
-        return GenericResponse.<Set<Service>>builder()
-                .data(rangerHubs.stream()
-                              .filter(hub -> !skipDataFromReplicationSources || !hub.isReplicationSource())
-                              .map(RangerHubClient::getRegisteredServices)
-                              .flatMap(Collection::stream)
-                              .collect(Collectors.toSet()))
-                .build();
+        val services = services(skipDataFromReplicationSources);
+        val format = ResponseFormat.negotiate(accept);
+        val tag = representationTag(NodeFingerprints.namesDigest(services.stream().map(Service::name).toList()),
+                                    format,
+                                    false);
+        return conditionalResponse(request, tag, HttpHeaders.ACCEPT, () -> {
+            val response = GenericResponse.<Set<Service>>builder()
+                    .data(services)
+                    .build();
+            if (format == ResponseFormat.JSON) {
+                return Response.ok(response, MediaType.APPLICATION_JSON_TYPE);
+            }
+            try {
+                return Response.ok(mappers.get(format).writeValueAsBytes(response), format.getMediaType());
+            }
+            catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Could not serialize services", e);
+            }
+        });
     }
 
+    /**
+     * Nodes of a service. Carries a strong ETag covering the nodes and their timestamps, and returns 304 if it
+     * matches the one in If-None-Match. Served from a serialized snapshot that is rebuilt only when a registry of
+     * the service gets updated, gzipped if the client accepts it. Sent as Smile if the client prefers it.
+     * Every format and content coding gets its own ETag, as they are different representations.
+     */
     @GET
     @Path("/nodes/v1/{namespace}/{serviceName}")
+    @Produces({MediaType.APPLICATION_JSON, RangerMediaTypes.APPLICATION_SMILE})
     @Timed
-    public GenericResponse<Collection<ServiceNode<T>>> getNodes(
+    public Response getNodes(
+            @Context final Request request,
+            @HeaderParam(HttpHeaders.ACCEPT) final String accept,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) final String acceptEncoding,
             @NotNull @NotEmpty @PathParam("namespace") final String namespace,
             @NotNull @NotEmpty @PathParam("serviceName") final String serviceName,
             @QueryParam("skipDataFromReplicationSources") @DefaultValue("false") boolean skipDataFromReplicationSources) {
         val service = Service.builder().namespace(namespace).serviceName(serviceName).build();
-        return GenericResponse.<Collection<ServiceNode<T>>>builder()
-                .data(rangerHubs.stream()
-                              .filter(hub -> !(skipDataFromReplicationSources && hub.isReplicationSource()))
-                              .map(hub -> hub.getAllNodes(service))
-                              .flatMap(List::stream)
-                              .collect(Collectors.toMap(node -> node.getHost() + ":" + node.getPort(),
-                                                        Function.identity(),
-                                                        (oldV, newV) ->
-                                                                oldV.getLastUpdatedTimeStamp() > newV.getLastUpdatedTimeStamp()
-                                                                ? oldV
-                                                                : newV))
-                              .values())
+        val snapshot = snapshots.get(service, skipDataFromReplicationSources);
+        val format = ResponseFormat.negotiate(accept);
+        val gzipped = ResponseFormat.quality(acceptEncoding, "gzip") > 0;
+        val tag = representationTag(snapshot.getVersion(), format, gzipped);
+        return conditionalResponse(request, tag, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING, () -> {
+            val encoded = snapshots.encoded(snapshot, format);
+            val response = gzipped
+                           ? Response.ok(encoded.getGzipped()).encoding("gzip")
+                           : Response.ok(encoded.getData());
+            return response.type(format.getMediaType());
+        });
+    }
+
+    /**
+     * Nodes of multiple services in one call. Nodes of all services known to the hubs are returned if no services
+     * are passed.
+     */
+    @POST
+    @Path("/nodes/v1/batch")
+    @Timed
+    public GenericResponse<List<ServiceNodes<T>>> getNodesBatch(
+            final List<Service> services,
+            @QueryParam("skipDataFromReplicationSources") @DefaultValue("false") boolean skipDataFromReplicationSources) {
+        val requested = null == services || services.isEmpty()
+                        ? services(skipDataFromReplicationSources)
+                        : new LinkedHashSet<>(services);
+        return GenericResponse.<List<ServiceNodes<T>>>builder()
+                .data(requested.stream()
+                              .map(service -> ServiceNodes.<T>builder()
+                                      .service(service)
+                                      .nodes(List.copyOf(nodes(service.getNamespace(),
+                                                               service.getServiceName(),
+                                                               skipDataFromReplicationSources)))
+                                      .build())
+                              .toList())
+                .build();
+    }
+
+    /**
+     * Versioned variant of {@link #getNodes(Request, String, String, String, String, boolean)}. The version is a
+     * fingerprint of the content of the node list. If it matches the one passed by the client, only the timestamps
+     * of the nodes are sent.
+     */
+    @GET
+    @Path("/nodes/v2/{namespace}/{serviceName}")
+    @Timed
+    public GenericResponse<NodeDelta<T>> getNodeDelta(
+            @NotNull @NotEmpty @PathParam("namespace") final String namespace,
+            @NotNull @NotEmpty @PathParam("serviceName") final String serviceName,
+            @QueryParam("since") final String sinceVersion,
+            @QueryParam("skipDataFromReplicationSources") @DefaultValue("false") boolean skipDataFromReplicationSources) {
+        val nodes = List.copyOf(nodes(namespace, serviceName, skipDataFromReplicationSources));
+        val version = Long.toHexString(NodeFingerprints.fingerprint(nodes));
+        if (!version.equals(sinceVersion)) {
+            return GenericResponse.<NodeDelta<T>>builder()
+                    .data(NodeDelta.snapshot(version, nodes))
+                    .build();
+        }
+        return GenericResponse.<NodeDelta<T>>builder()
+                .data(NodeDelta.<T>builder()
+                              .version(version)
+                              .heartbeats(nodes.stream()
+                                                  .collect(Collectors.toMap(ServiceNode::representation,
+                                                                            ServiceNode::getLastUpdatedTimeStamp)))
+                              .build())
                 .build();
     }
+
+    /**
+     * Long polling watch on node lists of multiple services. Returns as soon as the version of any of the passed
+     * services differs from the one sent, or with an empty list once the timeout passes. Versions cover the content
+     * of the node list but not its timestamps, so heartbeats alone do not fire a watch and are left to regular
+     * polling. They are the same as the versions of {@link #getNodeDelta(String, String, String, boolean)}.
+     * Services sent without a version are returned right away with their current one.
+     */
+    @POST
+    @Path("/nodes/v1/watch")
+    public void watchNodes(
+            @Suspended final AsyncResponse asyncResponse,
+            final List<ServiceNodesVersion> versions,
+            @QueryParam("timeoutMs") @DefaultValue("30000") long timeoutMs,
+            @QueryParam("skipDataFromReplicationSources") @DefaultValue("false") boolean skipDataFromReplicationSources) {
+        nodeWatcher.watch(null == versions ? List.of() : versions,
+                          skipDataFromReplicationSources,
+                          Math.min(Math.max(timeoutMs, 0), MAX_WATCH_TIMEOUT_MS),
+                          asyncResponse);
+    }
+
+    private long[] lastUpdates(Service service, boolean skipDataFromReplicationSources) {
+        return rangerHubs.stream()
+                .filter(hub -> !(skipDataFromReplicationSources && hub.isReplicationSource()))
+                .mapToLong(hub -> hub.getLastUpdate(service))
+                .toArray();
+    }
+
+    private Set<Service> services(boolean skipDataFromReplicationSources) {
+        return rangerHubs.stream()
+                .filter(hub -> !skipDataFromReplicationSources || !hub.isReplicationSource())
+                .map(RangerHubClient::getRegisteredServices)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return Tag for a representation of a version. Uncompressed JSON is tagged with the version as is.
+     */
+    private static EntityTag representationTag(String version, ResponseFormat format, boolean gzipped) {
+        return new EntityTag(version + format.getTagSuffix() + (gzipped ? "-gz" : ""));
+    }
+
+    /**
+     * @param vary Request headers the representation depends on. Sent on 304s as well, as caches key on it.
+     */
+    private static Response conditionalResponse(
+            Request request,
+            EntityTag tag,
+            String vary,
+            Supplier<Response.ResponseBuilder> response) {
+        final Response.ResponseBuilder notModified = null == request ? null : request.evaluatePreconditions(tag);
+        if (null != notModified) {
+            return notModified.tag(tag).header(HttpHeaders.VARY, vary).build();
+        }
+        return response.get()
+                .tag(tag)
+                .header(HttpHeaders.VARY, vary)
+                .build();
+    }
+
+
+    private Collection<ServiceNode<T>> nodes(
+            String namespace,
+            String serviceName,
+            boolean skipDataFromReplicationSources) {
+        val service = Service.builder().namespace(namespace).serviceName(serviceName).build();
+        return rangerHubs.stream()
+                .filter(hub -> !(skipDataFromReplicationSources && hub.isReplicationSource()))
+                .map(hub -> hub.getAllNodes(service))
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(node -> node.getHost() + ":" + node.getPort(),
+                                          Function.identity(),
+                                          (oldV, newV) ->
+                                                  oldV.getLastUpdatedTimeStamp() > newV.getLastUpdatedTimeStamp()
+                                                  ? oldV
+                                                  : newV))
+                .values();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import lombok.Getter;
+import lombok.val;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Encodings responses can be sent in, negotiated using the Accept and Accept-Encoding headers of the request
+ */
+@Getter
+enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON, ""),
+    SMILE(RangerMediaTypes.APPLICATION_SMILE, "-smile");
+
+    private final String mediaType;
+    /**
+     * Appended to entity tags, so that representations in different formats never share a tag
+     */
+    private final String tagSuffix;
+
+    ResponseFormat(String mediaType, String tagSuffix) {
+        this.mediaType = mediaType;
+        this.tagSuffix = tagSuffix;
+    }
+
+    /**
+     * @return Smile if the client prefers it at least as much as JSON, JSON otherwise
+     */
+    static ResponseFormat negotiate(String accept) {
+        val smile = quality(accept, RangerMediaTypes.APPLICATION_SMILE);
+        return smile > 0 && smile >= quality(accept, MediaType.APPLICATION_JSON)
+               ? SMILE
+               : JSON;
+    }
+
+    /**
+     * @return Quality value of a token in an Accept or Accept-Encoding header, 0 if not listed
+     */
+    static double quality(String header, String token) {
+        if (null == header) {
+            return 0;
+        }
+        for (val entry : header.split(",")) {
+            val parts = entry.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(token)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                val parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2));
+                    }
+                    catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+        return 0;
+    }
+}
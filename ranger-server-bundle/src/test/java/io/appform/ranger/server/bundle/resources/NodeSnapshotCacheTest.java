@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+class NodeSnapshotCacheTest {
+
+    private static final Service SERVICE = RangerTestUtils.getService("test-ns", "test-s");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicLong lastUpdate = new AtomicLong(1);
+    private final AtomicInteger builds = new AtomicInteger();
+    private volatile List<ServiceNode<TestNodeData>> nodes = nodes(1000L);
+
+    private final NodeSnapshotCache<TestNodeData> cache = new NodeSnapshotCache<>(
+            Map.of(ResponseFormat.JSON, MAPPER, ResponseFormat.SMILE, MAPPER.copyWith(new SmileFactory())),
+            (service, skipDataFromReplicationSources) -> new long[]{
+                    SERVICE.equals(service) ? lastUpdate.get() : -1},
+            (service, skipDataFromReplicationSources) -> {
+                builds.incrementAndGet();
+                return SERVICE.equals(service) ? nodes : List.of();
+            });
+
+    @Test
+    void testSnapshotIsRebuiltOnlyOnUpdate() {
+        val snapshot = cache.get(SERVICE, false);
+        Assertions.assertSame(snapshot, cache.get(SERVICE, false));
+        Assertions.assertEquals(1, builds.get());
+
+        //A heartbeat changes the version, but not the content version
+        nodes = nodes(2000L);
+        lastUpdate.incrementAndGet();
+        val refreshed = cache.get(SERVICE, false);
+        Assertions.assertNotSame(snapshot, refreshed);
+        Assertions.assertEquals(2, builds.get());
+        Assertions.assertNotEquals(snapshot.getVersion(), refreshed.getVersion());
+        Assertions.assertEquals(snapshot.getContentVersion(), refreshed.getContentVersion());
+
+        //Kept separately from snapshots without replication sources
+        Assertions.assertNotSame(refreshed, cache.get(SERVICE, true));
+    }
+
+    @Test
+    void testEachFormatIsEncodedOnce() throws IOException {
+        val snapshot = cache.get(SERVICE, false);
+        val json = cache.encoded(snapshot, ResponseFormat.JSON);
+        Assertions.assertSame(json, cache.encoded(snapshot, ResponseFormat.JSON));
+        val smile = cache.encoded(snapshot, ResponseFormat.SMILE);
+        Assertions.assertSame(smile, cache.encoded(snapshot, ResponseFormat.SMILE));
+
+        val fromJson = MAPPER.readTree(json.getData());
+        Assertions.assertEquals("localhost", fromJson.at("/data/0/host").asText());
+        Assertions.assertEquals(fromJson, MAPPER.copyWith(new SmileFactory()).readTree(smile.getData()));
+    }
+
+    @Test
+    void testGzippedCopyMatchesData() throws IOException {
+        val snapshot = cache.get(SERVICE, false);
+        for (val format : ResponseFormat.values()) {
+            val encoded = cache.encoded(snapshot, format);
+            try (val gzip = new GZIPInputStream(new ByteArrayInputStream(encoded.getGzipped()))) {
+                Assertions.assertArrayEquals(encoded.getData(), gzip.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void testUnknownServicesAreNotCached() {
+        val unknown = RangerTestUtils.getService("test-ns", "unknown");
+        val snapshot = cache.get(unknown, false);
+        Assertions.assertTrue(MAPPER.valueToTree(snapshot.getResponse()).get("data").isEmpty());
+        Assertions.assertNotSame(snapshot, cache.get(unknown, false));
+        Assertions.assertEquals(2, builds.get());
+    }
+
+    private static List<ServiceNode<TestNodeData>> nodes(long timestamp) {
+        return List.of(ServiceNode.<TestNodeData>builder()
+                               .host("localhost")
+                               .port(9200)
+                               .nodeData(TestNodeData.builder().shardId(1).build())
+                               .lastUpdatedTimeStamp(timestamp)
+                               .build());
+    }
+}
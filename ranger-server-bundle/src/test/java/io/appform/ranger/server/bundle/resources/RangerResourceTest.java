@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.client.RangerHubClient;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import io.dropwizard.testing.junit5.ResourceExtension;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RangerResourceTest {
+
+    private static final Service SERVICE = RangerTestUtils.getService("test-ns", "test-s");
+
+    private final Set<Service> services = new HashSet<>();
+    private volatile List<ServiceNode<TestNodeData>> nodes = List.of();
+    private final AtomicLong lastUpdate = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    private final RangerHubClient<TestNodeData, ListBasedServiceRegistry<TestNodeData>> hub
+            = mock(RangerHubClient.class);
+
+    private final ResourceExtension resources = ResourceExtension.builder()
+            .bootstrapLogging(false)
+            .addResource(new RangerResource<>(List.of(hub), new ObjectMapper()))
+            .build();
+
+    @BeforeEach
+    void setup() throws Throwable {
+        resources.before();
+        when(hub.getRegisteredServices()).thenAnswer(invocation -> Set.copyOf(services));
+        when(hub.getAllNodes(any(Service.class))).thenAnswer(invocation -> nodes);
+        when(hub.getLastUpdate(any(Service.class))).thenAnswer(invocation -> lastUpdate.get());
+        services.add(SERVICE);
+        update(1000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Throwable {
+        resources.after();
+    }
+
+    @Test
+    void testServicesNotModified() {
+        val first = services(null);
+        Assertions.assertEquals(200, first.getStatus());
+        val tag = first.getHeaderString(HttpHeaders.ETAG);
+        Assertions.assertNotNull(tag);
+        Assertions.assertEquals(HttpHeaders.ACCEPT, first.getHeaderString(HttpHeaders.VARY));
+
+        val notModified = services(tag);
+        Assertions.assertEquals(304, notModified.getStatus());
+        Assertions.assertEquals(tag, notModified.getHeaderString(HttpHeaders.ETAG));
+        Assertions.assertEquals(HttpHeaders.ACCEPT, notModified.getHeaderString(HttpHeaders.VARY));
+        Assertions.assertFalse(notModified.hasEntity());
+
+        services.add(RangerTestUtils.getService("test-ns", "other"));
+        val changed = services(tag);
+        Assertions.assertEquals(200, changed.getStatus());
+        Assertions.assertNotEquals(tag, changed.getHeaderString(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testServicesWithCollidingHashCodesGetDifferentTags() {
+        services.clear();
+        services.add(RangerTestUtils.getService("ns", "Aa"));
+        val aa = services(null).getHeaderString(HttpHeaders.ETAG);
+        services.clear();
+        services.add(RangerTestUtils.getService("ns", "BB"));
+        Assertions.assertNotEquals(aa, services(null).getHeaderString(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testNodesNotModified() {
+        val first = nodes(null);
+        Assertions.assertEquals(200, first.getStatus());
+        val tag = first.getHeaderString(HttpHeaders.ETAG);
+        Assertions.assertNotNull(tag);
+        Assertions.assertTrue(first.readEntity(String.class).contains("localhost"));
+
+        val notModified = nodes(tag);
+        Assertions.assertEquals(304, notModified.getStatus());
+        Assertions.assertEquals(tag, notModified.getHeaderString(HttpHeaders.ETAG));
+        Assertions.assertEquals(HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING,
+                                notModified.getHeaderString(HttpHeaders.VARY));
+
+        //A heartbeat changes the timestamps, and with them the tag
+        update(2000L);
+        val refreshed = nodes(tag);
+        Assertions.assertEquals(200, refreshed.getStatus());
+        Assertions.assertNotEquals(tag, refreshed.getHeaderString(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testEachRepresentationGetsItsOwnTag() {
+        val json = nodes(null).getHeaderString(HttpHeaders.ETAG);
+        val smile = resources.target("/ranger/nodes/v1/test-ns/test-s")
+                .request(RangerMediaTypes.APPLICATION_SMILE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                .header(HttpHeaders.IF_NONE_MATCH, json)
+                .get();
+        Assertions.assertEquals(200, smile.getStatus());
+        Assertions.assertEquals(RangerMediaTypes.APPLICATION_SMILE, smile.getMediaType().toString());
+        Assertions.assertEquals(json.replaceAll("\"$", "-smile\""), smile.getHeaderString(HttpHeaders.ETAG));
+
+        val gzipped = resources.target("/ranger/nodes/v1/test-ns/test-s")
+                .request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .get();
+        Assertions.assertEquals("gzip", gzipped.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals(json.replaceAll("\"$", "-gz\""), gzipped.getHeaderString(HttpHeaders.ETAG));
+    }
+
+    private Response services(String ifNoneMatch) {
+        val request = resources.target("/ranger/services/v1").request();
+        if (null != ifNoneMatch) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request.get();
+    }
+
+    private Response nodes(String ifNoneMatch) {
+        val request = resources.target("/ranger/nodes/v1/test-ns/test-s")
+                .request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity");
+        if (null != ifNoneMatch) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request.get();
+    }
+
+    private void update(long timestamp) {
+        nodes = List.of(ServiceNode.<TestNodeData>builder()
+                                .host("localhost")
+                                .port(9200)
+                                .nodeData(TestNodeData.builder().shardId(1).build())
+                                .lastUpdatedTimeStamp(timestamp)
+                                .build());
+        lastUpdate.incrementAndGet();
+    }
+}
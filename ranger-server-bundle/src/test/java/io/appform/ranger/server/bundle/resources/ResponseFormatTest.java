@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.server.bundle.resources;
+
+import io.appform.ranger.http.response.model.RangerMediaTypes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.MediaType;
+
+class ResponseFormatTest {
+
+    @Test
+    void testQualityValues() {
+        Assertions.assertEquals(0, ResponseFormat.quality(null, "gzip"));
+        Assertions.assertEquals(1, ResponseFormat.quality("gzip, deflate", "gzip"));
+        Assertions.assertEquals(1, ResponseFormat.quality("deflate, GZIP", "gzip"));
+        Assertions.assertEquals(0.5, ResponseFormat.quality("deflate;q=1.0, gzip ; q=0.5", "gzip"));
+        Assertions.assertEquals(0, ResponseFormat.quality("gzip;q=0", "gzip"));
+        Assertions.assertEquals(0, ResponseFormat.quality("gzip;q=high", "gzip"));
+        Assertions.assertEquals(0, ResponseFormat.quality("deflate", "gzip"));
+        Assertions.assertEquals(1, ResponseFormat.quality("gzip;level=1", "gzip"));
+    }
+
+    @Test
+    void testNegotiation() {
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(MediaType.APPLICATION_JSON));
+        Assertions.assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate(RangerMediaTypes.APPLICATION_SMILE));
+        //Smile is preferred on ties
+        Assertions.assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate(
+                MediaType.APPLICATION_JSON + ", " + RangerMediaTypes.APPLICATION_SMILE));
+        Assertions.assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate(
+                MediaType.APPLICATION_JSON + ";q=0.8, " + RangerMediaTypes.APPLICATION_SMILE + ";q=0.8"));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(
+                MediaType.APPLICATION_JSON + ", " + RangerMediaTypes.APPLICATION_SMILE + ";q=0.5"));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(
+                RangerMediaTypes.APPLICATION_SMILE + ";q=0"));
+    }
+
+    @Test
+    void testTagSuffixes() {
+        Assertions.assertEquals("", ResponseFormat.JSON.getTagSuffix());
+        Assertions.assertNotEquals(ResponseFormat.JSON.getTagSuffix(), ResponseFormat.SMILE.getTagSuffix());
+    }
+}
@@ -15,18 +15,25 @@
  */
 package io.appform.ranger.client.zk;
 
+import com.google.common.base.Preconditions;
 import io.appform.ranger.client.AbstractRangerHubClient;
 import io.appform.ranger.core.finderhub.ServiceDataSource;
 import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceDataSource;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceFinderHubBuilder;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 @Slf4j
 @Getter
 @SuperBuilder
@@ -37,24 +44,59 @@ public abstract class AbstractRangerZKHubClient<T, R extends ServiceRegistry<T>,
     private final String connectionString;
     private final CuratorFramework curatorFramework;
 
+    /**
+     * Keep one namespace wide node cache, backed by a persistent recursive watch, and serve the service list and all
+     * finders from it instead of polling zookeeper per service. Needs curatorFramework to be provided.
+     * Finders still refresh on nodeRefreshTimeMs, reading from the cache, so that nodes which stop sending
+     * heartbeats are dropped as stale even though no watch event fires for them.
+     */
+    private final boolean enableNodeCache;
+    //Created on first use, not part of the builder
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<ZkNodeCache> nodeCache = new AtomicReference<>();
+
     @Override
     protected ServiceFinderHub<T, R> buildHub() {
         return new ZkServiceFinderHubBuilder<T, R>()
                 .withCuratorFramework(curatorFramework)
                 .withConnectionString(connectionString)
                 .withNamespace(getNamespace())
+                .withNodeCache(nodeCache())
                 .withRefreshFrequencyMs(getNodeRefreshTimeMs())
                 .withServiceDataSource(getServiceDataSource())
                 .withServiceFinderFactory(getFinderFactory())
+                .withRefreshScheduler(getRefreshScheduler())
                 .withHubStartTimeout(getHubStartTimeoutMs())
+                .withStartDegraded(isStartDegraded())
                 .withServiceRefreshTimeout(getServiceRefreshTimeoutMs())
                 .withExcludedServices(getExcludedServices())
                 .build();
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        val cache = nodeCache.get();
+        if (null != cache) {
+            cache.close();
+        }
+    }
+
     @Override
     protected ServiceDataSource getDefaultDataSource() {
-        return new ZkServiceDataSource(getNamespace(), connectionString, curatorFramework);
+        return new ZkServiceDataSource(getNamespace(), connectionString, curatorFramework, nodeCache());
+    }
+
+    /**
+     * @return Node cache shared by the service data source and the finders, null if not enabled
+     */
+    protected ZkNodeCache nodeCache() {
+        if (!enableNodeCache) {
+            return null;
+        }
+        Preconditions.checkNotNull(curatorFramework, "curatorFramework is needed for the node cache");
+        return nodeCache.updateAndGet(
+                cache -> null != cache ? cache : new ZkNodeCache(curatorFramework, PathBuilder.REGISTERED_SERVICES_PATH));
     }
 
 }
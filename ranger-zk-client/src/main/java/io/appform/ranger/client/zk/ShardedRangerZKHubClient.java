@@ -48,6 +48,10 @@ public class ShardedRangerZKHubClient<T>
                 .deserializer(getDeserializer())
                 .shardSelector(shardSelector)
                 .nodeSelector(nodeSelector)
+                .refreshScheduler(getRefreshScheduler())
+                .refreshIntervalPolicy(getRefreshIntervalPolicy())
+                .initialUpdateTimeoutMs(getServiceRefreshTimeoutMs())
+                .nodeCache(nodeCache())
                 .build();
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.common;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.CuratorCache;
+import org.apache.curator.framework.recipes.cache.CuratorCacheListener;
+import org.apache.curator.utils.ZKPaths;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In memory mirror of all znodes under a root path, kept up to date by a {@link CuratorCache} using a persistent
+ * recursive watch. Children are indexed by their parent path so that the instances of a service can be looked up
+ * without scanning the whole mirror. Listeners registered for a path are notified whenever the znode at that path or
+ * any of its children is created, changed or deleted.
+ */
+@Slf4j
+public class ZkNodeCache {
+    @Getter
+    private final String rootPath;
+    private final CuratorCache cache;
+    //Parent path to its children, each keyed by full path
+    private final Map<String, Map<String, ChildData>> children = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public ZkNodeCache(CuratorFramework curatorFramework, String rootPath) {
+        this.rootPath = rootPath;
+        this.cache = CuratorCache.build(curatorFramework, rootPath);
+        this.cache.listenable()
+                .addListener(CuratorCacheListener.builder()
+                                     .forAll(this::onEvent)
+                                     .forInitialized(this::onInitialized)
+                                     .build());
+    }
+
+    /**
+     * Start the cache if it has not been started already and wait for the initial load to complete
+     * @return true if the cache got initialized within the timeout
+     */
+    public boolean start(long initializationTimeoutMs) throws InterruptedException {
+        Preconditions.checkState(!closed.get(), "Node cache for %s has been closed", rootPath);
+        if (started.compareAndSet(false, true)) {
+            log.info("Starting node cache for path: {}", rootPath);
+            cache.start();
+        }
+        return initialized.await(initializationTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            log.info("Closing node cache for path: {}", rootPath);
+            cache.close();
+        }
+    }
+
+    public boolean isInitialized() {
+        return initialized.getCount() == 0;
+    }
+
+    /**
+     * @return Current children of the znode at the given path, keyed by full path
+     */
+    public Map<String, ChildData> children(String path) {
+        return Collections.unmodifiableMap(children.getOrDefault(path, Collections.emptyMap()));
+    }
+
+    public void addListener(String path, Runnable listener) {
+        listeners.computeIfAbsent(path, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removeListener(String path, Runnable listener) {
+        listeners.getOrDefault(path, Collections.emptyList()).remove(listener);
+    }
+
+    private void onEvent(CuratorCacheListener.Type type, ChildData oldData, ChildData data) {
+        val path = type == CuratorCacheListener.Type.NODE_DELETED ? oldData.getPath() : data.getPath();
+        val parent = rootPath.equals(path) ? null : ZKPaths.getPathAndNode(path).getPath();
+        if (type == CuratorCacheListener.Type.NODE_DELETED) {
+            children.remove(path);
+            if (null != parent) {
+                children.computeIfPresent(parent, (key, siblings) -> {
+                    siblings.remove(path);
+                    return siblings;
+                });
+            }
+        }
+        else if (null != parent) {
+            children.computeIfAbsent(parent, key -> new ConcurrentHashMap<>()).put(path, data);
+        }
+        if (isInitialized()) {
+            notifyListeners(path);
+            if (null != parent) {
+                notifyListeners(parent);
+            }
+        }
+    }
+
+    private void onInitialized() {
+        log.info("Node cache for path {} initialized", rootPath);
+        initialized.countDown();
+        listeners.keySet().forEach(this::notifyListeners);
+    }
+
+    private void notifyListeners(String path) {
+        listeners.getOrDefault(path, Collections.emptyList()).forEach(listener -> {
+            try {
+                listener.run();
+            }
+            catch (Exception e) {
+                log.error("Error notifying listener for path: " + path, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.util.Exceptions;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
+import io.appform.ranger.zookeeper.common.ZkNodeDataStoreConnector;
+import io.appform.ranger.zookeeper.common.ZkStoreType;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.ZkNodeDataSource.CachedNode;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads nodes of a service from a {@link ZkNodeCache} instead of going to zookeeper on every refresh. The cache is
+ * kept up to date by a persistent watch, so a refresh only deserializes znodes that changed since the last one.
+ * Pair with {@link io.appform.ranger.zookeeper.servicefinder.signals.ZkNodeCacheRegistryUpdateSignal} to update the
+ * registry as soon as the cache changes.
+ */
+@Slf4j
+public class ZkCachedNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends ZkNodeDataStoreConnector<T> implements NodeDataSource<T, D> {
+    @Getter
+    private final ZkNodeCache nodeCache;
+    private final boolean ownsCache;
+    private final long initializationTimeoutMs;
+    private final String servicePath;
+    //Child path to the last deserialized version of it
+    private final Map<String, CachedNode<T>> cachedNodes = new HashMap<>();
+
+    /**
+     * Creates a data source with its own cache on the service path
+     */
+    public ZkCachedNodeDataSource(
+            Service service,
+            CuratorFramework curatorFramework,
+            long initializationTimeoutMs) {
+        this(service,
+             curatorFramework,
+             new ZkNodeCache(curatorFramework, PathBuilder.servicePath(service)),
+             true,
+             initializationTimeoutMs);
+    }
+
+    /**
+     * Creates a data source reading from a cache shared with other services. The cache needs to be rooted at the
+     * service path or one of its ancestors and is not closed when this data source is stopped.
+     */
+    public ZkCachedNodeDataSource(
+            Service service,
+            CuratorFramework curatorFramework,
+            ZkNodeCache nodeCache,
+            long initializationTimeoutMs) {
+        this(service, curatorFramework, nodeCache, false, initializationTimeoutMs);
+    }
+
+    private ZkCachedNodeDataSource(
+            Service service,
+            CuratorFramework curatorFramework,
+            ZkNodeCache nodeCache,
+            boolean ownsCache,
+            long initializationTimeoutMs) {
+        super(service, curatorFramework, ZkStoreType.SOURCE);
+        this.nodeCache = nodeCache;
+        this.ownsCache = ownsCache;
+        this.initializationTimeoutMs = initializationTimeoutMs;
+        this.servicePath = PathBuilder.servicePath(service);
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            log.info("Start called on already initialized data source for service {}. Ignoring.",
+                     service.getServiceName());
+            return;
+        }
+        super.start();
+        try {
+            if (!nodeCache.start(initializationTimeoutMs)) {
+                Exceptions.illegalState("Node cache for service " + service.getServiceName()
+                                                + " did not initialize in " + initializationTimeoutMs + " ms");
+            }
+        }
+        catch (InterruptedException e) {
+            log.error("Thread interrupted while waiting for node cache of service {}", service.getServiceName());
+            Thread.currentThread().interrupt();
+            Exceptions.illegalState("Could not start ZK data source for service: "
+                                            + service.getServiceName()
+                                            + " as thread was interrupted");
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (ownsCache) {
+            nodeCache.close();
+        }
+        super.stop();
+    }
+
+    @Override
+    public synchronized Optional<List<ServiceNode<T>>> refresh(D deserializer) {
+        if (!isStarted() || isStopped()) {
+            log.warn("Data source is not running for service: {}. No nodes will be returned.",
+                     service.getServiceName());
+            return Optional.empty();
+        }
+        Preconditions.checkNotNull(deserializer, "Deserializer has not been set for node data");
+        if (!nodeCache.isInitialized()) {
+            log.warn("Node cache is not initialized yet. Ignoring refresh request for service: {}",
+                     service.getServiceName());
+            return Optional.empty();
+        }
+        val nodes = new ArrayList<ServiceNode<T>>();
+        val current = new HashMap<String, CachedNode<T>>();
+        nodeCache.children(servicePath).forEach((path, data) -> {
+            val cached = cachedNodes.get(path);
+            val mzxid = data.getStat().getMzxid();
+            val node = (null != cached && cached.getMzxid() == mzxid)
+                       ? cached
+                       : ZkNodeDataSource.cachedNode(deserializer, mzxid, data.getData(), cached);
+            if (null != node) {
+                current.put(path, node);
+                nodes.add(node.publishedNode());
+            }
+        });
+        cachedNodes.keySet().retainAll(current.keySet());
+        cachedNodes.putAll(current);
+        log.debug("Found {} nodes for [{}] in node cache", nodes.size(), service.getServiceName());
+        return Optional.of(nodes);
+    }
+}
@@ -16,79 +16,95 @@
 package io.appform.ranger.zookeeper.servicefinder;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.NodeDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.zookeeper.common.ZkNodeDataStoreConnector;
 import io.appform.ranger.zookeeper.common.ZkStoreType;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
 import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.data.Stat;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- *
+ * Reads nodes of a service from zookeeper. The last read version of every child znode is cached along with the
+ * deserialized node, so that a refresh only fetches {@link Stat}s for all children and reads and deserializes the
+ * znodes whose modification zxid has moved since.
  */
 @Slf4j
 public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends ZkNodeDataStoreConnector<T> implements NodeDataSource<T, D> {
+    public static final int DEFAULT_MAX_IN_FLIGHT_READS = 256;
+    public static final long DEFAULT_READ_TIMEOUT_MS = 30_000;
+    private static final byte[] LAST_UPDATED_FIELD = "\"lastUpdatedTimeStamp\":".getBytes(StandardCharsets.UTF_8);
+
+    //Child znode name to the last read version of it
+    private final Map<String, CachedNode<T>> nodeCache = new HashMap<>();
+    //Children as of the last delta that was returned, used to compute the next one
+    private Map<String, CachedNode<T>> reportedChildren = Collections.emptyMap();
+    private String deltaVersion;
+    private final int maxInFlightReads;
+    private final long readTimeoutMs;
 
     public ZkNodeDataSource(
             Service service,
             CuratorFramework curatorFramework) {
-        super(service, curatorFramework, ZkStoreType.SOURCE);
+        this(service, curatorFramework, DEFAULT_MAX_IN_FLIGHT_READS, DEFAULT_READ_TIMEOUT_MS);
     }
 
-    @Override
-    public Optional<List<ServiceNode<T>>> refresh(D deserializer) {
-        return checkForUpdateOnZookeeper(deserializer);
+    public ZkNodeDataSource(
+            Service service,
+            CuratorFramework curatorFramework,
+            int maxInFlightReads,
+            long readTimeoutMs) {
+        super(service, curatorFramework, ZkStoreType.SOURCE);
+        Preconditions.checkArgument(maxInFlightReads > 0, "maxInFlightReads must be positive");
+        Preconditions.checkArgument(readTimeoutMs > 0, "readTimeoutMs must be positive");
+        this.maxInFlightReads = maxInFlightReads;
+        this.readTimeoutMs = readTimeoutMs;
     }
 
-    private Optional<List<ServiceNode<T>>> checkForUpdateOnZookeeper(D deserializer) {
-        if (!isStarted()) {
-            log.warn("Data source is not yet started for service: {}. No nodes will be returned.",
-                     service.getServiceName());
-            return Optional.empty();
-        }
-        if (isStopped()) {
-            log.warn("Data source is  stopped already for service: {}. No nodes will be returned.",
-                     service.getServiceName());
+    @Override
+    public synchronized Optional<List<ServiceNode<T>>> refresh(D deserializer) {
+        if (!canRead(deserializer)) {
             return Optional.empty();
         }
-        Preconditions.checkNotNull(deserializer, "Deserializer has not been set for node data");
         try {
-            val serviceName = service.getServiceName();
-            if (!isActive()) {
-                log.warn("ZK connection is not active. Ignoring refresh request for service: {}",
-                         service.getServiceName());
-                return Optional.empty();
-            }
-            val parentPath = PathBuilder.servicePath(service);
-            log.debug("Looking for node list of [{}]", serviceName);
-            val children = curatorFramework.getChildren().forPath(parentPath);
-            List<ServiceNode<T>> nodes = Lists.newArrayListWithCapacity(children.size());
-            log.debug("Found {} nodes for [{}]", children.size(), serviceName);
-            for (val child : children) {
-                byte[] data = readChild(parentPath, child).orElse(null);
-                if (data == null || data.length == 0) {
-                    continue;
-                }
-                val node = deserializer.deserialize(data);
-                nodes.add(node);
-            }
-            return Optional.of(nodes);
+            val children = readChildren(deserializer);
+            return Optional.of(children.getNodes()
+                                       .values()
+                                       .stream()
+                                       .map(CachedNode::publishedNode)
+                                       .toList());
         }
         catch (NoNodeException e) {
             log.error(
                     "No ZK container node found for service: {}. Will return empty list for now. Please doublecheck service name",
                     service.getServiceName());
+            nodeCache.clear();
             return Optional.of(Collections.emptyList());
         }
         catch (Exception e) {
@@ -98,22 +114,352 @@ public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends Zk
         }
     }
 
-    private Optional<byte[]> readChild(String parentPath, String child) throws Exception {
-        final String path = String.format("%s/%s", parentPath, child);
+    /**
+     * Compares the children read now with the ones returned in the last delta. Children whose content changed are
+     * sent as upserts, ones that only had their last updated time stamp rewritten are sent as heartbeats. The version
+     * is the highest zxid seen across the service znode and its children.
+     */
+    @Override
+    public synchronized Optional<NodeDelta<T>> refreshDelta(D deserializer, String sinceVersion) {
+        if (!canRead(deserializer)) {
+            return Optional.empty();
+        }
         try {
-            return Optional.ofNullable(curatorFramework.getData().forPath(path));
+            val children = readChildren(deserializer);
+            val previousChildren = reportedChildren;
+            val previousVersion = deltaVersion;
+            reportedChildren = children.getNodes();
+            deltaVersion = Long.toString(children.getVersion());
+            if (null == sinceVersion || !sinceVersion.equals(previousVersion)) {
+                return Optional.of(NodeDelta.snapshot(deltaVersion,
+                                                      reportedChildren.values()
+                                                              .stream()
+                                                              .map(CachedNode::publishedNode)
+                                                              .toList()));
+            }
+            val removed = new HashSet<String>();
+            previousChildren.forEach((child, node) -> {
+                if (!reportedChildren.containsKey(child)) {
+                    removed.add(node.getNode().representation());
+                }
+            });
+            val upserts = new ArrayList<ServiceNode<T>>();
+            val heartbeats = new HashMap<String, Long>();
+            reportedChildren.forEach((child, node) -> {
+                val previous = previousChildren.get(child);
+                if (null == previous || previous.getContentMzxid() != node.getContentMzxid()) {
+                    upserts.add(node.publishedNode());
+                }
+                else if (previous.getMzxid() != node.getMzxid()) {
+                    heartbeats.put(node.getNode().representation(), node.getNode().getLastUpdatedTimeStamp());
+                }
+            });
+            return Optional.of(NodeDelta.<T>builder()
+                                       .version(deltaVersion)
+                                       .upserts(upserts)
+                                       .removed(removed)
+                                       .heartbeats(heartbeats)
+                                       .build());
+        }
+        catch (NoNodeException e) {
+            log.error("No ZK container node found for service: {}. Will return empty list for now. " +
+                              "Please doublecheck service name", service.getServiceName());
+            nodeCache.clear();
+            reportedChildren = Collections.emptyMap();
+            deltaVersion = null;
+            return Optional.of(NodeDelta.snapshot(null, Collections.emptyList()));
+        }
+        catch (Exception e) {
+            //Force the next delta to be a snapshot, as the caller will not apply this one
+            deltaVersion = null;
+            log.error("Error getting node delta from zookeeper: ", e);
+            throw new ZkCommunicationException("Error getting node delta from zookeeper: exception %s , message: %s"
+                    .formatted(e.getClass().getSimpleName(), e.getMessage()));
+        }
+    }
+
+    private boolean canRead(D deserializer) {
+        if (!isStarted()) {
+            log.warn("Data source is not yet started for service: {}. No nodes will be returned.",
+                     service.getServiceName());
+            return false;
+        }
+        if (isStopped()) {
+            log.warn("Data source is  stopped already for service: {}. No nodes will be returned.",
+                     service.getServiceName());
+            return false;
+        }
+        Preconditions.checkNotNull(deserializer, "Deserializer has not been set for node data");
+        if (!isActive()) {
+            log.warn("ZK connection is not active. Ignoring refresh request for service: {}",
+                     service.getServiceName());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Read all children of the service znode, going to zookeeper for data only for the ones that changed since the
+     * last read. Stats and data are read in the background, with at most maxInFlightReads requests outstanding and
+     * all reads finishing within readTimeoutMs. Children that are missing or can not be read are skipped.
+     */
+    private Children<T> readChildren(D deserializer) throws Exception {
+        val serviceName = service.getServiceName();
+        val parentPath = PathBuilder.servicePath(service);
+        log.debug("Looking for node list of [{}]", serviceName);
+        val deadline = System.currentTimeMillis() + readTimeoutMs;
+        val parentStat = new Stat();
+        val children = curatorFramework.getChildren().storingStatIn(parentStat).forPath(parentPath);
+        log.debug("Found {} nodes for [{}]", children.size(), serviceName);
+        val stats = readInBackground(
+                parentPath, children,
+                (callback, path) -> curatorFramework.checkExists().inBackground(callback).forPath(path),
+                deadline);
+        val unchanged = new HashMap<String, CachedNode<T>>();
+        val changed = new ArrayList<String>();
+        for (val child : children) {
+            val statEvent = stats.get(child);
+            val resultCode = KeeperException.Code.get(statEvent.getResultCode());
+            if (resultCode == KeeperException.Code.NONODE) {
+                log.warn("Node not found for path {}/{}", parentPath, child);
+                continue;
+            }
+            val cached = nodeCache.get(child);
+            if (resultCode == KeeperException.Code.OK
+                    && null != cached
+                    && cached.getMzxid() == statEvent.getStat().getMzxid()) {
+                unchanged.put(child, cached);
+            }
+            else {
+                changed.add(child);
+            }
         }
-        catch (KeeperException.NoNodeException e) {
+        val reads = readInBackground(
+                parentPath, changed,
+                (callback, path) -> curatorFramework.getData().inBackground(callback).forPath(path),
+                deadline);
+        val nodes = new LinkedHashMap<String, CachedNode<T>>();
+        var version = parentStat.getPzxid();
+        for (val child : children) {
+            if (!unchanged.containsKey(child) && !reads.containsKey(child)) {
+                continue;
+            }
+            val node = unchanged.containsKey(child)
+                       ? unchanged.get(child)
+                       : readNode(deserializer, parentPath, child, reads.get(child), nodeCache.get(child));
+            if (null == node) {
+                continue;
+            }
+            nodes.put(child, node);
+            version = Math.max(version, node.getMzxid());
+        }
+        nodeCache.keySet().retainAll(nodes.keySet());
+        nodeCache.putAll(nodes);
+        return new Children<>(nodes, version);
+    }
+
+    /**
+     * Start the given read for all children in the background and wait for all of them to complete. Fails with a
+     * {@link TimeoutException} if the reads do not complete before the deadline.
+     */
+    private Map<String, CuratorEvent> readInBackground(
+            String parentPath,
+            List<String> children,
+            BackgroundRead read,
+            long deadline) throws Exception {
+        val window = new Semaphore(maxInFlightReads);
+        val futures = new LinkedHashMap<String, CompletableFuture<CuratorEvent>>();
+        for (val child : children) {
+            if (!window.tryAcquire(remainingMillis(deadline), TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("Reads for " + parentPath + " did not complete in " + readTimeoutMs + " ms");
+            }
+            val future = new CompletableFuture<CuratorEvent>();
+            future.whenComplete((event, error) -> window.release());
+            futures.put(child, future);
+            read.start((client, event) -> future.complete(event), String.format("%s/%s", parentPath, child));
+        }
+        val events = new HashMap<String, CuratorEvent>();
+        for (val entry : futures.entrySet()) {
+            events.put(entry.getKey(), entry.getValue().get(remainingMillis(deadline), TimeUnit.MILLISECONDS));
+        }
+        return events;
+    }
+
+    private CachedNode<T> readNode(
+            D deserializer,
+            String parentPath,
+            String child,
+            CuratorEvent event,
+            CachedNode<T> cached) {
+        val path = String.format("%s/%s", parentPath, child);
+        val resultCode = KeeperException.Code.get(event.getResultCode());
+        if (resultCode == KeeperException.Code.NONODE) {
             log.warn("Node not found for path {}", path);
-            return Optional.empty();
+            return null;
         }
-        catch (KeeperException e) {
-            log.error("Could not get data for node: {}", path, e);
-            return Optional.empty();
-        } catch (Exception e){
-            log.error("Could not read child for node: {}", path, e);
-            throw e;
+        if (resultCode != KeeperException.Code.OK) {
+            log.error("Could not get data for node: {}", path, KeeperException.create(resultCode, path));
+            return null;
+        }
+        return cachedNode(deserializer, event.getStat().getMzxid(), event.getData(), cached);
+    }
+
+    /**
+     * Build the cached version of a child znode from data read at the given mzxid, reusing the previously cached
+     * node if the content did not change.
+     * @return null if the data is empty or could not be deserialized
+     */
+    static <T> CachedNode<T> cachedNode(
+            ZkNodeDataDeserializer<T> deserializer,
+            long mzxid,
+            byte[] data,
+            CachedNode<T> cached) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (null != cached) {
+            if (Arrays.equals(cached.getData(), data)) {
+                return new CachedNode<>(mzxid, cached.getContentMzxid(), data, cached.getNode());
+            }
+            val heartbeat = heartbeatTimestamp(cached.getData(), data);
+            if (heartbeat.isPresent()) {
+                return new CachedNode<>(mzxid,
+                                        cached.getContentMzxid(),
+                                        data,
+                                        cached.getNode().withLastUpdatedTimeStamp(heartbeat.getAsLong()));
+            }
+        }
+        val node = deserializer.deserialize(data);
+        return null == node ? null : new CachedNode<>(mzxid, mzxid, data, node);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    /**
+     * Providers rewrite their znode on every health update even if only the last updated time stamp has changed.
+     * Nodes are serialized as json, so if the data differs from the cached data only in the value of the top level
+     * lastUpdatedTimeStamp field, the cached node can be reused without deserializing the data again. If the field
+     * name also shows up nested inside the node data, the data is treated as changed and deserialized.
+     * @return The new time stamp if that is the only change
+     */
+    static OptionalLong heartbeatTimestamp(byte[] previous, byte[] current) {
+        val previousStart = topLevelFieldIndex(previous, LAST_UPDATED_FIELD);
+        val currentStart = topLevelFieldIndex(current, LAST_UPDATED_FIELD);
+        if (previousStart < 0 || previousStart != currentStart
+                || !Arrays.equals(previous, 0, previousStart, current, 0, currentStart)) {
+            return OptionalLong.empty();
+        }
+        val valueStart = currentStart + LAST_UPDATED_FIELD.length;
+        val previousEnd = numberEnd(previous, valueStart);
+        val currentEnd = numberEnd(current, valueStart);
+        if (currentEnd == valueStart
+                || !Arrays.equals(previous, previousEnd, previous.length, current, currentEnd, current.length)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(new String(current,
+                                                             valueStart,
+                                                             currentEnd - valueStart,
+                                                             StandardCharsets.US_ASCII)));
+        }
+        catch (NumberFormatException e) {
+            return OptionalLong.empty();
         }
     }
 
+    /**
+     * @return Position of the field among the keys of the top level object, or -1 if it is not there or if the same
+     * key is also used in a nested object
+     */
+    private static int topLevelFieldIndex(byte[] data, byte[] field) {
+        var depth = 0;
+        var found = -1;
+        for (int i = 0; i < data.length; i++) {
+            val current = data[i];
+            if (current == '"') {
+                if (i + field.length <= data.length
+                        && Arrays.equals(data, i, i + field.length, field, 0, field.length)) {
+                    if (depth != 1 || found >= 0) {
+                        return -1;
+                    }
+                    found = i;
+                }
+                i = stringEnd(data, i);
+                if (i < 0) {
+                    return -1;
+                }
+            }
+            else if (current == '{' || current == '[') {
+                depth++;
+            }
+            else if (current == '}' || current == ']') {
+                depth--;
+            }
+        }
+        return found;
+    }
+
+    //Position of the quote closing the string that starts at the given position, -1 if the string is not closed
+    private static int stringEnd(byte[] data, int start) {
+        for (int i = start + 1; i < data.length; i++) {
+            if (data[i] == '\\') {
+                i++;
+            }
+            else if (data[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int numberEnd(byte[] data, int start) {
+        var end = start;
+        while (end < data.length && (Character.isDigit(data[end]) || data[end] == '-')) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * A child znode as of the last read
+     * <ul>
+     *     <li>mzxid: Modification zxid of the data that was read</li>
+     *     <li>contentMzxid: Modification zxid at which the node content last changed, heartbeats do not move it</li>
+     * </ul>
+     */
+    @Value
+    static class CachedNode<T> {
+        long mzxid;
+        long contentMzxid;
+        byte[] data;
+        ServiceNode<T> node;
+
+        /**
+         * @return A copy of the node to hand out. Service nodes are mutable, so the cached instance itself must never
+         * leave the data source.
+         */
+        ServiceNode<T> publishedNode() {
+            return new ServiceNode<>(node.getHost(),
+                                     node.getPort(),
+                                     node.getRoutingWeight(),
+                                     node.getNodeData(),
+                                     node.getHealthcheckStatus(),
+                                     node.getLastUpdatedTimeStamp(),
+                                     node.getHealthySinceTimeStamp(),
+                                     node.getPortScheme());
+        }
+    }
+
+    @Value
+    private static class Children<T> {
+        Map<String, CachedNode<T>> nodes;
+        long version;
+    }
+
+    @FunctionalInterface
+    private interface BackgroundRead {
+        void start(BackgroundCallback callback, String path) throws Exception;
+    }
 }
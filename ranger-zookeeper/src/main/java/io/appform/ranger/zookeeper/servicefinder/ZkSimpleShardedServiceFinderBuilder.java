@@ -21,7 +21,9 @@ import io.appform.ranger.core.finder.SimpleShardedServiceFinderBuilder;
 import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.signals.Signal;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.signals.ZkNodeCacheRegistryUpdateSignal;
 import io.appform.ranger.zookeeper.servicefinder.signals.ZkWatcherRegistryUpdateSignal;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -39,6 +41,10 @@ import java.util.List;
 public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedServiceFinderBuilder<T, ZkSimpleShardedServiceFinderBuilder<T>, ZkNodeDataDeserializer<T>> {
     protected CuratorFramework curatorFramework;
     protected String connectionString;
+    protected int maxInFlightReads = ZkNodeDataSource.DEFAULT_MAX_IN_FLIGHT_READS;
+    protected long readTimeoutMs = ZkNodeDataSource.DEFAULT_READ_TIMEOUT_MS;
+    protected boolean useNodeCache;
+    protected ZkNodeCache nodeCache;
 
     public ZkSimpleShardedServiceFinderBuilder<T> withCuratorFramework(CuratorFramework curatorFramework) {
         this.curatorFramework = curatorFramework;
@@ -50,6 +56,44 @@ public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedService
         return this;
     }
 
+    /**
+     * Maximum number of znode reads kept in flight while refreshing nodes of the service
+     */
+    public ZkSimpleShardedServiceFinderBuilder<T> withMaxInFlightReads(int maxInFlightReads) {
+        this.maxInFlightReads = maxInFlightReads;
+        return this;
+    }
+
+    /**
+     * Time within which all znode reads for a single refresh need to complete
+     */
+    public ZkSimpleShardedServiceFinderBuilder<T> withReadTimeout(long readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+        return this;
+    }
+
+    /**
+     * Mirror the service znode and its children in memory using a persistent recursive watch and refresh the
+     * registry from the mirror on every change, instead of reading all children from zookeeper on every refresh.
+     * Needs zookeeper 3.6 or above.
+     */
+    public ZkSimpleShardedServiceFinderBuilder<T> withNodeCache() {
+        this.useNodeCache = true;
+        return this;
+    }
+
+    /**
+     * Read nodes from a cache shared with other finders, like a namespace wide one used by a hub. The cache is not
+     * closed when the finder is stopped. Ignored if null.
+     * The periodic refresh stays on and reads from the cache. It is what drops nodes that stop sending heartbeats,
+     * as no watch event fires for them.
+     */
+    public ZkSimpleShardedServiceFinderBuilder<T> withNodeCache(ZkNodeCache nodeCache) {
+        this.nodeCache = nodeCache;
+        this.useNodeCache = useNodeCache || null != nodeCache;
+        return this;
+    }
+
     @Override
     public SimpleShardedServiceFinder<T> build() {
         val curatorProvided = curatorFramework != null;
@@ -67,11 +111,21 @@ public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedService
 
     @Override
     protected NodeDataSource<T, ZkNodeDataDeserializer<T>> dataSource(Service service) {
-        return new ZkNodeDataSource<>(service, curatorFramework);
+        if (null != nodeCache) {
+            return new ZkCachedNodeDataSource<>(service, curatorFramework, nodeCache, readTimeoutMs);
+        }
+        if (useNodeCache) {
+            return new ZkCachedNodeDataSource<>(service, curatorFramework, readTimeoutMs);
+        }
+        return new ZkNodeDataSource<>(service, curatorFramework, maxInFlightReads, readTimeoutMs);
     }
 
     @Override
     protected List<Signal<T>> implementationSpecificRefreshSignals(final Service service, final NodeDataSource<T, ZkNodeDataDeserializer<T>> nodeDataSource) {
+        if (!disablePushUpdaters && nodeDataSource instanceof ZkCachedNodeDataSource) {
+            return Collections.singletonList(new ZkNodeCacheRegistryUpdateSignal<>(
+                    service, ((ZkCachedNodeDataSource<T, ZkNodeDataDeserializer<T>>) nodeDataSource).getNodeCache()));
+        }
         if (!disablePushUpdaters) {
             return Collections.singletonList(
                     new ZkWatcherRegistryUpdateSignal<>(service, nodeDataSource, curatorFramework));
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder.signals;
+
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.signals.Signal;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+
+/**
+ * Signals a registry update whenever the znode at the given path or any of its children change in the given
+ * {@link ZkNodeCache}. Unlike {@link ZkWatcherRegistryUpdateSignal}, this keeps firing for every change, including
+ * data changes on instance znodes.
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ZkNodeCacheRegistryUpdateSignal<T> extends Signal<T> {
+    private final String path;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ZkNodeCache nodeCache;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Runnable listener = this::onSignalReceived;
+
+    public ZkNodeCacheRegistryUpdateSignal(Service service, ZkNodeCache nodeCache) {
+        this(nodeCache, PathBuilder.servicePath(service));
+    }
+
+    public ZkNodeCacheRegistryUpdateSignal(ZkNodeCache nodeCache, String path) {
+        super(() -> null, Collections.emptyList());
+        this.path = path;
+        this.nodeCache = nodeCache;
+    }
+
+    @Override
+    public void start() {
+        nodeCache.addListener(path, listener);
+        log.info("Listening to node cache changes for path: {}", path);
+        //Pick up changes that happened between the initial refresh and the listener being added
+        onSignalReceived();
+    }
+
+    @Override
+    public void stop() {
+        nodeCache.removeListener(path, listener);
+    }
+}
@@ -21,6 +21,9 @@ import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
 import io.appform.ranger.zookeeper.servicefinder.ZkSimpleUnshardedServiceFinderBuilder;
 import lombok.Builder;
@@ -37,6 +40,10 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
     private final ZkNodeDataDeserializer<T> deserializer;
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshScheduler refreshScheduler;
+    private final RefreshIntervalPolicy refreshIntervalPolicy;
+    private final long initialUpdateTimeoutMs;
+    private final ZkNodeCache nodeCache;
 
     @Builder
     public ZKUnshardedServiceFinderFactory(
@@ -46,7 +53,11 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
             boolean disablePushUpdaters,
             ZkNodeDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
-            ServiceNodeSelector<T> nodeSelector) {
+            ServiceNodeSelector<T> nodeSelector,
+            RefreshScheduler refreshScheduler,
+            RefreshIntervalPolicy refreshIntervalPolicy,
+            long initialUpdateTimeoutMs,
+            ZkNodeCache nodeCache) {
         this.curatorFramework = curatorFramework;
         this.connectionString = connectionString;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
@@ -54,6 +65,10 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshScheduler = refreshScheduler;
+        this.refreshIntervalPolicy = refreshIntervalPolicy;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
+        this.nodeCache = nodeCache;
     }
 
     @Override
@@ -66,6 +81,10 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
                 .withDisableWatchers(disablePushUpdaters)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshScheduler(refreshScheduler)
+                .withRefreshIntervalPolicy(refreshIntervalPolicy)
+                .withInitialUpdateTimeoutMs(initialUpdateTimeoutMs)
+                .withNodeCache(nodeCache)
                 .withConnectionString(connectionString)
                 .withCuratorFramework(curatorFramework)
                 .build();
@@ -18,6 +18,7 @@ package io.appform.ranger.zookeeper.servicefinderhub;
 import com.google.common.base.Preconditions;
 import io.appform.ranger.core.finderhub.ServiceDataSource;
 import io.appform.ranger.core.model.Service;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
 import io.appform.ranger.zookeeper.util.PathBuilder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@ import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.utils.ZKPaths;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -35,23 +37,47 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class ZkServiceDataSource implements ServiceDataSource {
+    private static final long NODE_CACHE_INITIALIZATION_TIMEOUT_MS = 30_000;
 
     private final String namespace;
     private final String connectionString;
     private CuratorFramework curatorFramework;
     private boolean curatorProvided;
+    private final ZkNodeCache nodeCache;
 
     public ZkServiceDataSource(String namespace,
                                String connectionString,
                                CuratorFramework curatorFramework){
+        this(namespace, connectionString, curatorFramework, null);
+    }
+
+    /**
+     * @param nodeCache If provided, services are listed from this namespace wide cache instead of zookeeper.
+     *                  The cache is started along with this data source and closed when it is stopped.
+     */
+    public ZkServiceDataSource(String namespace,
+                               String connectionString,
+                               CuratorFramework curatorFramework,
+                               ZkNodeCache nodeCache){
         this.namespace = namespace;
         this.connectionString = connectionString;
         this.curatorFramework = curatorFramework;
+        this.nodeCache = nodeCache;
     }
 
     @Override
     @SneakyThrows
     public Collection<Service> services() {
+        if (null != nodeCache && nodeCache.isInitialized()) {
+            return nodeCache.children(PathBuilder.REGISTERED_SERVICES_PATH)
+                    .keySet()
+                    .stream()
+                    .map(path -> Service.builder()
+                            .namespace(namespace)
+                            .serviceName(ZKPaths.getNodeFromPath(path))
+                            .build())
+                    .collect(Collectors.toSet());
+        }
         val children = curatorFramework.getChildren()
                 .forPath(PathBuilder.REGISTERED_SERVICES_PATH);
         return null == children ? Collections.emptySet() :
@@ -80,12 +106,25 @@ public class ZkServiceDataSource implements ServiceDataSource {
             log.error("Curator block interrupted", e);
             Thread.currentThread().interrupt();
         }
+        if (null != nodeCache) {
+            try {
+                if (!nodeCache.start(NODE_CACHE_INITIALIZATION_TIMEOUT_MS)) {
+                    log.warn("Namespace node cache did not initialize in {} ms. Services will be read from zookeeper " +
+                                     "till it does", NODE_CACHE_INITIALIZATION_TIMEOUT_MS);
+                }
+            }
+            catch (InterruptedException e) {
+                log.error("Node cache initialization interrupted", e);
+                Thread.currentThread().interrupt();
+            }
+        }
         log.info("Service data source started. Curator state is: {}", curatorFramework.getState().name());
     }
 
     @Override
     public void stop() {
         log.info("Service data stopped");
+        if (null != nodeCache) nodeCache.close();
         if(!curatorProvided) curatorFramework.close();
         log.info("Service data source stopped");
     }
@@ -19,7 +19,11 @@ import com.google.common.base.Preconditions;
 import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.finderhub.ServiceFinderHubBuilder;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
+import io.appform.ranger.zookeeper.servicefinder.signals.ZkNodeCacheRegistryUpdateSignal;
+import io.appform.ranger.zookeeper.util.PathBuilder;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
@@ -32,6 +36,7 @@ public class ZkServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> extends
     private String namespace;
     private CuratorFramework curatorFramework;
     private String connectionString;
+    private ZkNodeCache nodeCache;
 
     public ZkServiceFinderHubBuilder<T, R> withNamespace(final String namespace) {
         this.namespace = namespace;
@@ -48,6 +53,15 @@ public class ZkServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> extends
         return this;
     }
 
+    /**
+     * Refresh the hub whenever a service is added to or removed from the given namespace wide cache, instead of only
+     * on the periodic refresh. The same cache should be given to the service data source and the finder factory.
+     */
+    public ZkServiceFinderHubBuilder<T, R> withNodeCache(ZkNodeCache nodeCache) {
+        this.nodeCache = nodeCache;
+        return this;
+    }
+
     @Override
     protected void preBuild() {
         if (null == curatorFramework) {
@@ -61,6 +75,13 @@ public class ZkServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> extends
             super.withExtraStartSignalConsumer(x -> curatorFramework.start());
             super.withExtraStartSignalConsumer(x -> curatorFramework.close());
         }
+        if (null != nodeCache) {
+            val refreshSignal = new ZkNodeCacheRegistryUpdateSignal<Void>(nodeCache,
+                                                                          PathBuilder.REGISTERED_SERVICES_PATH);
+            super.withExtraRefreshSignal(refreshSignal);
+            super.withExtraStartSignalConsumer(x -> refreshSignal.start());
+            super.withExtraStopSignalConsumer(x -> refreshSignal.stop());
+        }
     }
 
     @Override
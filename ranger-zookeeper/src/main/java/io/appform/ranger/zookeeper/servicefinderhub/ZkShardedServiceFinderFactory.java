@@ -21,6 +21,9 @@ import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.signals.RefreshIntervalPolicy;
+import io.appform.ranger.core.signals.RefreshScheduler;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
 import io.appform.ranger.zookeeper.servicefinder.ZkSimpleShardedServiceFinderBuilder;
 import lombok.Builder;
@@ -38,6 +41,10 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
     private final ZkNodeDataDeserializer<T> deserializer;
     private final ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshScheduler refreshScheduler;
+    private final RefreshIntervalPolicy refreshIntervalPolicy;
+    private final long initialUpdateTimeoutMs;
+    private final ZkNodeCache nodeCache;
 
     @Builder
     public ZkShardedServiceFinderFactory(
@@ -47,7 +54,11 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
             boolean disablePushUpdaters,
             ZkNodeDataDeserializer<T> deserializer,
             ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector,
-            ServiceNodeSelector<T> nodeSelector) {
+            ServiceNodeSelector<T> nodeSelector,
+            RefreshScheduler refreshScheduler,
+            RefreshIntervalPolicy refreshIntervalPolicy,
+            long initialUpdateTimeoutMs,
+            ZkNodeCache nodeCache) {
         this.curatorFramework = curatorFramework;
         this.connectionString = connectionString;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
@@ -55,6 +66,10 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshScheduler = refreshScheduler;
+        this.refreshIntervalPolicy = refreshIntervalPolicy;
+        this.initialUpdateTimeoutMs = initialUpdateTimeoutMs;
+        this.nodeCache = nodeCache;
     }
 
     @Override
@@ -67,6 +82,10 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
                 .withDisableWatchers(disablePushUpdaters)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshScheduler(refreshScheduler)
+                .withRefreshIntervalPolicy(refreshIntervalPolicy)
+                .withInitialUpdateTimeoutMs(initialUpdateTimeoutMs)
+                .withNodeCache(nodeCache)
                 .withConnectionString(connectionString)
                 .withCuratorFramework(curatorFramework)
                 .build();
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.signals.ZkNodeCacheRegistryUpdateSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryForever;
+import org.apache.curator.test.TestingCluster;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ZkCachedNodeDataSourceTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Service SERVICE = Service.builder().namespace("test").serviceName("test-service").build();
+
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+    private final AtomicInteger deserializations = new AtomicInteger();
+    private final ZkNodeDataDeserializer<TestNodeData> deserializer = data -> {
+        deserializations.incrementAndGet();
+        return read(data);
+    };
+
+    @BeforeEach
+    void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(1);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace("test")
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new RetryForever(100))
+                .build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    void stopTestCluster() throws Exception {
+        curatorFramework.close();
+        testingCluster.close();
+    }
+
+    @Test
+    void testRefreshFromNodeCache() {
+        write("host1", 1, 1000L);
+        write("host2", 2, 1000L);
+        val dataSource = new ZkCachedNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework, 10_000);
+        val signals = new AtomicInteger();
+        val signal = new ZkNodeCacheRegistryUpdateSignal<TestNodeData>(SERVICE, dataSource.getNodeCache());
+        signal.registerConsumer(x -> signals.incrementAndGet());
+        dataSource.start();
+        signal.start();
+
+        Assertions.assertEquals(2, dataSource.refresh(deserializer).orElseThrow().size());
+        Assertions.assertEquals(2, deserializations.get());
+        Assertions.assertEquals(2, dataSource.refresh(deserializer).orElseThrow().size());
+        Assertions.assertEquals(2, deserializations.get());
+
+        //Data changes are signalled, not just changes to the list of children
+        val signalsBeforeWrite = signals.get();
+        write("host1", 1, 2000L);
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> signals.get() > signalsBeforeWrite);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> dataSource.refresh(deserializer)
+                        .orElseThrow()
+                        .stream()
+                        .anyMatch(node -> node.getLastUpdatedTimeStamp() == 2000L));
+        Assertions.assertEquals(2, deserializations.get());
+
+        val signalsBeforeDelete = signals.get();
+        delete("host2");
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> signals.get() > signalsBeforeDelete);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> dataSource.refresh(deserializer).orElseThrow().size() == 1);
+
+        signal.stop();
+        dataSource.stop();
+        Assertions.assertTrue(dataSource.refresh(deserializer).isEmpty());
+    }
+
+    @SneakyThrows
+    private void write(String host, int shardId, long timestamp) {
+        val node = ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(shardId).build())
+                .lastUpdatedTimeStamp(timestamp)
+                .build();
+        val path = "/test-service/" + node.representation();
+        if (null == curatorFramework.checkExists().forPath(path)) {
+            curatorFramework.create().creatingParentContainersIfNeeded().forPath(path, MAPPER.writeValueAsBytes(node));
+        }
+        else {
+            curatorFramework.setData().forPath(path, MAPPER.writeValueAsBytes(node));
+        }
+    }
+
+    @SneakyThrows
+    private void delete(String host) {
+        curatorFramework.delete().forPath("/test-service/" + host + ":8080");
+    }
+
+    @SneakyThrows
+    private static ServiceNode<TestNodeData> read(byte[] data) {
+        return MAPPER.readValue(data, new TypeReference<>() {});
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryForever;
+import org.apache.curator.test.TestingCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ZkNodeDataSourceTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Service SERVICE = Service.builder().namespace("test").serviceName("test-service").build();
+
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+    private final AtomicInteger deserializations = new AtomicInteger();
+    private final ZkNodeDataDeserializer<TestNodeData> deserializer = data -> {
+        deserializations.incrementAndGet();
+        return read(data);
+    };
+
+    @BeforeEach
+    void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(1);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace("test")
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new RetryForever(100))
+                .build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    void stopTestCluster() throws Exception {
+        curatorFramework.close();
+        testingCluster.close();
+    }
+
+    @Test
+    void testDeltaReadsOnlyChangedNodes() {
+        write("host1", 1);
+        write("host2", 2);
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(SERVICE, curatorFramework);
+        dataSource.start();
+
+        val snapshot = dataSource.refreshDelta(deserializer, null).orElseThrow();
+        Assertions.assertTrue(snapshot.isSnapshot());
+        Assertions.assertEquals(2, snapshot.getUpserts().size());
+        Assertions.assertEquals(2, deserializations.get());
+
+        val unchanged = dataSource.refreshDelta(deserializer, snapshot.getVersion()).orElseThrow();
+        Assertions.assertFalse(unchanged.isSnapshot());
+        Assertions.assertTrue(unchanged.getUpserts().isEmpty());
+        Assertions.assertTrue(unchanged.getRemoved().isEmpty());
+        Assertions.assertEquals(snapshot.getVersion(), unchanged.getVersion());
+        Assertions.assertEquals(2, deserializations.get());
+
+        write("host2", 3);
+        write("host3", 4);
+        delete("host1");
+        val delta = dataSource.refreshDelta(deserializer, unchanged.getVersion()).orElseThrow();
+        Assertions.assertFalse(delta.isSnapshot());
+        Assertions.assertEquals(Set.of("host1:8080"), delta.getRemoved());
+        Assertions.assertEquals(2, delta.getUpserts().size());
+        Assertions.assertEquals(4, deserializations.get());
+        Assertions.assertNotEquals(unchanged.getVersion(), delta.getVersion());
+
+        //An unknown version gets a snapshot built from cached nodes
+        val resync = dataSource.refreshDelta(deserializer, "stale").orElseThrow();
+        Assertions.assertTrue(resync.isSnapshot());
+        Assertions.assertEquals(2, resync.getUpserts().size());
+        Assertions.assertEquals(4, deserializations.get());
+    }
+
+    @Test
+    void testRefreshReadsOnlyChangedNodes() {
+        write("host1", 1, 1000L);
+        write("host2", 2, 1000L);
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(SERVICE, curatorFramework);
+        dataSource.start();
+
+        Assertions.assertEquals(2, dataSource.refresh(deserializer).orElseThrow().size());
+        Assertions.assertEquals(2, deserializations.get());
+        //Nodes are handed out as copies, so changes made to them do not leak into the cache
+        dataSource.refresh(deserializer).orElseThrow().forEach(node -> node.setLastUpdatedTimeStamp(5000L));
+        Assertions.assertTrue(dataSource.refresh(deserializer).orElseThrow()
+                                      .stream()
+                                      .allMatch(node -> node.getLastUpdatedTimeStamp() == 1000L));
+        Assertions.assertEquals(2, deserializations.get());
+        val version = dataSource.refreshDelta(deserializer, null).orElseThrow().getVersion();
+
+        //Heartbeat only rewrite reuses the cached node with the new time stamp
+        write("host1", 1, 2000L);
+        val nodes = dataSource.refresh(deserializer).orElseThrow();
+        Assertions.assertEquals(2, deserializations.get());
+        Assertions.assertEquals(2000L, nodes.stream()
+                .filter(node -> node.getHost().equals("host1"))
+                .findFirst()
+                .orElseThrow()
+                .getLastUpdatedTimeStamp());
+        val delta = dataSource.refreshDelta(deserializer, version).orElseThrow();
+        Assertions.assertFalse(delta.isSnapshot());
+        Assertions.assertTrue(delta.getUpserts().isEmpty());
+        Assertions.assertEquals(Map.of("host1:8080", 2000L), delta.getHeartbeats());
+
+        write("host2", 5, 2000L);
+        Assertions.assertEquals(5, dataSource.refresh(deserializer).orElseThrow()
+                .stream()
+                .filter(node -> node.getHost().equals("host2"))
+                .findFirst()
+                .orElseThrow()
+                .getNodeData()
+                .getShardId());
+        Assertions.assertEquals(3, deserializations.get());
+    }
+
+    @Test
+    void testRefreshWithBoundedInFlightReads() {
+        IntStream.range(0, 50).forEach(i -> write("host" + i, i));
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework, 4, 10_000);
+        dataSource.start();
+
+        val nodes = dataSource.refresh(deserializer).orElseThrow();
+        Assertions.assertEquals(50, nodes.size());
+        Assertions.assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toSet()),
+                                nodes.stream().map(node -> node.getNodeData().getShardId()).collect(Collectors.toSet()));
+        Assertions.assertEquals(50, deserializations.get());
+    }
+
+    @Test
+    void testHeartbeatTimestamp() {
+        val previous = "{\"host\":\"h\",\"lastUpdatedTimeStamp\":1000,\"healthcheckStatus\":\"healthy\"}";
+        Assertions.assertEquals(12345L, ZkNodeDataSource.heartbeatTimestamp(
+                bytes(previous),
+                bytes(previous.replace("1000", "12345"))).orElseThrow());
+        Assertions.assertTrue(ZkNodeDataSource.heartbeatTimestamp(
+                bytes(previous),
+                bytes(previous.replace("1000", "2000").replace("healthy", "unhealthy"))).isEmpty());
+        Assertions.assertTrue(ZkNodeDataSource.heartbeatTimestamp(
+                bytes(previous),
+                bytes(previous.replace("\"h\"", "\"g\"").replace("1000", "2000"))).isEmpty());
+        Assertions.assertTrue(ZkNodeDataSource.heartbeatTimestamp(bytes("{}"), bytes("{ }")).isEmpty());
+
+        //Same key nested in node data is ambiguous
+        val nested = "{\"host\":\"h\",\"nodeData\":{\"lastUpdatedTimeStamp\":5},\"lastUpdatedTimeStamp\":1000}";
+        Assertions.assertTrue(ZkNodeDataSource.heartbeatTimestamp(
+                bytes(nested),
+                bytes(nested.replace("1000", "2000"))).isEmpty());
+        //Key inside a string value is not a key
+        val quoted = "{\"host\":\"\\\"lastUpdatedTimeStamp\\\":\",\"lastUpdatedTimeStamp\":1000}";
+        Assertions.assertEquals(2000L, ZkNodeDataSource.heartbeatTimestamp(
+                bytes(quoted),
+                bytes(quoted.replace("1000", "2000"))).orElseThrow());
+    }
+
+    private void write(String host, int shardId) {
+        write(host, shardId, System.currentTimeMillis());
+    }
+
+    @SneakyThrows
+    private void write(String host, int shardId, long timestamp) {
+        val node = ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(shardId).build())
+                .lastUpdatedTimeStamp(timestamp)
+                .build();
+        val path = "/test-service/" + node.representation();
+        if (null == curatorFramework.checkExists().forPath(path)) {
+            curatorFramework.create().creatingParentContainersIfNeeded().forPath(path, MAPPER.writeValueAsBytes(node));
+        }
+        else {
+            curatorFramework.setData().forPath(path, MAPPER.writeValueAsBytes(node));
+        }
+    }
+
+    @SneakyThrows
+    private void delete(String host) {
+        curatorFramework.delete().forPath("/test-service/" + host + ":8080");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SneakyThrows
+    private static ServiceNode<TestNodeData> read(byte[] data) {
+        return MAPPER.readValue(data, new TypeReference<>() {});
+    }
+}
@@ -28,22 +28,28 @@ import io.appform.ranger.core.signals.ExternalTriggeredSignal;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.util.Exceptions;
 import io.appform.ranger.core.utils.RangerTestUtils;
+import io.appform.ranger.core.serviceprovider.ServiceProvider;
 import io.appform.ranger.zookeeper.ServiceProviderBuilders;
+import io.appform.ranger.zookeeper.common.ZkNodeCache;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceDataSource;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceFinderHubBuilder;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkShardedServiceFinderFactory;
+import io.appform.ranger.zookeeper.util.PathBuilder;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.curator.test.TestingCluster;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Date;
 
@@ -129,6 +135,63 @@ class ServiceHubTest {
         provider1.stop();
     }
 
+    @Test
+    void testHubWithNodeCache() {
+        val provider1 = provider("s1", 1080);
+        val nodeCache = new ZkNodeCache(curatorFramework, PathBuilder.REGISTERED_SERVICES_PATH);
+        val hub = new ZkServiceFinderHubBuilder<TestNodeData, MapBasedServiceRegistry<TestNodeData>>()
+                .withCuratorFramework(curatorFramework)
+                .withNamespace("test")
+                .withNodeCache(nodeCache)
+                .withRefreshFrequencyMs(60_000)
+                .withServiceDataSource(new ZkServiceDataSource("test",
+                                                               testingCluster.getConnectString(),
+                                                               curatorFramework,
+                                                               nodeCache))
+                .withServiceFinderFactory(ZkShardedServiceFinderFactory.<TestNodeData>builder()
+                                                  .curatorFramework(curatorFramework)
+                                                  .nodeRefreshIntervalMs(60_000)
+                                                  .deserializer(this::read)
+                                                  .nodeCache(nodeCache)
+                                                  .build())
+                .build();
+        hub.start();
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> hub.finder(RangerTestUtils.getService(NAMESPACE, "s1"))
+                        .flatMap(finder -> finder.get(nodeData -> nodeData.getShardId() == 1))
+                        .isPresent());
+
+        //New services and nodes are picked up from the cache without waiting for the periodic refresh
+        val provider2 = provider("s2", 1081);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> hub.finder(RangerTestUtils.getService(NAMESPACE, "s2"))
+                        .flatMap(finder -> finder.get(nodeData -> nodeData.getShardId() == 1))
+                        .isPresent());
+        hub.stop();
+        provider1.stop();
+        provider2.stop();
+    }
+
+    private ServiceProvider<TestNodeData, ZkNodeDataSerializer<TestNodeData>> provider(String serviceName, int port) {
+        final HealthUpdateHandler<TestNodeData> healthUpdateHandler = new LastUpdatedHandler<TestNodeData>()
+                .setNext(new HealthStatusHandler<>());
+        val provider = ServiceProviderBuilders.<TestNodeData>shardedServiceProviderBuilder()
+                .withHostname("localhost")
+                .withPort(port)
+                .withNamespace(NAMESPACE)
+                .withServiceName(serviceName)
+                .withSerializer(this::write)
+                .withNodeData(TestNodeData.builder().shardId(1).build())
+                .withHealthcheck(() -> HealthcheckStatus.healthy)
+                .withCuratorFramework(curatorFramework)
+                .healthUpdateHandler(healthUpdateHandler)
+                .build();
+        provider.start();
+        return provider;
+    }
+
     private ServiceNode<TestNodeData> read(final byte[] data) {
         try {
             return objectMapper.readValue(data, new TypeReference<ServiceNode<TestNodeData>>() {});